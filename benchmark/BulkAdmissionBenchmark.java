@@ -0,0 +1,95 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.AdmissionOutcome;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Benchmark for a burst of patients entering the hospital at once.
+ * The same 100 000 patients enter a new hospital one by one with enterHospital(patient) and as one list with enterHospital(list).
+ * The hospital has many doctors and wards with less beds than patients, so some patients are admitted, some wait and some are rejected.
+ * Examinations are only submitted to a simulation that is never run, so the benchmark measures only the intake.
+ * Arguments: "nometrics" turns off the metrics of the hospital, to measure their cost.
+ */
+public class BulkAdmissionBenchmark {
+    private static final int PATIENTS = 100_000;
+    private static final int DOCTORS = 15_000;  // doctors for every specialization
+    private static final int ROOMS = 4_000;     // rooms in every ward
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) {
+        boolean metrics = !(args.length > 0 && args[0].equals("nometrics"));
+        System.out.printf("%10s %10s %12s %10s %10s %10s%n", "intake", "run", "ms", "admitted", "waiting", "rejected");
+        for (int run = 1; run <= RUNS; run++) {    // first runs are the warm up
+            ArrayList<Patient> patients = new PatientFactory(run).generate(PATIENTS);
+            Hospital hospital = createHospital(metrics);
+            System.gc();    // garbage of the previous run is not collected during the intake
+            long start = System.nanoTime();
+            for (Patient patient : patients) {
+                hospital.enterHospital(patient);
+            }
+            long time = System.nanoTime() - start;
+            print("single", run, time, hospital);
+            hospital.shutdown();
+
+            patients = new PatientFactory(run).generate(PATIENTS);
+            hospital = createHospital(metrics);
+            System.gc();
+            start = System.nanoTime();
+            AdmissionOutcome[] outcomes = hospital.enterHospital(patients);
+            time = System.nanoTime() - start;
+            print("batch", run, time, hospital);
+            int waiting = 0;
+            for (AdmissionOutcome outcome : outcomes) {
+                if (outcome == AdmissionOutcome.WAITING) {
+                    waiting++;
+                }
+            }
+            if (waiting != hospital.getWaitingPatientsCount()) {
+                throw new IllegalStateException("Outcomes do not match the waiting patients.");
+            }
+            hospital.shutdown();
+        }
+    }
+
+    private static Hospital createHospital(boolean metrics) {
+        Random rand = new Random(42);
+        ArrayList<Doctor> doctors = new ArrayList<>();
+        ArrayList<Nurse> nurses = new ArrayList<>();
+        ArrayList<MedicalWard> wards = new ArrayList<>();
+        for (Specialization specialization : Specialization.values()) {
+            for (int i = 0; i < DOCTORS; i++) {
+                doctors.add(new Doctor("Doctor" + i, rand.nextInt(2999999) + 7000000, specialization));
+            }
+            nurses.add(new Nurse("Nurse" + specialization.ordinal(), rand));
+            wards.add(new MedicalWard(specialization, ROOMS, BEDS_IN_ROOM));
+        }
+        Hospital hospital = new Hospital(new SimulatedScheduler(new Simulation()), rand, doctors, nurses, wards);
+        hospital.setEventSink(EventSink.noOp());
+        if (metrics) {
+            hospital.enableMetrics();
+        }
+        return hospital;
+    }
+
+    private static void print(String intake, int run, long time, Hospital hospital) {
+        int admitted = 0;
+        for (Specialization specialization : Specialization.values()) {
+            admitted += hospital.getOccupiedBeds(specialization);
+        }
+        int waiting = hospital.getWaitingPatientsCount();
+        System.out.printf("%10s %10d %12.1f %10d %10d %10d%n", intake, run, time / 1e6, admitted, waiting, PATIENTS - admitted - waiting);
+    }
+}
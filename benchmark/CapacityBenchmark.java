@@ -0,0 +1,58 @@
+package Hospital.benchmark;
+
+import Hospital.model.HospitalTopology;
+import Hospital.model.simulation.LoadProfile;
+import Hospital.model.simulation.LoadReport;
+import Hospital.model.simulation.LoadTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Capacity planning for a hospital topology.
+ * Runs load tests in virtual time with a growing number of patients a day, 25% more in every step, until the hospital
+ * is saturated, and shows throughput, rejections, bed utilization and waiting times for every load.
+ * The last load before saturation is the capacity of the topology, the full report of the first saturated load shows why.
+ * Arguments: days of every test, "sustained" or "bursts" (three times more patients one day a week),
+ * optional properties file with a topology, see HospitalTopology, the standard hospital is tested without it.
+ */
+public class CapacityBenchmark {
+    private static final double START = 2;  // patients a day in the first test
+    private static final double STEP = 1.25;
+    private static final int MAX_STEPS = 40;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws IOException {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 365;
+        boolean bursts = args.length > 1 && args[1].equals("bursts");
+        HospitalTopology topology = args.length > 2 ? HospitalTopology.load(Path.of(args[2])) : HospitalTopology.standard();
+
+        System.out.printf("%10s %10s %10s %10s %10s %10s %10s %10s %10s%n", "per day", "admitted", "examined", "rejected %",
+                "beds %", "waiting", "p50 wait", "p99 wait", "real ms");
+        double arrivalsPerDay = START;
+        LoadReport capacity = null;
+        for (int step = 0; step < MAX_STEPS; step++) {
+            LoadProfile profile = bursts ? LoadProfile.bursts(arrivalsPerDay, 7, 1, 3) : LoadProfile.sustained(arrivalsPerDay);
+            LoadReport report = new LoadTest(topology, profile, SEED).run(days);
+            System.out.printf("%10.1f %10.1f %10.1f %10.2f %10.1f %10d %10d %10d %10d%s%n", profile.getAverageArrivalsPerDay(),
+                    report.getThroughput(), report.getExaminationsPerDay(), report.getRejectionRate() * 100,
+                    report.getBedUtilization() * 100, report.getWaitingPatients(), report.getWaitTimes().getPercentile(50),
+                    report.getWaitTimes().getPercentile(99), report.getElapsedMillis(), report.isSaturated() ? "  saturated" : "");
+            if (report.isSaturated()) {
+                System.out.println();
+                if (capacity != null) {
+                    System.out.printf("Capacity: %.1f patients a day%n", capacity.getProfile().getAverageArrivalsPerDay());
+                } else {
+                    System.out.println("Saturated already at the first load.");
+                }
+                System.out.println();
+                System.out.println("First saturated load:");
+                System.out.print(report);
+                return;
+            }
+            capacity = report;
+            arrivalsPerDay *= STEP;
+        }
+        System.out.println("Not saturated after " + MAX_STEPS + " steps.");
+    }
+}
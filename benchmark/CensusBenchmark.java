@@ -0,0 +1,142 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.WardCensus;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark for the census of a ward read by many threads while patients are admitted and discharged.
+ * One writer thread admits and removes patients in a half full ward all the time, the readers query all beds at once,
+ * either from the census or by copying the beds while holding the locks of the ward, as a consistent query had to be made before.
+ * Shows the changes made by the writer and the queries made by the readers in a second, and checks that every census
+ * was consistent: no room with patients of both genders and counters that agree with the beds.
+ * Exits with status 1 if any check fails.
+ */
+public class CensusBenchmark {
+    private static final int ROOMS = 2_000;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int[] READERS = {0, 1, 2, 4, 8};
+    private static final long MILLIS = 1000;   // measured time of every configuration
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Patient> patients = new PatientFactory(1).generate(ROOMS * BEDS_IN_ROOM);
+        boolean failed = false;
+        System.out.printf("%8s %10s %14s %14s %8s%n", "readers", "mode", "changes/s", "queries/s", "torn");
+        for (int run = 0; run < 2; run++) {    // first run is the warm up
+            for (int readers : READERS) {
+                for (boolean locked : new boolean[]{true, false}) {
+                    long[] result = measure(patients, readers, locked);
+                    failed |= result[2] > 0;
+                    if (run > 0) {
+                        System.out.printf("%8d %10s %14d %14d %8d%n", readers, locked ? "locked" : "census",
+                                result[0] * 1000 / MILLIS, result[1] * 1000 / MILLIS, result[2]);
+                    }
+                }
+            }
+        }
+        System.out.println(Runtime.getRuntime().availableProcessors() + " cores");
+        if (failed) {
+            System.out.println("Some queries saw an inconsistent ward.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the writer and the readers for the measured time.
+     *
+     * @param patients patients to admit, the writer keeps half of them in the ward
+     * @param readers number of reader threads
+     * @param locked true if the readers copy the beds while holding the lock instead of reading the census
+     * @return changes of the writer, queries of the readers and inconsistent queries
+     */
+    private static long[] measure(List<Patient> patients, int readers, boolean locked) throws InterruptedException {
+        MedicalWard ward = new MedicalWard(Specialization.CARDIOLOGY, ROOMS, BEDS_IN_ROOM);
+        for (Patient patient : patients) {
+            patient.setWard(null);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder queries = new LongAdder();
+        LongAdder torn = new LongAdder();
+        long[] changes = new long[1];
+        Thread writer = new Thread(() -> {
+            int next = 0;
+            int half = patients.size() / 2;
+            while (running.get()) {
+                ward.addPatient(patients.get((next + half) % patients.size()));
+                ward.removePatient(patients.get(next));
+                next = (next + 1) % patients.size();
+                changes[0] += 2;
+            }
+        });
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    int occupied = locked ? lockedQuery(ward) : censusQuery(ward);
+                    if (occupied < 0) {
+                        torn.increment();
+                    }
+                    queries.increment();
+                }
+            }));
+        }
+        writer.start();
+        threads.forEach(Thread::start);
+        Thread.sleep(MILLIS);
+        running.set(false);
+        writer.join();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new long[]{changes[0], queries.sum(), torn.sum()};
+    }
+
+    /**
+     * @return occupied beds of the census read without a lock, -1 if the census is inconsistent
+     */
+    private static int censusQuery(MedicalWard ward) {
+        return check(ward.getCensus());
+    }
+
+    /**
+     * @return occupied beds of the census, -1 if the census is inconsistent
+     */
+    private static int check(WardCensus census) {
+        int occupied = 0;
+        int women = 0;
+        for (int room = 0; room < census.getRooms(); room++) {
+            Gender roomGender = null;
+            for (int bed = 0; bed < census.getBedsInRoom(); bed++) {
+                Patient patient = census.getPatient(room, bed);
+                if (patient == null) {
+                    continue;
+                }
+                if (roomGender != null && roomGender != patient.getGender()) {
+                    return -1;
+                }
+                roomGender = patient.getGender();
+                occupied++;
+                women += patient.getGender() == Gender.FEMALE ? 1 : 0;
+            }
+        }
+        if (occupied != census.getOccupiedBeds() || women != census.getOccupiedBeds(Gender.FEMALE)) {
+            return -1;
+        }
+        return occupied;
+    }
+
+    /**
+     * @return occupied beds copied while holding the locks of the ward, -1 if the census is inconsistent
+     */
+    private static int lockedQuery(MedicalWard ward) {
+        return check(ward.lockedCensus());
+    }
+}
@@ -0,0 +1,83 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.DayCycle;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Benchmark for the day cycle of the wards.
+ * For different numbers of wards and threads measures the time of discharging and giving medicine in all wards.
+ * After every day the discharged patients are admitted again, so the wards stay almost full.
+ */
+public class DayCycleBenchmark {
+    private static final int ROOMS = 200;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int NURSES_IN_WARD = 4;
+    private static final int[] WARDS = {3, 12, 48, 192};    // numbers of tested wards
+    private static final int DAYS = 20; // measured days for every configuration
+
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ArrayList<Integer> threads = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            threads.add(t);
+        }
+        threads.add(cores);
+
+        run(WARDS[WARDS.length - 1], cores);    // warm up
+        System.out.printf("%8s %8s %15s%n", "wards", "threads", "ms per day");
+        for (int wards : WARDS) {
+            for (int parallelism : threads) {
+                System.out.printf("%8d %8d %15.2f%n", wards, parallelism, run(wards, parallelism));
+            }
+        }
+    }
+
+    /**
+     * Fills the wards and runs the days.
+     * @param wardsNumber number of wards
+     * @param parallelism number of threads of the day cycle
+     * @return average time of one day in milliseconds
+     */
+    private static double run(int wardsNumber, int parallelism) {
+        Random rand = new Random(wardsNumber);
+        Specialization[] specs = Specialization.values();
+        MedicalWard[] wards = new MedicalWard[wardsNumber];
+        for (int i = 0; i < wardsNumber; i++) {
+            wards[i] = new MedicalWard(specs[i % specs.length], ROOMS, BEDS_IN_ROOM);
+            for (int n = 0; n < NURSES_IN_WARD; n++) {
+                wards[i].assignNewNurse(new Nurse("Nurse" + n));
+            }
+            for (int p = 0; p < ROOMS * BEDS_IN_ROOM; p++) {
+                admit(wards[i], new Patient(), rand);
+            }
+        }
+
+        DayCycle dayCycle = new DayCycle(wards, parallelism);
+        long time = 0;
+        for (int day = 0; day < DAYS; day++) {
+            long start = System.nanoTime();
+            ArrayList<Patient> discharged = dayCycle.patientsDischarge();
+            dayCycle.patientsTakingPills();
+            time += System.nanoTime() - start;
+
+            // discharged patients are admitted again, spread over all wards
+            for (int i = 0; i < discharged.size(); i++) {
+                admit(wards[i % wardsNumber], discharged.get(i), rand);
+            }
+        }
+        dayCycle.shutdown();
+        return time / 1e6 / DAYS;
+    }
+
+    private static void admit(MedicalWard ward, Patient patient, Random rand) {
+        if (ward.addPatient(patient)) {
+            ward.setDaysOfTreatment(patient, rand.nextInt(3) + 3);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+import Hospital.model.threads.DoctorScheduler;
+import Hospital.model.threads.DoctorTask;
+import Hospital.model.threads.SchedulerMode;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test for the dispatch of doctors.
+ * Many threads admit patients while another thread starts visitations all the time, examinations and visits take no time.
+ * Checks that a doctor never works on two tasks at the same time, and that when all work is done no patient stays waiting
+ * and every doctor is free and has an entry in the queue of free doctors.
+ * Exits with status 1 if any check fails.
+ */
+public class DispatchStress {
+    private static final int PRODUCERS = 8; // threads admitting patients at the same time
+    private static final int PATIENTS_PER_PRODUCER = 5000;
+    private static final int ROUNDS = 20;   // number of hospitals tested
+
+    public static void main(String[] args) throws InterruptedException {
+        int failures = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            String result = run();
+            if (result != null) {
+                failures++;
+                System.out.println("Round " + round + " failed: " + result);
+            }
+        }
+        System.out.println(failures == 0 ? "All " + ROUNDS + " rounds passed." : failures + " of " + ROUNDS + " rounds failed.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one hospital until all work is done.
+     * @return description of the failure, null if all checks passed
+     */
+    private static String run() throws InterruptedException {
+        EnumMap<Specialization, Integer> concurrency = new EnumMap<>(Specialization.class);
+        for (Specialization specialization : Specialization.values()) {
+            concurrency.put(specialization, 8);
+        }
+        CheckingScheduler scheduler = new CheckingScheduler(DoctorScheduler.create(SchedulerMode.PLATFORM_POOL, concurrency));
+        // a doctor stops working on his task when the hospital gives him the next one
+        Hospital hospital = new Hospital(scheduler) {
+            @Override
+            public void doctorFinished(Doctor doctor) {
+                scheduler.stopWorking(doctor);
+                super.doctorFinished(doctor);
+            }
+        };
+        hospital.setEventSink(EventSink.noOp());   // hospital messages are not part of the test
+        hospital.setConsultationTime(0, 0);
+
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < PATIENTS_PER_PRODUCER; i++) {
+                    hospital.enterHospital(new Patient());
+                }
+            });
+            producers[p].start();
+        }
+        Thread visitations = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                hospital.patientsVisitation();
+                Thread.yield();
+            }
+        });
+        visitations.start();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        visitations.interrupt();
+        visitations.join();
+
+        // wait until every submitted task is finished
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (scheduler.running.get() > 0 || scheduler.submitted.get() != scheduler.finished.get()) {
+            if (System.currentTimeMillis() > deadline) {
+                hospital.shutdown();
+                return "tasks did not finish";
+            }
+            Thread.sleep(10);
+        }
+        hospital.shutdown();
+
+        if (scheduler.doubleBooked.get() > 0) {
+            return scheduler.doubleBooked.get() + " tasks started for a busy doctor";
+        }
+        if (hospital.getWaitingPatientsCount() > 0) {
+            return hospital.getWaitingPatientsCount() + " patients waiting with free doctors";
+        }
+        for (Doctor doctor : hospital.getDoctors()) {
+            if (!doctor.isFree() || !doctor.isQueued()) {
+                return "doctor " + doctor.getName() + (doctor.isFree() ? " is lost from the queue of free doctors" : " is still busy");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scheduler that counts how many tasks every doctor works on at the same time.
+     * A task works from its start until it calls the hospital to give the doctor his next work.
+     */
+    private static class CheckingScheduler implements DoctorScheduler {
+        private final DoctorScheduler scheduler;
+        private final Map<Doctor, AtomicInteger> working = new ConcurrentHashMap<>();   // working tasks for every doctor
+        private final ThreadLocal<Doctor> currentDoctor = new ThreadLocal<>();  // doctor of the task running on the thread
+        private final AtomicInteger doubleBooked = new AtomicInteger();
+        private final AtomicInteger submitted = new AtomicInteger();
+        private final AtomicInteger finished = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+
+        CheckingScheduler(DoctorScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void submit(Specialization specialization, Runnable task) {
+            Doctor doctor = ((DoctorTask) task).getDoctor();
+            submitted.incrementAndGet();
+            scheduler.submit(specialization, () -> {
+                running.incrementAndGet();
+                if (doctor.isFree() || working.computeIfAbsent(doctor, d -> new AtomicInteger()).incrementAndGet() > 1) {
+                    doubleBooked.incrementAndGet();
+                }
+                currentDoctor.set(doctor);
+                try {
+                    task.run();
+                } finally {
+                    currentDoctor.remove();
+                    running.decrementAndGet();
+                    finished.incrementAndGet();
+                }
+            });
+        }
+
+        /**
+         * Called when the hospital gives next work to a doctor, only the task of the doctor stops working.
+         * @param doctor doctor of the finished task
+         */
+        void stopWorking(Doctor doctor) {
+            if (currentDoctor.get() == doctor) {
+                currentDoctor.remove();
+                working.get(doctor).decrementAndGet();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            scheduler.shutdown();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout) {
+            return scheduler.awaitTermination(timeout);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayDeque;
+
+/**
+ * Benchmark for admission and discharge in a medical ward.
+ * Admits and removes a million patients in wards with different number of rooms, keeping the ward almost full.
+ * If the time for one operation does not grow with the number of rooms, the ward does not scan its rooms.
+ */
+public class MedicalWardBenchmark {
+    private static final int OPERATIONS = 1_000_000;    // number of admissions and discharges in one run
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int[] ROOMS = {10, 100, 1_000, 10_000};    // sizes of the tested wards
+    private static final double OCCUPANCY = 0.9;    // part of the beds that are occupied during the run
+
+    public static void main(String[] args) {
+        // patients are created once, so the benchmark measures only the ward
+        Patient[] patients = new Patient[ROOMS[ROOMS.length - 1] * BEDS_IN_ROOM];
+        for (int i = 0; i < patients.length; i++) {
+            patients[i] = new Patient();
+        }
+
+        run(patients, ROOMS[ROOMS.length - 1]);    // warm up
+        System.out.printf("%10s %15s %15s %15s%n", "rooms", "admit ns/op", "remove ns/op", "rejected");
+        for (int rooms : ROOMS) {
+            long[] result = run(patients, rooms);
+            System.out.printf("%10d %15.1f %15.1f %15d%n", rooms, (double) result[0] / OPERATIONS, (double) result[1] / OPERATIONS, result[2]);
+        }
+    }
+
+    /**
+     * Admits a million patients in a new ward, before every admission the longest staying patient is removed if the ward is full enough.
+     *
+     * @param patients patients to be admitted
+     * @param rooms number of rooms in the ward
+     * @return time for admissions, time for removals in nanoseconds and number of rejected patients
+     */
+    private static long[] run(Patient[] patients, int rooms) {
+        MedicalWard ward = new MedicalWard(Specialization.CARDIOLOGY, rooms, BEDS_IN_ROOM);
+        int occupiedLimit = (int) (rooms * BEDS_IN_ROOM * OCCUPANCY);
+        ArrayDeque<Patient> admitted = new ArrayDeque<>();
+        long admitTime = 0;
+        long removeTime = 0;
+        long rejected = 0;
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            if (admitted.size() >= occupiedLimit) {
+                Patient leaving = admitted.poll();
+                long start = System.nanoTime();
+                ward.removePatient(leaving);
+                removeTime += System.nanoTime() - start;
+            }
+            // patients in the ward are less than the patients in the array, so the next one is never in the ward
+            Patient patient = patients[i % (occupiedLimit + 1)];
+            long start = System.nanoTime();
+            boolean isAdmitted = ward.addPatient(patient);
+            admitTime += System.nanoTime() - start;
+            if (isAdmitted) {
+                admitted.add(patient);
+            } else {
+                rejected++;
+            }
+        }
+        if (ward.getFreeBeds() != rooms * BEDS_IN_ROOM - admitted.size()) {
+            throw new IllegalStateException("Free beds do not match admitted patients.");
+        }
+        return new long[]{admitTime, removeTime, rejected};
+    }
+}
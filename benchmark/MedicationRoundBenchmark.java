@@ -0,0 +1,72 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Medication;
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.MedicationRound;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmark for the rounds of medicines.
+ * Fills one big ward with examined patients and measures the round with different numbers of nurses, once room after room
+ * on one thread and once with every nurse as a task on a pool with a thread for every core.
+ * Shows the time of the round and the doses of the busiest nurse, which tells how many nurses the ward needs
+ * when one nurse can give only a limited number of doses in a round.
+ */
+public class MedicationRoundBenchmark {
+    private static final int ROOMS = 20_000;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int[] NURSES = {1, 2, 4, 8, 16, 32, 64};
+    private static final int ROUNDS = 20;   // measured rounds for every configuration
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(cores);
+        System.out.printf("%8s %10s %10s %12s %12s %12s%n", "nurses", "patients", "doses", "max doses", "serial ms", "parallel ms");
+        for (int run = 0; run < 2; run++) {    // first run is the warm up
+            for (int nurses : NURSES) {
+                MedicalWard ward = createWard(nurses);
+                double serial = 0;
+                double parallel = 0;
+                MedicationRound round = null;
+                for (int i = 0; i < ROUNDS; i++) {
+                    round = ward.patientsTakingPills();
+                    serial += round.getCompletionNanos();
+                    round = ward.startMedicationRound();
+                    for (Future<Object> future : pool.invokeAll(round.getNurseTasks())) {
+                        future.get();
+                    }
+                    parallel += round.getCompletionNanos();
+                }
+                if (run > 0) {
+                    System.out.printf("%8d %10d %10d %12d %12.2f %12.2f%n", nurses, round.getPatients(), round.getDoses(),
+                            round.getMaxDoses(), serial / ROUNDS / 1e6, parallel / ROUNDS / 1e6);
+                }
+            }
+        }
+        pool.shutdown();
+        System.out.println(cores + " cores");
+    }
+
+    /**
+     * @param nurses number of nurses
+     * @return full ward where every patient has a treatment plan
+     */
+    private static MedicalWard createWard(int nurses) {
+        MedicalWard ward = new MedicalWard(Specialization.CARDIOLOGY, ROOMS, BEDS_IN_ROOM);
+        for (int n = 0; n < nurses; n++) {
+            ward.assignNewNurse(new Nurse("Nurse" + n));
+        }
+        new PatientFactory(1).generate(ROOMS * BEDS_IN_ROOM, patient -> {
+            patient.setMedications(Medication.plan(patient));
+            ward.addPatient(patient);
+        });
+        return ward;
+    }
+}
@@ -0,0 +1,93 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalTopology;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.network.HospitalNetwork;
+import Hospital.model.network.LocalTransport;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+import Hospital.model.threads.DoctorScheduler;
+import Hospital.model.threads.SchedulerMode;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for a network of hospitals on one machine.
+ * For different numbers of sites, every site with the same wards, patients enter the network until they are all admitted
+ * or rejected by all sites. There are 10% more patients than beds, so sites fill up and send patients to each other.
+ * Arguments: patients are sent one by one ("single") or in groups ("batch").
+ */
+public class NetworkBenchmark {
+    private static final int[] SITES = {1, 2, 4, 8};
+    private static final int WARDS = 10;    // wards of every specialization at every site
+    private static final int ROOMS = 20;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int DOCTORS = 50;  // doctors of every specialization at every site
+    private static final int BATCH = 500;   // patients in one group
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean batch = args.length > 0 && args[0].equals("batch");
+        System.out.printf("%6s %5s %10s %10s %10s %10s %10s %16s%n", "sites", "run", "patients", "admitted", "transfers", "rejected", "ms", "admissions/s");
+        for (int sites : SITES) {
+            for (int run = 1; run <= RUNS; run++) {    // first runs are the warm up
+                run(sites, run, batch);
+            }
+        }
+    }
+
+    private static void run(int sites, int run, boolean batch) throws InterruptedException {
+        HospitalTopology topology = new HospitalTopology();
+        for (Specialization specialization : Specialization.values()) {
+            topology.setWards(specialization, WARDS, ROOMS, BEDS_IN_ROOM);
+            topology.setDoctors(specialization, DOCTORS);
+        }
+        topology.setNurses(WARDS * Specialization.values().length);
+        ArrayList<Hospital> hospitals = new ArrayList<>();
+        for (int i = 0; i < sites; i++) {
+            Hospital hospital = topology.createHospital(DoctorScheduler.create(SchedulerMode.DETERMINISTIC, new EnumMap<>(Specialization.class)), new Random(i));
+            hospital.setEventSink(EventSink.noOp());
+            hospital.setConsultationTime(0, 0);
+            hospitals.add(hospital);
+        }
+        HospitalNetwork network = new HospitalNetwork(new LocalTransport(hospitals));
+        int patientsNumber = (int) (topology.getBedsCount() * sites * 11 / 10);
+        ArrayList<Patient> patients = new PatientFactory(run).generate(patientsNumber);
+        System.gc();
+
+        long start = System.nanoTime();
+        if (batch) {
+            for (int i = 0; i < patientsNumber; i += BATCH) {
+                network.enterHospital(patients.subList(i, Math.min(i + BATCH, patientsNumber)));
+            }
+        } else {
+            for (Patient patient : patients) {
+                network.enterHospital(patient);
+            }
+        }
+        long admitted;
+        while ((admitted = admitted(hospitals)) + network.getRejections() < patientsNumber) {  // every patient got a bed or left
+            Thread.sleep(1);
+        }
+        long time = System.nanoTime() - start;
+        network.shutdown();
+
+        System.out.printf("%6d %5d %10d %10d %10d %10d %10.1f %16.0f%n", sites, run, patientsNumber, admitted, network.getTransfers(),
+                network.getRejections(), time / 1e6, admitted / (time / 1e9));
+    }
+
+    private static long admitted(List<Hospital> hospitals) {
+        long count = 0;
+        for (Hospital hospital : hospitals) {
+            for (Specialization specialization : Specialization.values()) {
+                count += hospital.getOccupiedBeds(specialization);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,90 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Benchmark for the memory allocated when patients are created.
+ * Compares the old way, new random generator, name arrays and phone text for every patient,
+ * with the patient factory that shares one generator per thread and the name tables.
+ * The allocated bytes are read from the thread, so the numbers do not depend on when the garbage collector runs.
+ */
+public class PatientAllocationBenchmark {
+    private static final int PATIENTS = 1_000_000;  // number of patients created in one run
+    private static final int KEPT = 1024;   // patients are kept in a small array, so the compiler can not skip creating them
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PatientFactory factory = new PatientFactory(42);
+        Object[] kept = new Object[KEPT];
+
+        for (int i = 0; i < 3; i++) {   // warm up
+            runLegacy(kept);
+            runFactory(factory, kept);
+        }
+        System.out.printf("%20s %15s %15s%n", "constructor", "bytes/patient", "ns/patient");
+        print("legacy", threads, () -> runLegacy(kept));
+        print("new Patient()", threads, () -> runDefault(kept));
+        print("PatientFactory", threads, () -> runFactory(factory, kept));
+    }
+
+    private static void print(String name, com.sun.management.ThreadMXBean threads, Runnable run) {
+        long thread = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        run.run();
+        long time = System.nanoTime() - start;
+        bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+        System.out.printf("%20s %15.1f %15.1f%n", name, (double) bytes / PATIENTS, (double) time / PATIENTS);
+    }
+
+    private static void runLegacy(Object[] kept) {
+        for (int i = 0; i < PATIENTS; i++) {
+            kept[i % KEPT] = new LegacyPatient(new Random());
+        }
+    }
+
+    private static void runDefault(Object[] kept) {
+        for (int i = 0; i < PATIENTS; i++) {
+            kept[i % KEPT] = new Patient();
+        }
+    }
+
+    private static void runFactory(PatientFactory factory, Object[] kept) {
+        for (int i = 0; i < PATIENTS; i++) {
+            kept[i % KEPT] = factory.next();
+        }
+    }
+
+    /**
+     * Copy of the patient before the factory, with name arrays in every patient and phone number as text.
+     */
+    private static class LegacyPatient {
+        private final String[] namesM = {"Peter", "Georg", "Asen", "Ivan", "Martin", "Anton", "Stanislav", "Pavel", "Naum", "Kiril", "Milan", "Kalin", "Alexander"};
+        private final String[] namesF = {"Sara", "Anastasia", "Maria", "Martina", "Isabela", "Antonia", "Alexandra", "Veselina", "Kalina", "Stefka", "Milena", "Ina", "Penka"};
+        private final String name;
+        private final String phoneNumber;
+        private final int age;
+        private final Gender gender;
+        private final Specialization spec;
+
+        LegacyPatient(Random rand) {
+            Gender[] genders = Gender.values();
+            gender = genders[rand.nextInt(genders.length)];
+            if (gender == Gender.MALE) {
+                name = namesM[rand.nextInt(namesM.length)];
+            } else {
+                name = namesF[rand.nextInt(namesF.length)];
+            }
+            phoneNumber = "088" + (rand.nextInt(2999999) + 7000000);
+            age = rand.nextInt(99);
+            Specialization[] specs = Specialization.values();
+            spec = specs[rand.nextInt(specs.length)];
+        }
+    }
+}
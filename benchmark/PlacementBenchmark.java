@@ -0,0 +1,134 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalTopology;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.PlacementMode;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.persons.Patient;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Simulation benchmark for the placement of patients in the rooms of a ward at high occupancy.
+ * Every day the ward discharges its patients and then gets new patients, their number drawn from a Poisson distribution
+ * so the offered load is the given share of the beds. The share of women goes up and down in waves of a month, which splits
+ * the rooms between the sexes. Patients enter a hospital with one ward and enough doctors, the hospital decides their days
+ * of treatment before it places them, so the placement can cluster the rooms by the day of discharge.
+ * All placements get the same patients. Shows the share of rejected patients, the share rejected while the ward still had
+ * free beds, which are the beds lost to rooms of the other sex, the mean occupancy and the mean time of one admission.
+ * Arguments: number of days.
+ */
+public class PlacementBenchmark {
+    private static final int ROOMS = 1000;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int DOCTORS = 1000;    // more than the patients of a day, so nobody waits
+    private static final int MIN_DAYS = 1;  // days in the hospital, the last one is the day of discharge
+    private static final int MAX_DAYS = 9;
+    private static final int WARM_UP_DAYS = 60;     // days before the counting starts, the ward fills up
+    private static final double[] LOADS = {0.85, 0.95, 1.0};    // offered patients per day times mean days, per bed
+
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        for (int run = 0; run < 2; run++) {    // first run is the warm up
+            if (run > 0) {
+                System.out.printf("%6s %22s %10s %14s %12s %12s%n", "load", "placement", "rejected", "with free beds",
+                        "occupancy", "ns/patient");
+            }
+            for (double load : LOADS) {
+                for (PlacementMode mode : PlacementMode.values()) {
+                    double[] result = simulate(mode, load, days, 42);
+                    if (run > 0) {
+                        System.out.printf("%6.2f %22s %9.2f%% %13.2f%% %11.1f%% %12.1f%n", load, mode, result[0] * 100,
+                                result[1] * 100, result[2] * 100, result[3]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one ward for the days.
+     * @return share of rejected patients, share rejected while the ward had free beds, mean occupancy, nanoseconds per admission
+     */
+    private static double[] simulate(PlacementMode mode, double load, int days, long seed) {
+        HospitalTopology topology = new HospitalTopology();
+        topology.setWards(Specialization.CARDIOLOGY, 1, ROOMS, BEDS_IN_ROOM);
+        topology.setDoctors(Specialization.CARDIOLOGY, DOCTORS);
+        topology.setStorageMode(StorageMode.OBJECTS);
+        topology.setStripes(1);
+        topology.setPlacementMode(mode);
+        Simulation simulation = new Simulation();
+        Hospital hospital = topology.createHospital(new SimulatedScheduler(simulation), new Random(seed));
+        hospital.setEventSink(EventSink.noOp());
+        hospital.setConsultationTime(0, 0);
+        MedicalWard ward = hospital.getWards().get(0);
+        Random random = new Random(seed);
+        Random treatment = new Random(seed + 1);   // days are drawn for every patient before the placement, so all placements get the same days
+        hospital.setTreatmentDays(patient -> MIN_DAYS - 1 + treatment.nextInt(MAX_DAYS - MIN_DAYS + 1));
+        int[] dayRejected = new int[2];     // rejected patients, rejected while the ward had free beds
+        hospital.setOverflow(patient -> {
+            dayRejected[0]++;
+            dayRejected[1] += ward.getFreeBeds() > 0 ? 1 : 0;
+        });
+        double arrivalsPerDay = load * ROOMS * BEDS_IN_ROOM / ((MIN_DAYS + MAX_DAYS) / 2.0);
+        long arrivals = 0;
+        long rejected = 0;
+        long rejectedWithFreeBeds = 0;
+        double occupancy = 0;
+        long nanos = 0;
+        ArrayList<Patient> patients = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            hospital.patientsDischarge();
+            double femaleShare = 0.5 + 0.3 * Math.sin(2 * Math.PI * day / 30);
+            patients.clear();
+            int count = poisson(random, arrivalsPerDay);
+            for (int i = 0; i < count; i++) {
+                Gender gender = random.nextDouble() < femaleShare ? Gender.FEMALE : Gender.MALE;
+                patients.add(new Patient(random, gender, Specialization.CARDIOLOGY));
+            }
+            dayRejected[0] = 0;
+            dayRejected[1] = 0;
+            long start = System.nanoTime();
+            for (Patient patient : patients) {
+                hospital.enterHospital(patient);
+            }
+            long dayNanos = System.nanoTime() - start;
+            simulation.runUntil(simulation.now());  // examinations end and the doctors are free for the next day
+            if (day >= WARM_UP_DAYS) {
+                arrivals += patients.size();
+                rejected += dayRejected[0];
+                rejectedWithFreeBeds += dayRejected[1];
+                nanos += dayNanos;
+                occupancy += (double) ward.getOccupiedBeds() / ward.getCapacity();
+            }
+        }
+        hospital.shutdown();
+        int countedDays = Math.max(1, days - WARM_UP_DAYS);
+        return new double[]{(double) rejected / arrivals, (double) rejectedWithFreeBeds / arrivals, occupancy / countedDays,
+                (double) nanos / arrivals};
+    }
+
+    /**
+     * @return number drawn from the Poisson distribution with the mean
+     */
+    private static int poisson(Random random, double mean) {
+        if (mean > 100) {   // normal approximation for big means
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        int count = -1;
+        double product = 1;
+        do {
+            count++;
+            product *= random.nextDouble();
+        } while (product > limit);
+        return count;
+    }
+}
@@ -0,0 +1,132 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalCensus;
+import Hospital.model.PatientQuery;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.CensusBed;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.WardCensus;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+import Hospital.model.threads.DoctorScheduler;
+import Hospital.model.threads.SchedulerMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Random;
+
+/**
+ * Benchmark for the queries of patients over a census with millions of patients.
+ * Fills a hospital with several big wards for every specialization and counts the women of one specialization
+ * between 30 and 50 years who are discharged in the next two days, and the patients of one doctor.
+ * The count is made once by copying the patients of the wards to lists and filtering them to another list, the way
+ * a query had to be written before, and once with PatientQuery, sequential and parallel.
+ * Arguments: number of patients.
+ */
+public class QueryBenchmark {
+    private static final int WARDS = 4;     // wards of every specialization
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int RUNS = 10;     // first half of the runs is the warm up
+
+    public static void main(String[] args) {
+        int patientsNumber = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Hospital hospital = fill(patientsNumber);
+        HospitalCensus census = hospital.getCensus();
+        Doctor doctor = census.getDoctors().get(0);
+        PatientQuery query = census.query().specialization(Specialization.CARDIOLOGY).gender(Gender.FEMALE).age(30, 50).daysRemaining(1, 2);
+        System.out.printf("%10s %12s %12s %12s %12s %10s %10s%n", "run", "lists ms", "stream ms", "parallel ms", "doctor ms", "count", "of doctor");
+        for (int run = 1; run <= RUNS; run++) {
+            long start = System.nanoTime();
+            long listed = countWithLists(census);
+            long lists = System.nanoTime() - start;
+            start = System.nanoTime();
+            long streamed = query.count();
+            long stream = System.nanoTime() - start;
+            start = System.nanoTime();
+            long parallelStreamed = query.parallel().count();
+            long parallel = System.nanoTime() - start;
+            start = System.nanoTime();
+            long doctorCount = census.query().doctor(doctor).daysRemaining(1, 2).count();
+            long doctorTime = System.nanoTime() - start;
+            if (listed != streamed || listed != parallelStreamed) {
+                throw new IllegalStateException("Queries gave different counts: " + listed + ", " + streamed + ", " + parallelStreamed);
+            }
+            if (run > RUNS / 2) {
+                System.out.printf("%10d %12.1f %12.1f %12.1f %12.1f %10d %10d%n", run, lists / 1e6, stream / 1e6, parallel / 1e6,
+                        doctorTime / 1e6, streamed, doctorCount);
+            }
+        }
+        System.out.println(patientsNumber + " patients, " + census.getPatients(doctor).size() + " of " + doctor.getName() + ", "
+                + Runtime.getRuntime().availableProcessors() + " cores");
+        hospital.shutdown();
+    }
+
+    /**
+     * The query of the benchmark made with lists: all patients with their beds, then the matching ones.
+     */
+    private static long countWithLists(HospitalCensus census) {
+        ArrayList<CensusBed> beds = new ArrayList<>();
+        for (WardCensus ward : census.getWards(Specialization.CARDIOLOGY)) {
+            ward.beds().forEach(beds::add);
+        }
+        ArrayList<Patient> matching = new ArrayList<>();
+        for (CensusBed bed : beds) {
+            Patient patient = bed.getPatient();
+            if (patient.getGender() == Gender.FEMALE && patient.getAge() >= 30 && patient.getAge() <= 50
+                    && bed.getDaysRemaining() >= 1 && bed.getDaysRemaining() <= 2) {
+                matching.add(patient);
+            }
+        }
+        return matching.size();
+    }
+
+    /**
+     * Creates hospital with WARDS wards and a doctor for every specialization, big enough for all patients, and puts
+     * the patients in the wards one after another, every room with patients of one sex.
+     */
+    private static Hospital fill(int patientsNumber) {
+        Random rand = new Random(42);
+        ArrayList<Doctor> doctors = new ArrayList<>();
+        ArrayList<Nurse> nurses = new ArrayList<>();
+        ArrayList<MedicalWard> wards = new ArrayList<>();
+        int rooms = patientsNumber / BEDS_IN_ROOM / WARDS + Gender.values().length;
+        for (Specialization specialization : Specialization.values()) {
+            doctors.add(new Doctor("Doctor" + specialization.ordinal(), rand.nextInt(2999999) + 7000000, specialization));
+            nurses.add(new Nurse("Nurse" + specialization.ordinal(), rand));
+            for (int w = 0; w < WARDS; w++) {
+                wards.add(new MedicalWard(specialization, rooms, BEDS_IN_ROOM));
+            }
+        }
+        Hospital hospital = new Hospital(DoctorScheduler.create(SchedulerMode.DETERMINISTIC, new EnumMap<>(Specialization.class)),
+                rand, doctors, nurses, wards);
+        hospital.setEventSink(EventSink.noOp());
+
+        int[][] room = new int[wards.size()][Gender.values().length];  // room being filled for every ward and gender
+        int[][] bed = new int[wards.size()][Gender.values().length];    // next bed in that room
+        int[] nextRoom = new int[wards.size()];
+        for (int[] r : room) {
+            Arrays.fill(r, -1);
+        }
+        PatientFactory factory = new PatientFactory(7);
+        for (int i = 0; i < patientsNumber; i++) {
+            Patient patient = factory.next();
+            int w = patient.getSpec().ordinal() * WARDS + i % WARDS;
+            int g = patient.getGender().ordinal();
+            if (room[w][g] < 0 || bed[w][g] == BEDS_IN_ROOM) {
+                room[w][g] = nextRoom[w]++;
+                bed[w][g] = 0;
+            }
+            patient.setRoom(room[w][g]);
+            patient.setBed(bed[w][g]++);
+            patient.setDischargeDay(rand.nextInt(5) + 1);
+            hospital.restorePatient(patient, doctors.get(patient.getSpec().ordinal()), wards.get(w));
+        }
+        return hospital;
+    }
+}
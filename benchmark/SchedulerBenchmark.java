@@ -0,0 +1,137 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.persons.Patient;
+import Hospital.model.threads.DoctorScheduler;
+import Hospital.model.threads.Examination;
+import Hospital.model.threads.SchedulerMode;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark for the doctor schedulers.
+ * The same patients are admitted to a hospital with every scheduler mode and for every patient is measured
+ * the time from entering the hospital to the end of his examination.
+ * Reports throughput of examinations and percentiles of the admission latency.
+ */
+public class SchedulerBenchmark {
+    private static final int PATIENTS = 1000;   // patients admitted in one run
+    private static final int PRODUCERS = 4; // threads admitting patients at the same time
+    private static final int CONCURRENCY = 2;   // tasks running at the same time for every specialization
+    private static final long EXAMINATION_TIME = 2; // duration of one examination in milliseconds
+    private static final long QUIET_TIME = 500;     // run ends when no examination is finished for this time in milliseconds
+
+    public static void main(String[] args) throws InterruptedException {
+        Patient[] patients = new Patient[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            patients[i] = new Patient();
+        }
+        System.out.printf("%16s %10s %12s %10s %10s %10s %10s%n", "mode", "examined", "exams/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (SchedulerMode mode : SchedulerMode.values()) {
+            run(mode, patients);
+        }
+    }
+
+    /**
+     * Admits all patients from several threads and waits until the examinations stop.
+     *
+     * @param mode scheduler mode
+     * @param patients patients to be admitted
+     */
+    private static void run(SchedulerMode mode, Patient[] patients) throws InterruptedException {
+        EnumMap<Specialization, Integer> concurrency = new EnumMap<>(Specialization.class);
+        for (Specialization specialization : Specialization.values()) {
+            concurrency.put(specialization, CONCURRENCY);
+        }
+        RecordingScheduler scheduler = new RecordingScheduler(DoctorScheduler.create(mode, concurrency));
+        Hospital hospital = new Hospital(scheduler);
+        hospital.setEventSink(EventSink.noOp());   // hospital messages are not part of the benchmark
+        hospital.setConsultationTime(EXAMINATION_TIME, EXAMINATION_TIME);
+
+        long start = System.nanoTime();
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int first = p;
+            producers[p] = new Thread(() -> {
+                for (int i = first; i < patients.length; i += PRODUCERS) {
+                    scheduler.entered.put(patients[i], System.nanoTime());
+                    hospital.enterHospital(patients[i]);
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        // wait until the examinations stop, patients without doctor for their specialization are never examined
+        int examined;
+        do {
+            examined = scheduler.examined.get();
+            Thread.sleep(QUIET_TIME);
+        } while (examined != scheduler.examined.get());
+        long elapsed = System.nanoTime() - start - QUIET_TIME * 1_000_000;
+        hospital.shutdown();
+
+        long[] latencies = Arrays.copyOf(scheduler.latencies, examined);
+        Arrays.sort(latencies);
+        System.out.printf("%16s %10d %12.1f %10.2f %10.2f %10.2f %10.2f%n", mode, examined, examined * 1e9 / elapsed,
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999), percentile(latencies, 1));
+    }
+
+    /**
+     * @param sorted sorted latencies in nanoseconds
+     * @param percentile percentile from 0 to 1
+     * @return latency in milliseconds
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Scheduler that records the latency of every examination from the moment the patient entered the hospital.
+     */
+    private static class RecordingScheduler implements DoctorScheduler {
+        private final DoctorScheduler scheduler;
+        private final Map<Patient, Long> entered = new ConcurrentHashMap<>();   // time of entering the hospital for every patient
+        private final long[] latencies = new long[PATIENTS];
+        private final AtomicInteger examined = new AtomicInteger();
+
+        RecordingScheduler(DoctorScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void submit(Specialization specialization, Runnable task) {
+            if (!(task instanceof Examination)) {
+                scheduler.submit(specialization, task);
+                return;
+            }
+            Patient patient = ((Examination) task).getPatient();
+            scheduler.submit(specialization, () -> {
+                task.run();
+                long latency = System.nanoTime() - entered.get(patient);
+                latencies[examined.getAndIncrement()] = latency;
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            scheduler.shutdown();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout) {
+            return scheduler.awaitTermination(timeout);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.persistence.HospitalSnapshot;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+import Hospital.model.threads.DoctorScheduler;
+import Hospital.model.threads.SchedulerMode;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Random;
+
+/**
+ * Benchmark for saving and loading a hospital with millions of patients.
+ * Fills a hospital with one big ward for every specialization and writes the snapshot. Then the hospital is dropped,
+ * the snapshot is loaded and a hash of the loaded hospital is compared with the hash of the saved one.
+ * The time of the garbage collector during every run is shown apart, the loaded patients are new objects that stay alive,
+ * so with a small heap most of the loading time can be the copying of them by the collector.
+ * Arguments: number of patients, storage of the wards.
+ */
+public class SnapshotBenchmark {
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int patientsNumber = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        StorageMode mode = args.length > 1 ? StorageMode.valueOf(args[1]) : StorageMode.OBJECTS;
+        Path file = Files.createTempFile("hospital", ".snapshot");
+        try {
+            Hospital hospital = fill(patientsNumber, mode);
+            System.out.printf("%10s %15s %15s %15s%n", "run", "write ms", "of it gc ms", "file MB");
+            for (int run = 1; run <= RUNS; run++) {    // first runs are the warm up
+                long gc = gcMillis();
+                long start = System.nanoTime();
+                HospitalSnapshot.write(hospital, file);
+                System.out.printf("%10d %15.1f %15d %15.1f%n", run, (System.nanoTime() - start) / 1e6, gcMillis() - gc,
+                        Files.size(file) / 1e6);
+            }
+            long digest = digest(hospital);
+            hospital.shutdown();
+            hospital = null;    // the saved hospital is not kept in memory, like after a restart
+
+            System.out.printf("%10s %15s %15s%n", "run", "read ms", "of it gc ms");
+            for (int run = 1; run <= RUNS; run++) {
+                long gc = gcMillis();
+                long start = System.nanoTime();
+                Hospital loaded = HospitalSnapshot.read(file, DoctorScheduler.create(SchedulerMode.DETERMINISTIC, new EnumMap<>(Specialization.class)));
+                System.out.printf("%10d %15.1f %15d%n", run, (System.nanoTime() - start) / 1e6, gcMillis() - gc);
+                if (digest(loaded) != digest) {
+                    throw new IllegalStateException("Loaded hospital is different from the saved one.");
+                }
+                loaded.setEventSink(EventSink.noOp());
+                loaded.shutdown();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Creates hospital with a ward for every specialization, big enough for all patients, and puts the patients in the wards.
+     * Rooms are filled one after another, every room with patients of one sex.
+     */
+    private static Hospital fill(int patientsNumber, StorageMode mode) {
+        Random rand = new Random(42);
+        ArrayList<Doctor> doctors = new ArrayList<>();
+        ArrayList<Nurse> nurses = new ArrayList<>();
+        ArrayList<MedicalWard> wards = new ArrayList<>();
+        int rooms = patientsNumber / BEDS_IN_ROOM + Gender.values().length;
+        for (Specialization specialization : Specialization.values()) {
+            doctors.add(new Doctor("Doctor" + specialization.ordinal(), rand.nextInt(2999999) + 7000000, specialization));
+            nurses.add(new Nurse("Nurse" + specialization.ordinal(), rand));
+            wards.add(new MedicalWard(specialization, rooms, BEDS_IN_ROOM, mode));
+        }
+        Hospital hospital = new Hospital(DoctorScheduler.create(SchedulerMode.DETERMINISTIC, new EnumMap<>(Specialization.class)),
+                rand, doctors, nurses, wards);
+        hospital.setEventSink(EventSink.noOp());
+
+        int[][] room = new int[wards.size()][Gender.values().length];  // room being filled for every ward and gender
+        int[][] bed = new int[wards.size()][Gender.values().length];    // next bed in that room
+        int[] nextRoom = new int[wards.size()];
+        for (int[] r : room) {
+            Arrays.fill(r, -1);
+        }
+        PatientFactory factory = new PatientFactory(7);
+        for (int i = 0; i < patientsNumber; i++) {
+            Patient patient = factory.next();
+            int w = patient.getSpec().ordinal();
+            int g = patient.getGender().ordinal();
+            if (room[w][g] < 0 || bed[w][g] == BEDS_IN_ROOM) {
+                room[w][g] = nextRoom[w]++;
+                bed[w][g] = 0;
+            }
+            patient.setRoom(room[w][g]);
+            patient.setBed(bed[w][g]++);
+            patient.setDischargeDay(rand.nextInt(5) + 1);
+            hospital.restorePatient(patient, doctors.get(w), wards.get(w));
+        }
+        for (int i = 0; i < 1000; i++) {
+            hospital.restoreWaitingPatient(factory.next());
+        }
+        return hospital;
+    }
+
+    /**
+     * @return time of all garbage collections from the start of the program in milliseconds
+     */
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /**
+     * Hash of the free beds, the waiting patients and the data and beds of the patients of every doctor in order of admission.
+     */
+    private static long digest(Hospital hospital) {
+        long hash = hospital.getWaitingPatientsCount();
+        for (Specialization specialization : Specialization.values()) {
+            hash = hash * 31 + hospital.getFreeBeds(specialization);
+        }
+        for (Doctor doctor : hospital.getDoctors()) {
+            hash = hash * 31 + doctor.toString().hashCode();
+            for (Patient patient : hospital.getPatients(doctor)) {
+                hash = hash * 31 + patient.getName().hashCode();
+                hash = hash * 31 + patient.getPhoneNumber();
+                hash = hash * 31 + patient.getAge();
+                hash = hash * 31 + patient.getGender().ordinal();
+                hash = hash * 31 + patient.getRoom();
+                hash = hash * 31 + patient.getBed();
+                hash = hash * 31 + patient.getDischargeDay();
+            }
+        }
+        return hash;
+    }
+}
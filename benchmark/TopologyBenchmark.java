@@ -0,0 +1,105 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalTopology;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Load test for hospitals of different sizes.
+ * For every topology measures creating the hospital, the intake of as many patients as there are beds one by one and as one list,
+ * the queries of free beds of a specialization and one day of discharges and medicine.
+ * Examinations are only submitted to a simulation that is never run, so only the work of the hospital is measured.
+ * Arguments: optional properties file with a topology, see HospitalTopology, which is tested instead of the predefined sizes.
+ */
+public class TopologyBenchmark {
+    private static final int[] WARDS = {1, 10, 100, 1000};  // wards for every specialization
+    private static final int ROOMS = 20;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int DOCTORS_IN_WARD = 5;
+    private static final int NURSES_IN_WARD = 2;
+    private static final int QUERIES = 1_000_000;
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        ArrayList<HospitalTopology> topologies = new ArrayList<>();
+        if (args.length > 0) {
+            topologies.add(HospitalTopology.load(Path.of(args[0])));
+        } else {
+            for (int wards : WARDS) {
+                HospitalTopology topology = new HospitalTopology();
+                for (Specialization specialization : Specialization.values()) {
+                    topology.setWards(specialization, wards, ROOMS, BEDS_IN_ROOM);
+                    topology.setDoctors(specialization, wards * DOCTORS_IN_WARD);
+                }
+                topology.setNurses(wards * Specialization.values().length * NURSES_IN_WARD);
+                topologies.add(topology);
+            }
+        }
+
+        System.out.printf("%8s %10s %5s %12s %12s %12s %14s %12s%n", "wards", "beds", "run", "create ms", "single ms", "batch ms", "ns per query", "day ms");
+        for (HospitalTopology topology : topologies) {
+            for (int run = 1; run <= RUNS; run++) {    // first runs are the warm up
+                run(topology, run);
+            }
+        }
+    }
+
+    private static void run(HospitalTopology topology, int run) {
+        int patientsNumber = (int) topology.getBedsCount();
+        ArrayList<Patient> patients = new PatientFactory(run).generate(patientsNumber);
+        System.gc();
+        long start = System.nanoTime();
+        Hospital hospital = createHospital(topology);
+        long create = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Patient patient : patients) {
+            hospital.enterHospital(patient);
+        }
+        long single = System.nanoTime() - start;
+        hospital.shutdown();
+
+        patients = new PatientFactory(run).generate(patientsNumber);
+        hospital = createHospital(topology);
+        System.gc();
+        start = System.nanoTime();
+        hospital.enterHospital(patients);
+        long batch = System.nanoTime() - start;
+
+        Specialization[] specs = Specialization.values();
+        long freeBeds = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            freeBeds += hospital.getFreeBeds(specs[i % specs.length]);
+        }
+        long queries = System.nanoTime() - start;
+        if (freeBeds < 0) {
+            throw new IllegalStateException();
+        }
+
+        start = System.nanoTime();
+        hospital.patientsDischarge();
+        hospital.patientsTakingPills();
+        long day = System.nanoTime() - start;
+        hospital.shutdown();
+
+        System.out.printf("%8d %10d %5d %12.1f %12.1f %12.1f %14.1f %12.1f%n", topology.getWardsCount(), patientsNumber, run,
+                create / 1e6, single / 1e6, batch / 1e6, (double) queries / QUERIES, day / 1e6);
+    }
+
+    private static Hospital createHospital(HospitalTopology topology) {
+        Hospital hospital = topology.createHospital(new SimulatedScheduler(new Simulation()), new Random(42));
+        hospital.setEventSink(EventSink.noOp());
+        hospital.setWardParallelism(1);
+        return hospital;
+    }
+}
@@ -0,0 +1,145 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalTopology;
+import Hospital.model.enums.Severity;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.TriageQueue;
+import Hospital.model.metrics.Histogram;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Benchmark for the triage queue of waiting patients.
+ * First measures adding and taking a patient from a triage queue with many waiting patients, compared with a plain queue.
+ * Then simulates a busy hospital where patients come almost as fast as the doctors examine them, once with triage
+ * and once with all patients standard, and shows the percentiles of the waiting times for every severity.
+ */
+public class TriageBenchmark {
+    private static final int[] WAITING = {1_000, 100_000, 1_000_000};  // waiting patients in the queue
+    private static final int OPERATIONS = 2_000_000;
+    private static final int DOCTORS = 3;   // doctors of every specialization
+    private static final long HOURS = 8;    // simulated time
+    private static final double LOAD = 0.95;    // arrivals compared to the examinations the doctors can do
+
+    public static void main(String[] args) {
+        ArrayList<Patient> patients = new PatientFactory(1).generate(WAITING[WAITING.length - 1]);
+        Random rand = new Random(2);
+        for (Patient patient : patients) {
+            patient.setSeverity(randomSeverity(rand));
+        }
+        System.out.printf("%10s %10s %15s%n", "queue", "waiting", "ns per patient");
+        for (int run = 0; run < 2; run++) {    // first run is the warm up
+            for (int waiting : WAITING) {
+                System.out.printf("%10s %10d %15.1f%n", "triage", waiting, triage(patients, waiting));
+                System.out.printf("%10s %10d %15.1f%n", "fifo", waiting, fifo(patients, waiting));
+            }
+        }
+
+        System.out.println();
+        simulate(true);
+        System.out.println();
+        simulate(false);
+    }
+
+    /**
+     * @return average time of adding and taking a patient from a triage queue with the given number of waiting patients
+     */
+    private static double triage(ArrayList<Patient> patients, int waiting) {
+        long[] clock = {0};
+        TriageQueue queue = new TriageQueue(() -> clock[0]);
+        for (int i = 0; i < waiting; i++) {
+            queue.add(patients.get(i));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            clock[0]++;
+            queue.add(queue.poll());
+        }
+        return (double) (System.nanoTime() - start) / OPERATIONS;
+    }
+
+    /**
+     * @return average time of adding and taking a patient from a plain queue with the given number of waiting patients
+     */
+    private static double fifo(ArrayList<Patient> patients, int waiting) {
+        Queue<Patient> queue = new ConcurrentLinkedQueue<>(patients.subList(0, waiting));
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            queue.add(queue.poll());
+        }
+        return (double) (System.nanoTime() - start) / OPERATIONS;
+    }
+
+    /**
+     * Simulates patients coming to a hospital with few doctors and shows how long they waited.
+     *
+     * @param triage true if patients have random severities, false if all are standard
+     */
+    private static void simulate(boolean triage) {
+        HospitalTopology topology = new HospitalTopology();
+        for (Specialization specialization : Specialization.values()) {
+            topology.setWards(specialization, 1, 5000, 3);
+            topology.setDoctors(specialization, DOCTORS);
+        }
+        Simulation simulation = new Simulation();
+        Hospital hospital = topology.createHospital(new SimulatedScheduler(simulation), new Random(3));
+        hospital.setEventSink(EventSink.noOp());
+        long examinationTime = hospital.getExaminationTime();
+        double perMillisecond = LOAD * DOCTORS * Specialization.values().length / examinationTime;
+
+        Random rand = new Random(4);
+        long time = 0;
+        long end = HOURS * 3_600_000;
+        while (time < end) {
+            time += (long) (-Math.log(1 - rand.nextDouble()) / perMillisecond) + 1;   // time between arrivals
+            Patient patient = new Patient(rand);
+            Severity severity = randomSeverity(rand);
+            if (triage) {
+                patient.setSeverity(severity);
+            }
+            simulation.scheduleAt(time, () -> hospital.enterHospital(patient));
+        }
+        long start = System.nanoTime();
+        simulation.runUntil(end);
+        System.out.printf("%s, %d patients waiting at the end, simulated in %.1f ms%n", triage ? "Triage" : "All standard",
+                hospital.getWaitingPatientsCount(), (System.nanoTime() - start) / 1e6);
+        System.out.printf("%12s %10s %10s %10s %10s %10s%n", "severity", "examined", "p50 s", "p90 s", "p99 s", "max s");
+        Histogram all = new Histogram();
+        for (Severity severity : Severity.values()) {
+            Histogram waitTimes = hospital.getWaitTimes(severity);
+            all.add(waitTimes);
+            print(severity.toString(), waitTimes);
+        }
+        print("all", all);
+        hospital.shutdown();
+    }
+
+    private static void print(String name, Histogram waitTimes) {
+        System.out.printf("%12s %10d %10.1f %10.1f %10.1f %10.1f%n", name, waitTimes.getCount(), waitTimes.getPercentile(50) / 1e3,
+                waitTimes.getPercentile(90) / 1e3, waitTimes.getPercentile(99) / 1e3, waitTimes.getMax() / 1e3);
+    }
+
+    /**
+     * @return severity with 5% critical, 15% urgent, 60% standard and 20% non-urgent patients
+     */
+    private static Severity randomSeverity(Random rand) {
+        int r = rand.nextInt(100);
+        if (r < 5) {
+            return Severity.CRITICAL;
+        } else if (r < 20) {
+            return Severity.URGENT;
+        } else if (r < 80) {
+            return Severity.STANDARD;
+        }
+        return Severity.NON_URGENT;
+    }
+}
@@ -0,0 +1,68 @@
+package Hospital.benchmark;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalTopology;
+import Hospital.model.enums.Severity;
+import Hospital.model.events.EventSink;
+import Hospital.model.metrics.Histogram;
+import Hospital.model.metrics.HospitalMetrics;
+import Hospital.model.simulation.LoadGenerator;
+import Hospital.model.simulation.LoadProfile;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+
+import java.util.Random;
+
+/**
+ * Benchmark for rounds of doctors split in slices.
+ * Simulates the standard hospital with long stays, so every doctor has many patients and long rounds, and a load close
+ * to its capacity. Runs the same arrivals with whole rounds and with slices of different sizes interrupted by patients
+ * of different severities, and shows how long the patients waited, how long the rounds took and how long the examinations
+ * were delayed by the rounds.
+ * Arguments: days, patients per day.
+ */
+public class VisitationBenchmark {
+    private static final long SEED = 42;
+    private static final int[] SLICES = {Integer.MAX_VALUE, 3, 3, 1, 1};
+    private static final Severity[] PREEMPTIONS = {null, Severity.CRITICAL, Severity.URGENT, Severity.URGENT, Severity.NON_URGENT};
+
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 365;
+        double arrivalsPerDay = args.length > 1 ? Double.parseDouble(args[1]) : 3;
+
+        System.out.printf("%8s %11s %9s %12s %12s %12s %12s %12s %13s %12s%n", "slice", "preemption", "examined", "critical p99",
+                "urgent p99", "all p50", "all p99", "round mean", "blocked mean", "preemptions");
+        for (int i = 0; i < SLICES.length; i++) {
+            run(days, arrivalsPerDay, SLICES[i], PREEMPTIONS[i]);
+        }
+        System.out.println("Times in virtual seconds, a day is 5 s and a visit or an examination 1 s.");
+    }
+
+    private static void run(int days, double arrivalsPerDay, int slice, Severity preemption) {
+        LoadProfile profile = LoadProfile.sustained(arrivalsPerDay);
+        profile.setTreatmentDays(3, 15, 6);     // long stays give long rounds
+        Simulation simulation = new Simulation();
+        Hospital hospital = HospitalTopology.standard().createHospital(new SimulatedScheduler(simulation), new Random(SEED));
+        hospital.setEventSink(EventSink.noOp());
+        HospitalMetrics metrics = hospital.enableMetrics();
+        hospital.setWardParallelism(1);
+        hospital.setVisitationSlices(slice, preemption);
+        long dayLength = profile.getDayLength();
+        for (int day = 1; day <= days; day++) {
+            simulation.scheduleAt(day * dayLength, hospital);
+        }
+        new LoadGenerator(profile, SEED + 1).start(simulation, hospital, days * dayLength);
+        simulation.runUntil(days * dayLength);
+        hospital.shutdown();
+
+        Histogram all = new Histogram();
+        for (Severity severity : Severity.values()) {
+            all.add(hospital.getWaitTimes(severity));
+        }
+        System.out.printf("%8s %11s %9d %12.1f %12.1f %12.1f %12.1f %12.1f %13.1f %12d%n", slice == Integer.MAX_VALUE ? "whole" : slice,
+                preemption == null ? "none" : preemption, metrics.getExaminations(),
+                hospital.getWaitTimes(Severity.CRITICAL).getPercentile(99) / 1e3, hospital.getWaitTimes(Severity.URGENT).getPercentile(99) / 1e3,
+                all.getPercentile(50) / 1e3, all.getPercentile(99) / 1e3, metrics.getRoundTimes().getMean() / 1e3,
+                metrics.getRoundBlockedTimes().getMean() / 1e3, metrics.getPreemptions());
+    }
+}
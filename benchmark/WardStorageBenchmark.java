@@ -0,0 +1,107 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Benchmark for the storages of a medical ward with a million beds.
+ * For every storage mode fills the ward, measures the memory the ward keeps on the heap and in direct memory,
+ * and the time of the daily discharge and medicine passes. Discharged patients are admitted again, so the ward stays almost full.
+ */
+public class WardStorageBenchmark {
+    private static final int ROOMS = 333_334;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final double OCCUPANCY = 0.9;    // part of the beds that are occupied
+    private static final int NURSES = 4;
+    private static final int DAYS = 30; // measured days for every storage
+
+    public static void main(String[] args) {
+        // patients are created once and kept during the whole benchmark, so they are not counted in the memory of the ward
+        ArrayList<Patient> patients = new PatientFactory(42).generate((int) (ROOMS * BEDS_IN_ROOM * OCCUPANCY));
+
+        for (StorageMode mode : StorageMode.values()) {    // warm up
+            run(mode, patients);
+        }
+        System.out.printf("%15s %15s %15s %15s %15s%n", "storage", "heap MB", "direct MB", "discharge ms", "medicine ms");
+        for (StorageMode mode : StorageMode.values()) {
+            double[] result = run(mode, patients);
+            System.out.printf("%15s %15.1f %15.1f %15.2f %15.2f%n", mode, result[0], result[1], result[2], result[3]);
+        }
+    }
+
+    /**
+     * Fills a new ward and runs the days.
+     * @param mode storage of the ward
+     * @param patients patients to be admitted
+     * @return heap and direct memory of the ward in megabytes, average time of discharge and of medicine for one day in milliseconds
+     */
+    private static double[] run(StorageMode mode, ArrayList<Patient> patients) {
+        Random rand = new Random(7);
+        for (Patient patient : patients) {    // patients left in the last ward would keep it alive and its memory counted
+            patient.setDischargeDay(0);
+            patient.setWard(null);
+        }
+        long heap = usedHeap();
+        long direct = usedDirect();
+        MedicalWard ward = new MedicalWard(Specialization.CARDIOLOGY, ROOMS, BEDS_IN_ROOM, mode);
+        for (int n = 0; n < NURSES; n++) {
+            ward.assignNewNurse(new Nurse("Nurse" + n));
+        }
+        for (Patient patient : patients) {
+            admit(ward, patient, rand);
+        }
+        heap = usedHeap() - heap;
+        direct = usedDirect() - direct;
+
+        long dischargeTime = 0;
+        long medicineTime = 0;
+        for (int day = 0; day < DAYS; day++) {
+            long start = System.nanoTime();
+            ArrayList<Patient> discharged = ward.patientDischarge();
+            dischargeTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            ward.patientsTakingPills();     // the ward has no event sink, so this measures the pass over the beds
+            medicineTime += System.nanoTime() - start;
+            for (Patient patient : discharged) {
+                admit(ward, patient, rand);
+            }
+        }
+        if (ward.getOccupiedBeds() != patients.size()) {
+            throw new IllegalStateException("Occupied beds do not match admitted patients.");
+        }
+        return new double[]{heap / 1e6, direct / 1e6, dischargeTime / 1e6 / DAYS, medicineTime / 1e6 / DAYS};
+    }
+
+    private static void admit(MedicalWard ward, Patient patient, Random rand) {
+        if (ward.addPatient(patient)) {
+            ward.setDaysOfTreatment(patient, rand.nextInt(3) + 3);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        long used = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,244 @@
+package Hospital.benchmark;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.PlacementMode;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.facilities.WardCensus;
+import Hospital.model.persons.Patient;
+import Hospital.model.persons.PatientFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress test for the stripes of rooms of a medical ward.
+ * Many threads admit, remove and treat their own patients in one ward at the same time, another thread starts the next day
+ * all the time and another reads the census. Every census read during the work must have no patient in two beds and
+ * no room with patients of both sexes. When all work is done the ward is checked against the beds copied with all locks:
+ * counters of free and occupied beds, room and bed written in every patient and the patients that think they are in the ward.
+ * Runs both storages with one stripe and with many stripes, and every placement of rooms with many stripes,
+ * and shows the changes made in a second.
+ * Exits with status 1 if any check fails.
+ */
+public class WardStress {
+    private static final int ROOMS = 300;
+    private static final int BEDS_IN_ROOM = 3;
+    private static final int WORKERS = 8;   // threads changing the ward at the same time
+    private static final int PATIENTS_PER_WORKER = 200;
+    private static final int OPERATIONS = 50_000;   // changes made by every worker
+    private static final int[] STRIPES = {1, 8, 64};
+    private static final int ROUNDS = 5;    // wards tested for every configuration
+
+    public static void main(String[] args) throws InterruptedException {
+        int failures = 0;
+        System.out.printf("%10s %8s %22s %14s %10s%n", "storage", "stripes", "placement", "changes/s", "days");
+        for (StorageMode mode : new StorageMode[]{StorageMode.OBJECTS, StorageMode.COLUMNS}) {
+            for (int stripes : STRIPES) {
+                failures += runAll(mode, stripes, PlacementMode.FIRST_FIT);
+            }
+        }
+        for (PlacementMode placement : PlacementMode.values()) {
+            if (placement != PlacementMode.FIRST_FIT) {
+                failures += runAll(StorageMode.OBJECTS, STRIPES[1], placement);
+            }
+        }
+        System.out.println(Runtime.getRuntime().availableProcessors() + " cores");
+        System.out.println(failures == 0 ? "All rounds passed." : failures + " rounds failed.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs all rounds of one configuration and shows the result.
+     * @return number of failed rounds
+     */
+    private static int runAll(StorageMode mode, int stripes, PlacementMode placement) throws InterruptedException {
+        int failures = 0;
+        double changesPerSecond = 0;
+        long days = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long[] result = new long[2];
+            String failure = run(mode, stripes, placement, round, result);
+            if (failure != null) {
+                failures++;
+                System.out.println(mode + " with " + stripes + " stripes and " + placement + ", round " + round + " failed: " + failure);
+            }
+            changesPerSecond += (double) WORKERS * OPERATIONS / (result[0] / 1e9) / ROUNDS;
+            days += result[1];
+        }
+        System.out.printf("%10s %8d %22s %14.0f %10d%n", mode, stripes, placement, changesPerSecond, days / ROUNDS);
+        return failures;
+    }
+
+    /**
+     * Runs one ward until all workers are done.
+     * @param result time of the work in nanoseconds and number of days, filled by the method
+     * @return description of the failure, null if all checks passed
+     */
+    private static String run(StorageMode mode, int stripes, PlacementMode placement, int seed, long[] result) throws InterruptedException {
+        MedicalWard ward = new MedicalWard(Specialization.VIROLOGY, ROOMS, BEDS_IN_ROOM, mode, stripes, placement);
+        PatientFactory factory = new PatientFactory(seed);
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean working = new AtomicBoolean(true);
+        List<Patient> all = new ArrayList<>();
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < WORKERS; w++) {
+            List<Patient> own = factory.generate(PATIENTS_PER_WORKER);
+            all.addAll(own);
+            Random random = new Random(seed * 31L + w);
+            workers.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        Patient patient = own.get(random.nextInt(own.size()));
+                        if (patient.getWard() != ward) {    // not admitted or discharged
+                            if (ward.addPatient(patient) && ward.getPatient(patient.getRoom(), patient.getBed()) != patient
+                                    && patient.getWard() == ward) {
+                                failure.compareAndSet(null, "Patient " + patient.getName() + " is not in his bed after admission.");
+                            }
+                        } else if (random.nextInt(3) == 0) {
+                            ward.removePatient(patient);
+                        } else {
+                            ward.setDaysOfTreatment(patient, random.nextInt(4));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, "Worker failed: " + e);
+                }
+            }));
+        }
+        long[] days = new long[1];
+        Thread dayThread = new Thread(() -> {
+            while (working.get()) {
+                ward.patientDischarge();
+                days[0]++;
+                Thread.yield();
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (working.get()) {
+                String error = check(ward.getCensus());
+                if (error != null) {
+                    failure.compareAndSet(null, "Census during the work: " + error);
+                }
+            }
+        });
+        long start = System.nanoTime();
+        workers.forEach(Thread::start);
+        dayThread.start();
+        reader.start();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        result[0] = System.nanoTime() - start;
+        working.set(false);
+        dayThread.join();
+        reader.join();
+        result[1] = days[0];
+        if (failure.get() != null) {
+            return failure.get();
+        }
+        return checkWard(ward, all);
+    }
+
+    /**
+     * Checks a census read at any time.
+     * @return description of the failure, null if the census is consistent
+     */
+    private static String check(WardCensus census) {
+        IdentityHashMap<Patient, Boolean> seen = new IdentityHashMap<>();
+        int[] occupiedByGender = new int[Gender.values().length];
+        for (int room = 0; room < census.getRooms(); room++) {
+            Gender roomGender = null;
+            for (int bed = 0; bed < census.getBedsInRoom(); bed++) {
+                Patient patient = census.getPatient(room, bed);
+                if (patient == null) {
+                    continue;
+                }
+                if (seen.put(patient, Boolean.TRUE) != null) {
+                    return "patient " + patient.getName() + " is in two beds";
+                }
+                if (roomGender != null && roomGender != patient.getGender()) {
+                    return "room " + room + " has patients of both sexes";
+                }
+                roomGender = patient.getGender();
+                occupiedByGender[patient.getGender().ordinal()]++;
+            }
+        }
+        for (Gender gender : Gender.values()) {
+            if (census.getOccupiedBeds(gender) != occupiedByGender[gender.ordinal()]) {
+                return "count of beds of " + gender + " is wrong";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks the ward after all work is done.
+     * @param all all patients of the workers
+     * @return description of the failure, null if all checks passed
+     */
+    private static String checkWard(MedicalWard ward, List<Patient> all) {
+        WardCensus census = ward.lockedCensus();
+        String error = check(census);
+        if (error != null) {
+            return error;
+        }
+        int inWard = 0;
+        for (Patient patient : all) {
+            if (patient.getWard() == ward) {
+                inWard++;
+                if (census.getPatient(patient.getRoom(), patient.getBed()) != patient) {
+                    return "patient " + patient.getName() + " is not in the bed written in his data";
+                }
+            }
+        }
+        if (inWard != census.getOccupiedBeds()) {
+            return inWard + " patients are in the ward, but " + census.getOccupiedBeds() + " beds are occupied";
+        }
+        int[] histogram = ward.getDischargeHistogram();
+        int[] discharges = new int[histogram.length];
+        for (Patient patient : all) {
+            int index = patient.getDischargeDay() - ward.getCurrentDay() - 1;
+            if (patient.getWard() == ward && index < histogram.length) {
+                discharges[index]++;
+            }
+        }
+        if (!Arrays.equals(histogram, discharges)) {
+            return "histogram of discharges " + Arrays.toString(histogram) + " does not match " + Arrays.toString(discharges);
+        }
+        if (ward.getPatientsForDischargingNextDay().size() != discharges[0]) {
+            return "patients for discharging next day do not match the histogram";
+        }
+        if (ward.getFreeBeds() != census.getFreeBeds() || ward.getOccupiedBeds() != census.getOccupiedBeds()) {
+            return "counter of free beds " + ward.getFreeBeds() + " does not match " + census.getFreeBeds() + " free beds";
+        }
+        for (Gender gender : Gender.values()) {
+            if (ward.getOccupiedBeds(gender) != census.getOccupiedBeds(gender)) {
+                return "counter of beds of " + gender + " does not match the beds";
+            }
+            int free = 0;
+            for (int room = 0; room < census.getRooms(); room++) {
+                boolean other = false;
+                int own = 0;
+                for (int bed = 0; bed < census.getBedsInRoom(); bed++) {
+                    Patient patient = census.getPatient(room, bed);
+                    other |= patient != null && patient.getGender() != gender;
+                    own += patient == null ? 1 : 0;
+                }
+                free += other ? 0 : own;
+            }
+            if (ward.getFreeBeds(gender) != free) {
+                return "free beds for " + gender + " are " + ward.getFreeBeds(gender) + " instead of " + free;
+            }
+        }
+        return null;
+    }
+}
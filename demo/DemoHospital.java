@@ -1,47 +1,54 @@
 package Hospital.demo;
 
 import Hospital.model.Hospital;
-import Hospital.model.persons.Patient;
+import Hospital.model.metrics.MetricsExporter;
+import Hospital.model.simulation.LoadGenerator;
+import Hospital.model.simulation.LoadProfile;
 
-import java.util.ArrayList;
-import java.util.Random;
+import java.nio.file.Path;
 import java.util.concurrent.*;
 
 import static java.lang.Thread.sleep;
 
+/**
+ * Runs the hospital in real time for 10 days of 5 seconds with patients coming by a load profile.
+ * Arguments: patients per day, 4 if not given.
+ */
 public class DemoHospital {
 
     public static void main(String[] args){
-        Random rand = new Random();
+        double arrivalsPerDay = args.length > 0 ? Double.parseDouble(args[0]) : 4;
 
         Hospital hospital = new Hospital();
         hospital.showDoctors();
+        hospital.enableMetrics();
+        MetricsExporter metrics = new MetricsExporter(hospital, Path.of("target", "hospital-metrics.json"), 5000);    // metrics are written every 5 seconds
 
         ScheduledExecutorService hospitalDay = Executors.newSingleThreadScheduledExecutor();
         hospitalDay.scheduleAtFixedRate(hospital, 5000, 5000, TimeUnit.MILLISECONDS);    //schedule a starting day in hospital
-        Runnable canceller = () -> hospitalDay.shutdown();
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        LoadProfile profile = LoadProfile.bursts(arrivalsPerDay, 5, 1, 3);  // three times more patients on the first day of every 5
+        LoadGenerator load = new LoadGenerator(profile, System.nanoTime());
+        load.start(arrivals, hospital);     // patients come to the hospital
+        Runnable canceller = () -> {
+            load.stop();
+            arrivals.shutdownNow();
+            hospitalDay.shutdown();
+            hospital.shutdown();
+            metrics.close();
+            hospital.showWaitTimes();
+            hospital.showMedicationRounds();
+            hospital.showVisitationRounds();
+        };
         hospitalDay.schedule(canceller, 50000, TimeUnit.MILLISECONDS);  // stop schedule after 10 cycles
 
-        // create patients
-        ArrayList<Patient> patients = new ArrayList<>();
-        for (int i = 0; i < 20; i++) {
-            patients.add(new Patient());
-        }
-
-        // admits patients to the hospital
-        int counter = 1;
+        // waits for the first patients
         try {
-            for (Patient patient : patients) {
-                if ((counter%5) == 0){
-                    sleep(3000);
-                }
-                sleep(rand.nextInt(30));
-                hospital.enterHospital(patient);
-                counter ++;
-            }
+            sleep(12000);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
+        System.out.println("Patients came: " + load.getArrivals());
 
         // shows additional info at some point
         System.out.println("Number of free beds:");
@@ -0,0 +1,24 @@
+package Hospital.demo;
+
+import Hospital.model.simulation.HospitalSimulation;
+import Hospital.model.simulation.SimulationReport;
+
+/**
+ * Simulates years of work of the hospital in virtual time and runs the same simulation twice
+ * to show that the same seed gives exactly the same events.
+ * Arguments: seed, days, patients per day.
+ */
+public class DemoSimulation {
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 3650;
+        double arrivalsPerDay = args.length > 2 ? Double.parseDouble(args[2]) : 30;
+
+        SimulationReport first = new HospitalSimulation(seed, days, arrivalsPerDay).run();
+        System.out.println(first);
+        SimulationReport second = new HospitalSimulation(seed, days, arrivalsPerDay).run();
+        System.out.println(second);
+        System.out.println(first.getFingerprint() == second.getFingerprint() ? "Both runs are identical." : "Runs are different!");
+    }
+}
@@ -0,0 +1,102 @@
+package Hospital.demo;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.persistence.HospitalJournal;
+import Hospital.model.persistence.HospitalSnapshot;
+import Hospital.model.persons.Patient;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Saves a simulated hospital in a snapshot, continues the simulation with a journal and stops it as if it crashed.
+ * After the snapshot a patient leaves his ward early every third day.
+ * Then the hospital is recovered from the snapshot and the journal, and its wards and waiting patients are compared with those
+ * of the hospital that was stopped.
+ * Arguments: days before the snapshot, days after the snapshot, patients per day.
+ */
+public class DemoSnapshot {
+    private static final long DAY_LENGTH = 5000;    // length of one day in virtual milliseconds
+
+    public static void main(String[] args) throws IOException {
+        int daysBefore = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int daysAfter = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int arrivalsPerDay = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Path directory = Files.createTempDirectory("hospital");
+        Path snapshot = directory.resolve("hospital.snapshot");
+        Path journalFile = directory.resolve("hospital.journal");
+
+        Simulation simulation = new Simulation();
+        Hospital hospital = new Hospital(new SimulatedScheduler(simulation), 42);
+        hospital.setWardParallelism(1);
+        hospital.setEventSink(EventSink.noOp());
+        Random rand = new Random(43);
+        for (int day = 1; day <= daysBefore + daysAfter; day++) {
+            simulation.scheduleAt(day * DAY_LENGTH, hospital);
+            for (int i = 0; i < arrivalsPerDay; i++) {
+                Patient patient = new Patient(rand);
+                simulation.scheduleAt(day * DAY_LENGTH + 1 + rand.nextInt((int) DAY_LENGTH - 1), () -> hospital.enterHospital(patient));
+            }
+        }
+
+        for (int day = daysBefore + 1; day <= daysBefore + daysAfter; day += 3) {
+            simulation.scheduleAt(day * DAY_LENGTH + DAY_LENGTH / 4, () -> dischargeFirstPatient(hospital));
+        }
+
+        simulation.runUntil(daysBefore * DAY_LENGTH + DAY_LENGTH / 2);
+        HospitalSnapshot.write(hospital, snapshot);
+        HospitalJournal journal = new HospitalJournal(journalFile, hospital);
+        hospital.setJournal(journal);
+        System.out.println("Snapshot after day " + (hospital.getWorkingDays() - 1) + ": " + Files.size(snapshot) + " bytes.");
+
+        simulation.runUntil((daysBefore + daysAfter) * DAY_LENGTH + DAY_LENGTH / 2);
+        journal.flush();    // the hospital stops here without closing anything
+        System.out.println("Crash after day " + (hospital.getWorkingDays() - 1) + ", journal: " + Files.size(journalFile) + " bytes.");
+
+        long start = System.nanoTime();
+        Hospital recovered = HospitalSnapshot.recover(snapshot, journalFile, null);
+        System.out.printf("Recovered in %.1f ms.%n", (System.nanoTime() - start) / 1e6);
+        boolean same = hospital.getWorkingDays() == recovered.getWorkingDays()
+                && hospital.getWaitingPatientsCount() == recovered.getWaitingPatientsCount();
+        System.out.println("Waiting patients " + hospital.getWaitingPatientsCount() + " and " + recovered.getWaitingPatientsCount());
+        for (Specialization specialization : Specialization.values()) {
+            System.out.println("Ward " + specialization + ": occupied beds " + hospital.getOccupiedBeds(specialization) + " and " + recovered.getOccupiedBeds(specialization)
+                    + ", discharges in next days " + Arrays.toString(hospital.getDischargeHistogram(specialization))
+                    + " and " + Arrays.toString(recovered.getDischargeHistogram(specialization)));
+            same &= hospital.getOccupiedBeds(specialization) == recovered.getOccupiedBeds(specialization)
+                    && Arrays.equals(hospital.getDischargeHistogram(specialization), recovered.getDischargeHistogram(specialization));
+        }
+        System.out.println(same ? "Recovered hospital is the same." : "Recovered hospital is different!");
+
+        recovered.shutdown();
+        hospital.shutdown();
+        Files.delete(snapshot);
+        Files.delete(journalFile);
+        Files.delete(directory);
+    }
+
+    /**
+     * Discharges the patient in the first occupied bed of the hospital before his day of discharge.
+     */
+    private static void dischargeFirstPatient(Hospital hospital) {
+        for (MedicalWard mw : hospital.getWards()) {
+            for (int room = 0; room < mw.getRooms(); room++) {
+                for (int bed = 0; bed < mw.getBedsInRoom(); bed++) {
+                    Patient patient = mw.getPatient(room, bed);
+                    if (patient != null) {
+                        hospital.dischargePatient(patient);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
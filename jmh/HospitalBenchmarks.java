@@ -0,0 +1,109 @@
+package Hospital.jmh;
+
+import Hospital.model.Hospital;
+import Hospital.model.events.EventSink;
+import Hospital.model.persons.Patient;
+import Hospital.model.simulation.SimulatedScheduler;
+import Hospital.model.simulation.Simulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for admission and discharge in the hospital.
+ * Examinations run in a simulation without time, so an examination ends right after the admission and the doctor is free for the next patient.
+ * One invocation is one day: the given number of patients enter the hospital and then patients with finished treatment are discharged,
+ * so after the first days the census is stable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HospitalBenchmarks {
+
+    @Param({"10", "100", "1000"})
+    public int admissionsPerDay;
+
+    @Param({"true", "false"})
+    public boolean metrics;     // true turns on the metrics, to measure their cost
+
+    private Hospital hospital;
+    private Simulation simulation;
+    private Random rand;
+    private Patient[] patients;
+    private int next = 0;   // index of the next patient
+    private int day = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rand = new Random(42);
+        simulation = new Simulation();
+        hospital = new Hospital(new SimulatedScheduler(simulation), 42);
+        hospital.setEventSink(EventSink.noOp());
+        hospital.setWardParallelism(1);
+        hospital.setConsultationTime(0, 0);
+        if (metrics) {
+            hospital.enableMetrics();
+        }
+        patients = new Patient[admissionsPerDay * 16];  // patients are reused after they leave the hospital
+        for (int i = 0; i < patients.length; i++) {
+            patients[i] = new Patient(rand);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hospital.shutdown();
+    }
+
+    /**
+     * Patients of one day enter the hospital and are examined, the doctor is assigned and the bed is taken.
+     * At the end of the day patients are discharged to keep the census stable.
+     */
+    @Benchmark
+    public int examinePatients() {
+        for (int i = 0; i < admissionsPerDay; i++) {
+            hospital.enterHospital(nextPatient());
+            simulation.runUntil(simulation.now());  // examination ends without time
+        }
+        hospital.patientsDischarge();
+        return hospital.getFreeBeds();
+    }
+
+    /**
+     * Discharge pass over all wards on a day without admissions, patients are admitted every 5 days to keep the wards full.
+     */
+    @Benchmark
+    public int patientsDischarge() {
+        if (day % 5 == 0) {
+            for (int i = 0; i < admissionsPerDay; i++) {
+                hospital.enterHospital(nextPatient());
+                simulation.runUntil(simulation.now());
+            }
+        }
+        day++;
+        hospital.patientsDischarge();
+        return hospital.getFreeBeds();
+    }
+
+    private Patient nextPatient() {
+        Patient patient = patients[next % patients.length];
+        next++;
+        return patient;
+    }
+}
@@ -0,0 +1,125 @@
+package Hospital.jmh;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.persons.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the operations of a medical ward, for different sizes of the ward, occupancy, part of male patients and storage of the patients.
+ * Every benchmark keeps the occupancy of the ward the same during the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WardBenchmarks {
+    private static final int BEDS_IN_ROOM = 3;
+
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    @Param({"0.5", "0.95"})
+    public double occupancy;    // part of occupied beds
+
+    @Param({"0.5", "0.9"})
+    public double maleShare;    // part of male patients
+
+    @Param({"OBJECTS", "COLUMNS", "DIRECT_COLUMNS"})
+    public StorageMode storage;
+
+    private MedicalWard ward;
+    private Random rand;
+    private final ArrayDeque<Patient> males = new ArrayDeque<>();   // patients out of the ward
+    private final ArrayDeque<Patient> females = new ArrayDeque<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rand = new Random(42);
+        ward = new MedicalWard(Specialization.CARDIOLOGY, rooms, BEDS_IN_ROOM, storage);
+        int capacity = rooms * BEDS_IN_ROOM;
+        // enough patients of both genders to fill the ward and have spare ones
+        while (males.size() + females.size() < capacity * 2 || males.size() < 16 || females.size() < 16) {
+            Patient patient = new Patient(rand);
+            (patient.getGender() == Gender.MALE ? males : females).add(patient);
+        }
+        int target = (int) (capacity * occupancy);
+        for (int i = 0; i < target * 2 && ward.getOccupiedBeds() < target; i++) {
+            admit(nextPatient());
+        }
+    }
+
+    /**
+     * Admits a patient and removes him, the ward stays the same.
+     */
+    @Benchmark
+    public boolean addAndRemovePatient() {
+        Patient patient = nextPatient();
+        boolean admitted = ward.addPatient(patient);
+        if (admitted) {
+            ward.removePatient(patient);
+        }
+        back(patient);
+        return admitted;
+    }
+
+    @Benchmark
+    public int getFreeBeds() {
+        return ward.getFreeBeds();
+    }
+
+    /**
+     * Discharge of one day, discharged patients are admitted again with new treatment, so the occupancy stays the same.
+     */
+    @Benchmark
+    public int patientDischarge() {
+        ArrayList<Patient> discharged = ward.patientDischarge();
+        for (Patient patient : discharged) {
+            if (!ward.addPatient(patient)) {
+                back(patient);
+                continue;
+            }
+            ward.setDaysOfTreatment(patient, rand.nextInt(3) + 3);
+        }
+        return discharged.size();
+    }
+
+    /**
+     * @return spare patient, male with probability of the male share
+     */
+    private Patient nextPatient() {
+        return rand.nextDouble() < maleShare ? males.poll() : females.poll();
+    }
+
+    private void back(Patient patient) {
+        (patient.getGender() == Gender.MALE ? males : females).add(patient);
+    }
+
+    private void admit(Patient patient) {
+        if (ward.addPatient(patient)) {
+            ward.setDaysOfTreatment(patient, rand.nextInt(3) + 3);
+        } else {
+            back(patient);
+        }
+    }
+}
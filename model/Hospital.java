@@ -1,59 +1,182 @@
 package Hospital.model;
 
+import Hospital.model.enums.AdmissionOutcome;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Medication;
+import Hospital.model.enums.Severity;
 import Hospital.model.enums.Specialization;
+import Hospital.model.events.AsyncEventSink;
+import Hospital.model.events.EventSink;
+import Hospital.model.events.EventType;
+import Hospital.model.facilities.DayCycle;
 import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.MedicationRound;
+import Hospital.model.facilities.TriageQueue;
+import Hospital.model.facilities.WardCensus;
+import Hospital.model.metrics.Histogram;
+import Hospital.model.metrics.HospitalMetrics;
 import Hospital.model.persons.Doctor;
 import Hospital.model.persons.Nurse;
 import Hospital.model.persons.Patient;
+import Hospital.model.persistence.HospitalJournal;
+import Hospital.model.threads.DoctorScheduler;
 import Hospital.model.threads.Examination;
-import Hospital.model.threads.Visitation;
+import Hospital.model.threads.SchedulerMode;
+import Hospital.model.threads.VisitationRound;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 /**
  * Class Hospital
  * Generates a set number of doctors and nurses and departments. Assign nurses in the wards.
- * Contains a list of doctors, a list of each doctor's patients, a list of nurses, a list of hospital departments, a list of waiting patients.
+ * A hospital of any size, with many wards for every specialization, can be created with HospitalTopology.
+ * Wards of every specialization are kept in an EnumMap, patients are placed in them in turn, starting after the ward used last time.
+ * Contains a list of doctors, a list of each doctor's patients, a list of nurses, a list of hospital departments,
+ * a queue of waiting patients and a queue of free doctors for every specialization.
  * ------------
- * When a patient enters the hospital, the patient is placed on the waiting list and an examination method is initiated.
+ * When a patient enters the hospital, the patient is placed on the waiting queue of his specialization and a free doctor is claimed for him.
+ * Waiting patients are examined by severity and time of arrival, and the time they waited is counted for every severity.
+ * When a doctor finishes his work, he takes the next waiting patient, so no global lock is needed.
  * Discharges patients from the hospital. Administers medication to patients.
  * ------------
  * Shows patients for discharge.
  * Shows the doctors.
  * Shows the doctors with their patients.
  * Shows available beds in the wards.
+ * Returns free and occupied beds and patients for discharge from counters kept by the wards, without locking the wards.
+ * Queries that need one consistent view of several wards, like query(), read an immutable HospitalCensus that is copied again only after a change.
+ * Counts arrivals, admissions, examinations and visitations, and times examinePatients passes and days in HospitalMetrics,
+ * which can be written as JSON with MetricsExporter.
  * ------------
  * Starts a thread about discharging people, giving medicine and visiting the doctors.
+ * Every phase of the day is executed for all wards in parallel and the next phase starts when all wards have finished the previous one.
+ * Examinations and visitations are submitted to a doctor scheduler, which decides on which threads they are executed.
+ * The round of a doctor can be split in slices of visits, so severe waiting patients are examined between two slices.
+ * ------------
+ * The hospital can be saved in a snapshot and loaded from it with HospitalSnapshot. Arrivals, admissions, treatments,
+ * early discharges and days after the snapshot can be written in a journal, so the hospital can be recovered after a crash.
  */
 
 public class Hospital implements Runnable {
     private static final int DOCTORS_NUMBER = 5;    // Number of doctors to be created
     private static final int NURSE_NUMBER = 8;  // Number of nurses to be created
+    private static final long SHUTDOWN_TIMEOUT = 60_000;    // Time to wait for running examinations and visitations on shutdown in milliseconds
     // Predefined doctors names
-    private final String[] doctorsNames = {"Ivanov", "Petrov", "Kostadinov", "Stoynev", "Goranov", "Dimitrov", "Blagoev", "Bukliev"};
+    static final String[] doctorsNames = {"Ivanov", "Petrov", "Kostadinov", "Stoynev", "Goranov", "Dimitrov", "Blagoev", "Bukliev"};
     // Predefined nurses names
-    private final String[] nursesNames = {"Kamburova", "Stankova", "Kiriakova", "Asenova", "Tsankova", "Dineva", "Trichkova", "Kaunova"};
-    private final MedicalWard[] medicalWards = new MedicalWard[3];  // Array for medical wards
-    private final HashMap<Specialization, ArrayList<Doctor>> doctorsList = new HashMap<>(); // Array list for doctors depends on their specifications
+    static final String[] nursesNames = {"Kamburova", "Stankova", "Kiriakova", "Asenova", "Tsankova", "Dineva", "Trichkova", "Kaunova"};
+    private final MedicalWard[] medicalWards;  // Array for medical wards
+    private final EnumMap<Specialization, MedicalWard[]> wardsBySpec = new EnumMap<>(Specialization.class);   // wards of every specialization
+    private final EnumMap<Specialization, AtomicInteger> wardCursors = new EnumMap<>(Specialization.class);  // ward of every specialization that took the last patient
+    private final EnumMap<Specialization, ArrayList<Doctor>> doctorsList = new EnumMap<>(Specialization.class); // Array list for doctors depends on their specifications
     private final ArrayList<Nurse> nursesList = new ArrayList<>();  // Array list for nurses
-    private final HashMap<Doctor, ArrayList<Patient>> patientsList = new HashMap<>();   // Array list for patients for each doctor
-    private final Queue<Patient> waitingPatients = new ConcurrentLinkedQueue<>();   // List for all patients that are waiting for examination
-    private volatile boolean isRunningExamination = false;  // flag for running examination
+    private final Map<Doctor, Set<Patient>> patientsList = new ConcurrentHashMap<>();   // Patients for each doctor in order of admission, every patient knows his doctor
+    private final EnumMap<Specialization, TriageQueue> waitingPatients = new EnumMap<>(Specialization.class);    // Patients waiting for examination for every specialization, by severity and arrival
+    private final EnumMap<Specialization, Queue<Doctor>> freeDoctors = new EnumMap<>(Specialization.class); // Doctors that can be free for every specialization, a doctor is taken only if he is claimed
     private int workingDays = 1;
+    private final DoctorScheduler scheduler;    // executes examinations and visitations
+    private volatile DayCycle dayCycle;    // discharges patients and gives medicine in all wards in parallel
+    private final Random random;    // random generator for doctors, nurses and treatments
+    private volatile EventSink events;  // receives the events of the hospital and writes them in the background
+    private volatile long examinationTime = 1000;   // duration of one examination in milliseconds
+    private volatile long visitationTime = 1000;    // duration of one visit in milliseconds
+    private volatile HospitalJournal journal;   // receives admissions, treatments and days, null if there is no journal
+    private volatile Consumer<Patient> overflow;    // receives examined patients without a bed, null if they leave the hospital
+    private volatile HospitalMetrics metrics;   // counters and histograms of the work of the hospital, null until they are turned on
+    private volatile HospitalCensus census;  // last census of the wards, null before the first query
+    private final Map<Doctor, VisitationRound> visitationRounds = new ConcurrentHashMap<>();    // running or last round of every doctor
+    private volatile int visitationSlice = Integer.MAX_VALUE;  // most visits in one slice of a round
+    private volatile Severity visitationPreemption;    // least severity of patients examined between the slices, null if rounds are not interrupted
+    private volatile ToIntFunction<Patient> treatmentDays;  // decides days of treatment before the placement, null for 3 to 5 random days
 
     /**
      * Constructor
-     * Creates predefined number of doctors with random names and specifications
-     * Creates predefined numbers of nurses
-     * Creates 3 wards and assign nurses to them
+     * Creates hospital where examinations and visitations are executed on a pool of platform threads for every specialization.
      */
     public Hospital() {
+        this(SchedulerMode.PLATFORM_POOL);
+    }
+
+    /**
+     * Constructor
+     * Creates hospital with a scheduler of given mode. For every specialization the scheduler runs as many tasks at the same time as there are doctors.
+     *
+     * @param mode how examinations and visitations are executed
+     */
+    public Hospital(SchedulerMode mode) {
+        this(mode, null, new Random(), null, null, null);
+    }
+
+    /**
+     * Constructor
+     * Creates hospital with given scheduler for examinations and visitations.
+     *
+     * @param scheduler scheduler for examinations and visitations
+     */
+    public Hospital(DoctorScheduler scheduler) {
+        this(null, scheduler, new Random(), null, null, null);
+    }
+
+    /**
+     * Constructor
+     * Creates hospital with given scheduler and seed for the random generator. Hospitals with the same seed have the same doctors and nurses,
+     * and with a deterministic scheduler the same treatments.
+     *
+     * @param scheduler scheduler for examinations and visitations
+     * @param seed seed of the random generator
+     */
+    public Hospital(DoctorScheduler scheduler, long seed) {
+        this(null, scheduler, new Random(seed), null, null, null);
+    }
+
+    /**
+     * Constructor
+     * Creates hospital with given doctors, nurses and empty wards, used when a saved hospital is loaded.
+     * Nurses are assigned to the wards in order.
+     *
+     * @param scheduler scheduler for examinations and visitations, null for a pool of platform threads with a thread for every doctor,
+     *                  at most PlatformPoolScheduler.MAX_THREADS for a specialization
+     * @param random random generator for treatments
+     * @param doctors doctors of the hospital
+     * @param nurses nurses of the hospital
+     * @param wards medical wards of the hospital
+     */
+    public Hospital(DoctorScheduler scheduler, Random random, List<Doctor> doctors, List<Nurse> nurses, List<MedicalWard> wards) {
+        this(null, scheduler, random, doctors, nurses, wards.toArray(new MedicalWard[0]));
+    }
+
+    /**
+     * Constructor
+     * Creates predefined number of doctors with random names and specifications, if there are no given doctors
+     * Creates predefined numbers of nurses, if there are no given nurses
+     * Creates 3 wards, if there are no given wards, and assign nurses to them
+     * Creates scheduler if there is no given one
+     */
+    private Hospital(SchedulerMode mode, DoctorScheduler scheduler, Random random, List<Doctor> doctors, List<Nurse> nurses, MedicalWard[] wards) {
+        this.random = random;
         // creating random doctors
-        for (int i = 0; i < DOCTORS_NUMBER; i++) {
-            Doctor doc = new Doctor(doctorsNames[i % DOCTORS_NUMBER]);   // create a new doctor
+        if (doctors == null) {
+            doctors = new ArrayList<>();
+            for (int i = 0; i < DOCTORS_NUMBER; i++) {
+                doctors.add(new Doctor(doctorsNames[i % DOCTORS_NUMBER], random));   // create a new doctor
+            }
+        }
+        for (Doctor doc : doctors) {
             ArrayList<Doctor> newDoctorsList = doctorsList.get(doc.getSpecialization());    //create an array list with all doctors with same specialization
             if (newDoctorsList == null) {   // if list is null create a new one
                 newDoctorsList = new ArrayList<>();
@@ -61,144 +184,995 @@ public class Hospital implements Runnable {
             newDoctorsList.add(doc);    // add doctor to new list of existing doctors
             doctorsList.put(doc.getSpecialization(), newDoctorsList);   // replace the list with new one
         }
+        // every doctor is free at the beginning
+        for (Specialization specialization : Specialization.values()) {
+            waitingPatients.put(specialization, new TriageQueue(this::now));
+            freeDoctors.put(specialization, new ConcurrentLinkedQueue<>(doctorsList.getOrDefault(specialization, new ArrayList<>())));
+            for (Doctor doctor : freeDoctors.get(specialization)) {
+                doctor.tryEnqueue();    // every doctor has one entry in the queue, taken with the flag of the doctor
+            }
+        }
         // creating random nurses
-        for (int i = 0; i < NURSE_NUMBER; i++) {
-            nursesList.add(new Nurse(nursesNames[i]));
+        if (nurses == null) {
+            for (int i = 0; i < NURSE_NUMBER; i++) {
+                nursesList.add(new Nurse(nursesNames[i], random));
+            }
+        } else {
+            nursesList.addAll(nurses);
         }
         // create 3 different medical wards, one for every specialization
-        medicalWards[0] = new MedicalWard(Specialization.ORTHOPEDY, 10, 3);
-        medicalWards[1] = new MedicalWard(Specialization.CARDIOLOGY, 10, 3);
-        medicalWards[2] = new MedicalWard(Specialization.VIROLOGY, 10, 3);
+        if (wards == null) {
+            wards = new MedicalWard[3];
+            wards[0] = new MedicalWard(Specialization.ORTHOPEDY, 10, 3);
+            wards[1] = new MedicalWard(Specialization.CARDIOLOGY, 10, 3);
+            wards[2] = new MedicalWard(Specialization.VIROLOGY, 10, 3);
+        }
+        medicalWards = wards;
+        EnumMap<Specialization, ArrayList<MedicalWard>> wardLists = new EnumMap<>(Specialization.class);
+        for (MedicalWard mw : medicalWards) {
+            wardLists.computeIfAbsent(mw.getSpecialization(), spec -> new ArrayList<>()).add(mw);
+        }
+        for (Specialization specialization : wardLists.keySet()) {
+            wardsBySpec.put(specialization, wardLists.get(specialization).toArray(new MedicalWard[0]));
+            wardCursors.put(specialization, new AtomicInteger());
+        }
 
         assignNursesToWards();
+        setEventSink(AsyncEventSink.toConsole());
+        dayCycle = new DayCycle(medicalWards, Math.min(medicalWards.length, Runtime.getRuntime().availableProcessors()));
+
+        if (scheduler == null) {
+            EnumMap<Specialization, Integer> concurrency = new EnumMap<>(Specialization.class);  // number of doctors for every specialization
+            for (Specialization specialization : doctorsList.keySet()) {
+                concurrency.put(specialization, doctorsList.get(specialization).size());
+            }
+            scheduler = DoctorScheduler.create(mode == null ? SchedulerMode.PLATFORM_POOL : mode, concurrency);
+        }
+        this.scheduler = scheduler;
     }
 
     /**
-     * Every patient that is waiting for an examination is added to queue, and calling method for examination.
+     * Every patient that is waiting for an examination is added to the queue of his specialization, and a free doctor is searched for him.
+     * In the absence of a doctor for the given complaint, the patient is discharged from the hospital.
      *
      * @param patient patient for examination.
      */
     public void enterHospital(Patient patient) {
-        waitingPatients.add(patient);
-        examinePatients();
+        HospitalMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.arrival(1);
+        }
+        if (!doctorsList.containsKey(patient.getSpec())) {  // if there's no doctor for this specification take out the patient from hospital
+            events.noDoctor(patient);
+            if (metrics != null) {
+                metrics.noDoctor();
+            }
+            return;
+        }
+        HospitalJournal journal = this.journal;
+        if (journal != null) {  // written before the patient can be examined and admitted
+            journal.arrival(patient);
+        }
+        waitingPatients.get(patient.getSpec()).add(patient);
+        examinePatients(patient.getSpec());
     }
 
     /**
-     * Each patient who is on the patient waiting list is processed and assigned a doctor according to his complaints.
-     * If there is a free doctor, an examination is started. If there is no available doctor, the patient is returned to the waiting queue.
-     * In the absence of a doctor for the given complaint, the patient is discharged from the hospital.
-     * In the absence of free beds, the patient is discharged from the hospital.
+     * Admits a group of patients who arrive at the same time. Patients are grouped by specialization, and for every specialization
+     * the patients waiting from before are examined first, then free doctors are claimed for the new patients at once,
+     * the patients who got a doctor are put in the ward with one call and the others are added to the waiting queue.
+     *
+     * @param patients patients entering the hospital, in order of arrival
+     * @return outcome for every patient at the time of the call, in the order of the list
+     */
+    public AdmissionOutcome[] enterHospital(List<Patient> patients) {
+        AdmissionOutcome[] outcomes = new AdmissionOutcome[patients.size()];
+        HospitalMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.arrival(patients.size());
+        }
+        Specialization[] specs = Specialization.values();
+        int[] counts = new int[specs.length];   // number of patients of every specialization
+        for (Patient patient : patients) {
+            counts[patient.getSpec().ordinal()]++;
+        }
+        for (Specialization specialization : specs) {
+            int count = counts[specialization.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            ArrayList<Patient> group = new ArrayList<>(count);  // patients of the specialization
+            int[] indexes = new int[count];     // their indexes in the list
+            for (int i = 0; i < outcomes.length; i++) {
+                Patient patient = patients.get(i);
+                if (patient.getSpec() != specialization) {
+                    continue;
+                }
+                if (!doctorsList.containsKey(specialization)) {  // if there's no doctor for this specification take out the patient from hospital
+                    events.noDoctor(patient);
+                    if (metrics != null) {
+                        metrics.noDoctor();
+                    }
+                    outcomes[i] = AdmissionOutcome.REJECTED;
+                    continue;
+                }
+                indexes[group.size()] = i;
+                group.add(patient);
+            }
+            if (!group.isEmpty()) {
+                enterHospital(specialization, group, indexes, outcomes);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Admits patients of one specialization who arrive at the same time. More severe patients get the free doctors first.
+     *
+     * @param specialization specialization of the patients
+     * @param patients patients in order of arrival
+     * @param indexes index of every patient in the list given to the hospital
+     * @param outcomes outcomes for the whole list
+     */
+    private void enterHospital(Specialization specialization, ArrayList<Patient> patients, int[] indexes, AdmissionOutcome[] outcomes) {
+        TriageQueue waiting = waitingPatients.get(specialization);
+        HospitalJournal journal = this.journal;
+        if (journal != null) {  // every patient is written as arrived, also those examined without waiting
+            for (Patient patient : patients) {
+                journal.arrival(patient);
+            }
+        }
+        sortBySeverity(patients, indexes);
+        examinePatients(specialization);    // patients waiting from before are examined first
+        ArrayList<Doctor> doctors = new ArrayList<>();
+        while (waiting.isEmpty() && doctors.size() < patients.size()) {  // claim a doctor for every new patient if possible
+            Doctor doctor = pollFreeDoctor(specialization);
+            if (doctor == null) {
+                break;
+            }
+            if (doctor.tryClaim()) {    // doctor taken for visitation returns to the queue when he finishes
+                doctors.add(doctor);
+            }
+        }
+
+        List<Patient> examined = patients.subList(0, doctors.size());
+        int[] days = new int[examined.size()];  // days of treatment are decided before the placement, so the ward can use them
+        for (int i = 0; i < days.length; i++) {
+            days[i] = getTreatmentDays(examined.get(i));
+        }
+        boolean[] admitted = admitToWards(specialization, examined, days, doctors);
+        for (int i = 0; i < examined.size(); i++) {
+            waiting.getWaitTimes(examined.get(i).getSeverity()).record(0);  // examined without waiting
+            scheduler.submit(specialization, new Examination(doctors.get(i), examined.get(i), this));
+            if (admitted[i]) {
+                outcomes[indexes[i]] = AdmissionOutcome.ADMITTED;
+            } else {    // if no available bed remove patient from hospital
+                noBed(examined.get(i));
+                outcomes[indexes[i]] = AdmissionOutcome.REJECTED;
+            }
+        }
+        for (int i = examined.size(); i < patients.size(); i++) {
+            outcomes[indexes[i]] = AdmissionOutcome.WAITING;
+        }
+        waiting.addAll(patients.subList(examined.size(), patients.size()));
+        examinePatients(specialization);    // a doctor who finished in the meantime takes the waiting patients
+    }
+
+    /**
+     * Orders the patients from the most to the least severe, patients of the same severity stay in order of arrival.
+     *
+     * @param patients patients
+     * @param indexes index of every patient, ordered together with the patients
+     */
+    private static void sortBySeverity(ArrayList<Patient> patients, int[] indexes) {
+        Severity[] severities = Severity.values();
+        int[] starts = new int[severities.length + 1];  // first place of every severity
+        for (Patient patient : patients) {
+            starts[patient.getSeverity().ordinal() + 1]++;
+        }
+        if (starts[Severity.STANDARD.ordinal() + 1] == patients.size()) {   // all patients are standard, nothing to order
+            return;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        Patient[] sorted = new Patient[patients.size()];
+        int[] sortedIndexes = new int[patients.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            int place = starts[patients.get(i).getSeverity().ordinal()]++;
+            sorted[place] = patients.get(i);
+            sortedIndexes[place] = indexes[i];
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            patients.set(i, sorted[i]);
+        }
+        System.arraycopy(sortedIndexes, 0, indexes, 0, sortedIndexes.length);
+    }
+
+    /**
+     * Examines waiting patients of every specialization while there are free doctors.
      */
     public void examinePatients() {
-        if (waitingPatients.isEmpty() || isRunningExamination) {    // if doctor is busy or no waiting patients terminate method
+        for (Specialization specialization : Specialization.values()) {
+            examinePatients(specialization);
+        }
+    }
+
+    /**
+     * Each patient who is waiting for the given specialization is assigned a free doctor, the doctor is claimed atomically.
+     * If there is a free doctor, an examination is started. If there is no available doctor, the patient stays in the queue
+     * and the next doctor who finishes his work will take him.
+     * In the absence of free beds, the patient is discharged from the hospital.
+     * Some of the passes that find waiting patients are timed in the metrics.
+     *
+     * @param specialization specialization of patients and doctors
+     */
+    private void examinePatients(Specialization specialization) {
+        TriageQueue patients = waitingPatients.get(specialization);
+        if (patients.isEmpty()) {
             return;
         }
-        isRunningExamination = true;
-        Queue<Patient> newWaitingPatients = new ConcurrentLinkedQueue<>();  // new list of waiting patients who have not been accepted by a doctor
-
-        while (!waitingPatients.isEmpty()) {    // while there is waiting patients
-            Patient patient = waitingPatients.poll();   // take the first patient end remove it from list of waiting patients
-            ArrayList<Doctor> doctors = doctorsList.get(patient.getSpec()); // take list of doctors with same specification patient needed
-            if (doctors == null) {  // if there's no doctor for this specification take out the patient from hospital
-                System.out.println("No doctor for this specialization!");
-            } else {    // if there is a doctor
-                boolean flag = false;   // flag if patient is examined by doctor
-                for (Doctor doctor : doctors) { // for every doctor in the list of doctors
-                    if (doctor.isFree()) {  // if doctor is free
-                        doctor.setFree(false);  // set doctor to busy
-                        Examination examination = new Examination(doctor, patient, this); // creates new examination thread
-                        examination.start();    // start examination thread
-
-                        // Add patient to a medical ward
-                        for (MedicalWard mw : medicalWards) {
-                            // check that the medical ward has the same specialty as the patient
-                            if (mw.getSpecialization() == patient.getSpec()) {
-                                // checks for an available bed and if available admits the patient
-                                if (!mw.addPatient(patient)) {  // if no available bed remove patient from hospital
-                                    System.out.println("There is no available bed for patient: " + patient);
-                                    patient.setDaysOfTreatment(0);
-                                } else {     // if patient accepted in ward add it to patient list for every doctor
-                                    ArrayList<Patient> newPatientsList = patientsList.get(doctor);  // take doctor's current list of patients
-
-                                    if (newPatientsList == null) {   // if list is null create new one
-                                        newPatientsList = new ArrayList<>();
-                                    }
-                                    newPatientsList.add(patient);   // add patient to the new list
-                                    patientsList.put(doctor, newPatientsList);  // add the list to the doctor
-                                }
-                                break;
-                            }
-                        }
-
-                        flag = true;    // patient was examined by doctor
-                        break;
-                    }
+        HospitalMetrics metrics = this.metrics;
+        if (metrics != null && !metrics.timeExaminePass()) {
+            metrics = null;
+        }
+        long start = metrics != null ? System.nanoTime() : 0;
+        while (!patients.isEmpty()) {   // while there is waiting patients
+            Doctor doctor = pollFreeDoctor(specialization);
+            if (doctor == null) {   // all doctors are busy, the next one who finishes will take the patient
+                break;
+            }
+            if (!doctor.tryClaim()) {   // doctor was taken for visitation, he returns to the queue when he finishes
+                continue;
+            }
+            Patient patient = patients.poll();  // take the first patient end remove it from list of waiting patients
+            if (patient == null) {  // other doctor took the last patient, return doctor to the queue and check again
+                doctor.release();
+                offerFreeDoctor(doctor);
+                continue;
+            }
+            startExamination(doctor, patient);
+        }
+        if (metrics != null) {
+            metrics.examinePass(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Removes the examined patient without a bed from the hospital and gives him to the overflow, if there is one.
+     */
+    private void noBed(Patient patient) {
+        events.noBed(patient);
+        HospitalJournal journal = this.journal;
+        if (journal != null) {
+            journal.leaving(patient);
+        }
+        HospitalMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.noBed();
+        }
+        Consumer<Patient> overflow = this.overflow;
+        if (overflow != null) {
+            overflow.accept(patient);
+        }
+    }
+
+    /**
+     * Puts the patient in a ward of his specialization with a free bed and in the list of his doctor.
+     * The search starts from the ward that took the last patient of the specialization, so with many wards
+     * the patient usually gets a bed in the first tried ward.
+     *
+     * @param patient patient
+     * @param daysOfTreatment days of treatment decided by the doctor
+     * @param doctor attending doctor
+     * @return true if the patient got a bed
+     */
+    private boolean admitToWard(Patient patient, int daysOfTreatment, Doctor doctor) {
+        MedicalWard[] wards = wardsBySpec.get(patient.getSpec());
+        if (wards == null) {
+            return false;
+        }
+        AtomicInteger cursor = wardCursors.get(patient.getSpec());
+        int first = cursor.get();
+        for (int i = 0; i < wards.length; i++) {
+            int index = (first + i) % wards.length;
+            MedicalWard mw = wards[index];
+            if (mw.getFreeBeds() == 0) {
+                continue;
+            }
+            // the admission is written in the journal while the room is locked, before the ward starts the next day
+            if (!mw.addPatient(patient, daysOfTreatment, p -> attendPatient(mw, doctor, p))) {  // free beds are in rooms of the other sex
+                continue;
+            }
+            cursor.set(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Puts patients in the wards of their specialization, every ward takes all patients it can with one call.
+     *
+     * @param specialization specialization of the patients
+     * @param patients patients
+     * @param days days of treatment of every patient
+     * @param doctors attending doctor of every patient
+     * @return for every patient true if he got a bed
+     */
+    private boolean[] admitToWards(Specialization specialization, List<Patient> patients, int[] days, List<Doctor> doctors) {
+        boolean[] admitted = new boolean[patients.size()];
+        MedicalWard[] wards = wardsBySpec.get(specialization);
+        if (wards == null) {
+            return admitted;
+        }
+        int[] left = new int[patients.size()];  // indexes of patients without a bed
+        int leftCount = left.length;
+        for (int i = 0; i < leftCount; i++) {
+            left[i] = i;
+        }
+        ArrayList<Patient> group = new ArrayList<>(patients);    // patients without a bed, in the same order as their indexes
+        AtomicInteger cursor = wardCursors.get(specialization);
+        int first = cursor.get();
+        for (int w = 0; w < wards.length && leftCount > 0; w++) {
+            int index = (first + w) % wards.length;
+            MedicalWard mw = wards[index];
+            if (mw.getFreeBeds() == 0) {
+                continue;
+            }
+            int last = -1;  // last patient added to this ward, patients after him are left as they are
+            // the admissions are written in the journal while the ward is locked, before it starts the next day
+            boolean[] added = mw.addPatients(group, i -> days[left[i]], i -> attendPatient(mw, doctors.get(left[i]), group.get(i)));
+            int stillLeft = 0;
+            for (int i = 0; i < leftCount; i++) {
+                if (added[i]) {
+                    admitted[left[i]] = true;
+                    last = i;
                 }
-                if (!flag) {    // if patient is not examined by doctor
-                    newWaitingPatients.add(patient);    // add patient to new list of waiting patients
-//                    System.out.println("Patient: " + patient.getName() + " waiting for a doctor.");
+            }
+            for (int i = 0; i <= last; i++) {
+                if (!added[i]) {
+                    left[stillLeft] = left[i];
+                    group.set(stillLeft++, group.get(i));
                 }
             }
+            if (last >= 0) {
+                System.arraycopy(left, last + 1, left, stillLeft, leftCount - last - 1);
+                group.subList(stillLeft, last + 1).clear();
+                leftCount -= last + 1 - stillLeft;
+            }
+            cursor.set(index);
+        }
+        return admitted;
+    }
+
+    /**
+     * Adds the patient accepted in the ward to the list of his doctor and writes the admission in the journal.
+     * Called by the ward inside the change of the room of the patient, so no census has the patient without his doctor.
+     */
+    private void attendPatient(MedicalWard mw, Doctor doctor, Patient patient) {
+        patient.setAttendingDoctor(doctor);
+        patientsList.computeIfAbsent(doctor, d -> Collections.synchronizedSet(new LinkedHashSet<>())).add(patient);
+        HospitalJournal journal = this.journal;
+        if (journal != null) {
+            journal.admission(mw, doctor, patient);
+        }
+    }
+
+    /**
+     * Changes the days of treatment of the patient in his ward, used when the journal is replayed.
+     *
+     * @param patient examined patient
+     * @param daysOfTreatment days patient to be in hospital
+     */
+    public void startTreatment(Patient patient, int daysOfTreatment) {
+        MedicalWard mw = patient.getWard();
+        if (mw == null) {   // patient did not get a bed or was discharged
+            return;
+        }
+        Doctor doctor = patient.getAttendingDoctor();
+        if (doctor != null && !patientsList.containsKey(doctor)) {  // patient was sent to another hospital and got a bed there
+            return;
+        }
+        HospitalJournal journal = this.journal;
+        // the treatment is written in the journal while the room is locked, before the ward starts the next day
+        mw.setDaysOfTreatment(patient, daysOfTreatment, journal == null ? null : p -> journal.treatment(mw, p));
+    }
+
+    /**
+     * Discharges the patient from his ward before his day of discharge and removes him from the list of his doctor.
+     * The discharge is written in the journal, a patient removed directly from the ward is not.
+     *
+     * @param patient patient in a ward
+     * @return true if the patient was in the ward
+     */
+    public boolean dischargePatient(Patient patient) {
+        MedicalWard mw = patient.getWard();
+        if (mw == null) {
+            return false;
+        }
+        HospitalJournal journal = this.journal;
+        // the discharge is written in the journal and the doctor is cleared inside the change of the room, before the bed is taken again
+        return mw.removePatient(patient, p -> {
+            if (journal != null) {
+                journal.earlyDischarge(mw, p);
+            }
+            leaveDoctor(p);
+        });
+    }
+
+    /**
+     * Removes the patient who left his bed from the list of his doctor and clears his doctor.
+     *
+     * @param patient patient who left the ward
+     */
+    private void leaveDoctor(Patient patient) {
+        Doctor doctor = patient.getAttendingDoctor();
+        if (doctor != null) {
+            Set<Patient> patients = patientsList.get(doctor);
+            if (patients != null) {
+                patients.remove(patient);
+            }
+            patient.setAttendingDoctor(null);
+        }
+    }
+
+    /**
+     * Decides the days of treatment of the patient, admits him to a ward and submits his examination by the claimed doctor.
+     * The days are known before the placement, so a ward that groups the rooms by the day of discharge uses his real day.
+     *
+     * @param doctor doctor claimed by the caller
+     * @param patient patient taken from the waiting queue
+     */
+    private void startExamination(Doctor doctor, Patient patient) {
+        // Add patient to a medical ward with the same specialty as the patient, the examination then decides his medicines
+        boolean admitted = admitToWard(patient, getTreatmentDays(patient), doctor);
+        Examination examination = new Examination(doctor, patient, this); // creates new examination
+        scheduler.submit(doctor.getSpecialization(), examination);    // submit examination to the scheduler
+        if (!admitted) {  // if no available bed remove patient from hospital
+            noBed(patient);
+        }
+    }
+
+    /**
+     * Called when a doctor claimed by the caller finishes his examination or visitation.
+     * If the doctor is in the middle of his round, he examines a severe waiting patient or goes on with the next slice of the round.
+     * Else if there is a pending visitation for the doctor, it is started. Else the doctor is set free and takes the next waiting patient.
+     *
+     * @param doctor doctor who finished his work
+     */
+    public void doctorFinished(Doctor doctor) {
+        VisitationRound round = visitationRounds.get(doctor);
+        if (round != null && !round.isComplete() && continueRound(doctor, round)) {
+            return;
+        }
+        while (!doctor.takeWaitingVisitation()) {
+            doctor.release();
+            // visitation can be requested after the check, when the doctor was still busy
+            if (!doctor.isWaitingVisitation() || !doctor.tryClaim()) {
+                offerFreeDoctor(doctor);
+                examinePatients(doctor.getSpecialization());    // method that examine waiting patients
+                return;
+            }
+        }
+        doctorVisitation(doctor);   // if there is a visitation at the same time run visitation
+    }
+
+    /**
+     * Takes a doctor from the queue of free doctors of the specialization, he is claimed by the caller only if tryClaim() succeeds.
+     * The flag of the entry is cleared before the claim. A doctor released before that finds his flag set and is not added,
+     * but then he is free when the caller claims him. A doctor claimed by someone else at the time of the claim is added
+     * by that one when he finishes, because the flag is already cleared.
+     *
+     * @param specialization specialization of the doctor
+     * @return doctor taken from the queue, null if the queue is empty
+     */
+    private Doctor pollFreeDoctor(Specialization specialization) {
+        Doctor doctor = freeDoctors.get(specialization).poll();
+        if (doctor != null) {
+            doctor.dequeued();  // before the claim, so a doctor who is busy now is put in the queue again when he finishes
         }
-        waitingPatients.addAll(newWaitingPatients);   // add new list of waiting patients to the existing one
-        isRunningExamination = false;
+        return doctor;
     }
 
     /**
-     * Call method for every medical ward to discharge patients with zero days left for treatment
-     * Adds discharged patients to a list and remove patients from doctors lists
+     * Puts a released doctor in the queue of free doctors of his specialization, unless he still has an entry there.
+     * A doctor claimed for a visitation keeps his entry, so he does not get a second one when he finishes.
+     *
+     * @param doctor released doctor
+     */
+    private void offerFreeDoctor(Doctor doctor) {
+        if (doctor.tryEnqueue()) {
+            freeDoctors.get(doctor.getSpecialization()).add(doctor);
+        }
+    }
+
+    /**
+     * Returns the census of all wards at their current versions. The census is made again only when some ward has changed,
+     * so many threads can query it at a high rate, and it is made without the locks of the wards, so admissions do not wait.
+     *
+     * @return immutable census of the hospital
+     */
+    public HospitalCensus getCensus() {
+        ArrayList<WardCensus> wards = new ArrayList<>(medicalWards.length);
+        for (MedicalWard mw : medicalWards) {
+            wards.add(mw.getCensus());
+        }
+        HospitalCensus last = census;
+        if (last != null && last.isMadeOf(wards)) {
+            return last;
+        }
+        HospitalCensus copy = new HospitalCensus(wards, getDoctors(), workingDays);
+        if (last == null || last.getVersion() < copy.getVersion()) {
+            census = copy;
+        }
+        return copy;
+    }
+
+    /**
+     * Query of the patients in the current census, for example
+     * {@code query().specialization(CARDIOLOGY).gender(FEMALE).age(30, 50).daysRemaining(1, 2).count()}.
+     *
+     * @return query of all patients in the wards
+     */
+    public PatientQuery query() {
+        return getCensus().query();
+    }
+
+    /**
+     * @return number of patients waiting for examination
+     */
+    public int getWaitingPatientsCount() {
+        int count = 0;
+        for (TriageQueue patients : waitingPatients.values()) {
+            count += patients.size();
+        }
+        return count;
+    }
+
+    /**
+     * Call method for every medical ward to discharge patients with zero days left for treatment, wards are processed in parallel
+     * Adds discharged patients to a list and remove patients from the list of their attending doctor,
+     * inside the change of their ward, so no census has a discharged patient still in the list of his doctor
      */
     public void patientsDischarge() {
-        ArrayList<Patient> dischargedPatients = new ArrayList<>();  // list for discharged patients
-        for (MedicalWard mw : medicalWards) {   // for every medical ward discharge patients and add it to a list
-            dischargedPatients.addAll(mw.patientDischarge());
+        ArrayList<Patient> dischargedPatients = dayCycle.patientsDischarge(this::leaveDoctor);  // list for discharged patients from all wards
+        HospitalMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.discharges(dischargedPatients.size());
+        }
+        HospitalJournal journal = this.journal;
+        if (journal != null) {
+            journal.day(medicalWards[0].getCurrentDay());
         }
+    }
 
-        for (Patient patient : dischargedPatients) {    // for every patient in discharged list
-            for (ArrayList<Patient> patients : patientsList.values()) { // each doctor's patient list
-                if (patients.contains(patient)) {   // if the patient is present in the doctor's list
-                    patients.remove(patient);   // remove it from list
-//                    System.out.println("Removed patient: " + patient.getName());
-                    break;
+    /**
+     * Calls patientTakingPills method for every medical ward, wards are processed in parallel
+     */
+    public void patientsTakingPills() {
+        dayCycle.patientsTakingPills();
+    }
+
+    /**
+     * Sets the flag for waiting visitation for each doctor and starts the visitation if the doctor is free,
+     * if he is busy the visitation starts when he finishes
+     */
+    public void patientsVisitation() {
+        for (ArrayList<Doctor> doctors : doctorsList.values()) {    // doctors are taken always in the same order
+            for (Doctor doctor : doctors) {
+                if (!patientsList.containsKey(doctor)) {    // Each doctor with patients list
+                    continue;
+                }
+                doctor.setWaitingVisitation(true);
+                if (doctor.tryClaim()) {    // check if doctor is free and set him to busy
+                    doctorFinished(doctor);     // starts the visitation, if it is not started by other thread
                 }
             }
         }
+    }
 
+    /**
+     * Starts the round of a doctor and submits visitation of its first slice to the scheduler
+     *
+     * @param doctor Doctor
+     */
+    public void doctorVisitation(Doctor doctor) {
+        Set<Patient> patients = patientsList.get(doctor);
+        VisitationRound round;
+        synchronized (patients) {   // copy patients while no one is admitted or discharged
+            round = new VisitationRound(doctor, patients, visitationSlice, now());
+        }
+        visitationRounds.put(doctor, round);
+        Specialization specialization = doctor.getSpecialization();
+        scheduler.submit(specialization, round.nextSlice(this, !waitingPatients.get(specialization).isEmpty()));
     }
 
     /**
-     * Calls patientTakingPills method for every medical ward
+     * Gives the claimed doctor the next work of his round: one severe waiting patient if the last work was a slice,
+     * else the next slice. Completes the round after the last slice.
+     *
+     * @param doctor doctor claimed by the caller
+     * @param round running round of the doctor
+     * @return true if the doctor got work of the round, false if the round is complete
      */
-    public void patientsTakingPills() {
+    private boolean continueRound(Doctor doctor, VisitationRound round) {
+        long now = now();
+        round.workFinished(now);
+        if (!round.hasNextSlice()) {
+            round.complete(now);
+            HospitalMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.visitationRound(round);
+            }
+            return false;
+        }
+        Specialization specialization = doctor.getSpecialization();
+        TriageQueue patients = waitingPatients.get(specialization);
+        Severity preemption = visitationPreemption;
+        if (preemption != null && round.canPreempt()) {
+            Patient patient = patients.poll(preemption);
+            if (patient != null) {
+                round.preempted();
+                startExamination(doctor, patient);
+                return true;
+            }
+        }
+        scheduler.submit(specialization, round.nextSlice(this, !patients.isEmpty()));
+        return true;
+    }
+
+    /**
+     * Stops the scheduler of examinations and visitations and the threads of the wards.
+     * Waits for already started examinations and visitations and writes all events.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        dayCycle.shutdown();
+        scheduler.awaitTermination(SHUTDOWN_TIMEOUT);
+        events.close();
+    }
+
+    /**
+     * Sets the receiver of all events of the hospital and its wards. The previous receiver is closed.
+     *
+     * @param events sink for the events, EventSink.noOp() to ignore them
+     */
+    public void setEventSink(EventSink events) {
+        EventSink previous = this.events;
+        this.events = events;
         for (MedicalWard mw : medicalWards) {
-            mw.patientsTakingPills();
+            mw.setEventSink(events);
         }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public EventSink getEventSink() {
+        return events;
     }
 
     /**
-     * Calls doctorVisitation for each doctor, if he is busy set the flag for waiting visitation to true
+     * Sets the journal that receives admissions, treatments and days, usually opened right after a snapshot.
+     * The previous journal is not closed.
+     *
+     * @param journal journal, null to stop writing
      */
-    public void patientsVisitation() {
-        for (Doctor doctor : patientsList.keySet()) {   // Each doctor with patients list
-            if (doctor.isFree()) {  // check if doctor is free
-                doctor.setFree(false);  // set doctor to busy
-                doctorVisitation(doctor);
+    public void setJournal(HospitalJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets the receiver of examined patients who did not get a bed, for example a network that sends them to another hospital.
+     * It is called on the thread that examined the patient, so it must not block.
+     *
+     * @param overflow receiver of patients without a bed, null if they leave the hospital
+     */
+    public void setOverflow(Consumer<Patient> overflow) {
+        this.overflow = overflow;
+    }
+
+    /**
+     * Splits the rounds of the doctors in slices. Between two slices a doctor examines the next waiting patient of his specialization,
+     * if he is at least as severe as the given severity, and goes on with his round after the examination.
+     * By default a round is one slice and is never interrupted. Rounds that are already running are not changed.
+     *
+     * @param visitsPerSlice most visits in one slice
+     * @param preemption least severity of patients examined between the slices, null if rounds are not interrupted
+     */
+    public void setVisitationSlices(int visitsPerSlice, Severity preemption) {
+        if (visitsPerSlice < 1) {
+            throw new IllegalArgumentException("Visits per slice must be positive: " + visitsPerSlice);
+        }
+        visitationSlice = visitsPerSlice;
+        visitationPreemption = preemption;
+    }
+
+    /**
+     * @param doctor doctor of the hospital
+     * @return running or last round of the doctor, null if he had no round
+     */
+    public VisitationRound getVisitationRound(Doctor doctor) {
+        return visitationRounds.get(doctor);
+    }
+
+    /**
+     * Sets how the doctors decide the days of treatment when they take a patient, used by load tests with other lengths of stay.
+     * The days are decided before the patient is placed in a ward.
+     *
+     * @param treatmentDays gives days of treatment for a patient taken by a doctor, null for 3 to 5 random days
+     */
+    public void setTreatmentDays(ToIntFunction<Patient> treatmentDays) {
+        this.treatmentDays = treatmentDays;
+    }
+
+    /**
+     * @param patient patient taken by a doctor, before his placement
+     * @return days of treatment decided by the doctor
+     */
+    public int getTreatmentDays(Patient patient) {
+        ToIntFunction<Patient> treatmentDays = this.treatmentDays;
+        if (treatmentDays == null) {
+            return random.nextInt(3) + 3;   // random days for treatment
+        }
+        return treatmentDays.applyAsInt(patient);
+    }
+
+    /**
+     * Sets duration of examinations and visits, used to run the hospital faster than in real time.
+     *
+     * @param examinationTime duration of one examination in milliseconds
+     * @param visitationTime duration of one visit in milliseconds
+     */
+    public void setConsultationTime(long examinationTime, long visitationTime) {
+        this.examinationTime = examinationTime;
+        this.visitationTime = visitationTime;
+    }
+
+    /**
+     * Sets number of wards processed at the same time in the day cycle, with one the wards are processed on the thread of the day.
+     *
+     * @param parallelism number of wards processed at the same time
+     */
+    public void setWardParallelism(int parallelism) {
+        DayCycle previous = dayCycle;
+        dayCycle = new DayCycle(medicalWards, parallelism);
+        previous.shutdown();
+    }
+
+    /**
+     * @return random generator of the hospital, shared by all examinations
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    public long getExaminationTime() {
+        return examinationTime;
+    }
+
+    public long getVisitationTime() {
+        return visitationTime;
+    }
+
+    /**
+     * @return current time of the scheduler in milliseconds, virtual in a simulation
+     */
+    public long now() {
+        return scheduler.now();
+    }
+
+    /**
+     * @return counters and histograms of the work of the hospital, null if they are turned off
+     */
+    public HospitalMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Turns on the metrics of the hospital, they start counting from zero. Metrics are off by default,
+     * because counting on the hot paths costs time that a hospital without a reader of the metrics does not need.
+     *
+     * @return new metrics of the hospital
+     */
+    public HospitalMetrics enableMetrics() {
+        HospitalMetrics metrics = new HospitalMetrics(getDoctors(), now());
+        this.metrics = metrics;
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics of the hospital, new metrics start counting from zero.
+     *
+     * @param metrics metrics, null to turn them off
+     */
+    public void setMetrics(HospitalMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return snapshot of the metrics and the occupancy of the wards as JSON, null if the metrics are turned off
+     */
+    public String getMetricsJson() {
+        HospitalMetrics metrics = this.metrics;
+        return metrics == null ? null : metrics.toJson(this, now());
+    }
+
+    /**
+     * @param specialization specialization of the patients
+     * @param severity severity of the patients
+     * @return times in milliseconds that the examined patients of the specialization and severity waited for a doctor
+     */
+    public Histogram getWaitTimes(Specialization specialization, Severity severity) {
+        return waitingPatients.get(specialization).getWaitTimes(severity);
+    }
+
+    /**
+     * @param severity severity of the patients
+     * @return new histogram of the times in milliseconds that the examined patients of the severity waited for a doctor
+     */
+    public Histogram getWaitTimes(Severity severity) {
+        Histogram waitTimes = new Histogram();
+        for (TriageQueue queue : waitingPatients.values()) {
+            waitTimes.add(queue.getWaitTimes(severity));
+        }
+        return waitTimes;
+    }
+
+    /**
+     * @return all doctors, in order of specialization
+     */
+    public List<Doctor> getDoctors() {
+        ArrayList<Doctor> doctors = new ArrayList<>();
+        for (ArrayList<Doctor> list : doctorsList.values()) {
+            doctors.addAll(list);
+        }
+        return doctors;
+    }
+
+    public List<Nurse> getNurses() {
+        return Collections.unmodifiableList(nursesList);
+    }
+
+    public List<MedicalWard> getWards() {
+        return Collections.unmodifiableList(Arrays.asList(medicalWards));
+    }
+
+    /**
+     * @param doctor doctor
+     * @return copy of the patients of the doctor in order of admission
+     */
+    public List<Patient> getPatients(Doctor doctor) {
+        Set<Patient> patients = patientsList.get(doctor);
+        if (patients == null) {
+            return new ArrayList<>();
+        }
+        synchronized (patients) {
+            return new ArrayList<>(patients);
+        }
+    }
+
+    /**
+     * @return copy of the patients waiting for examination, in order of specialization and examination
+     */
+    public List<Patient> getWaitingPatients() {
+        ArrayList<Patient> patients = new ArrayList<>();
+        for (TriageQueue queue : waitingPatients.values()) {
+            patients.addAll(queue.toList());
+        }
+        return patients;
+    }
+
+    public int getWorkingDays() {
+        return workingDays;
+    }
 
+    /**
+     * Sets the number of the next day, used when a saved hospital is loaded.
+     *
+     * @param workingDays number of the next working day
+     */
+    public void setWorkingDays(int workingDays) {
+        this.workingDays = workingDays;
+    }
+
+    /**
+     * Puts a patient of a saved hospital in his ward, in the room and the bed written in his data, and in the list of his doctor.
+     *
+     * @param patient patient with room, bed and day of discharge
+     * @param doctor attending doctor, null if the patient has no doctor
+     * @param mw ward of the hospital
+     * @return true if the patient is restored, false if his bed can not be taken
+     */
+    public boolean restorePatient(Patient patient, Doctor doctor, MedicalWard mw) {
+        if (!mw.restorePatient(patient)) {
+            return false;
+        }
+        patient.setAttendingDoctor(doctor);
+        if (patient.getMedications() == null) {    // plan is not saved, the same plan is made again
+            patient.setMedications(Medication.plan(patient));
+        }
+        if (doctor != null) {
+            patientsList.computeIfAbsent(doctor, d -> Collections.synchronizedSet(new LinkedHashSet<>())).add(patient);
+        }
+        return true;
+    }
+
+    /**
+     * Puts the patients of a saved hospital in their wards and in the lists of their doctors, like restorePatient for every patient.
+     * Used when a hospital is loaded, before it is used by other threads: every ward takes its patients without the locks,
+     * and the list of every doctor is made once with all his patients.
+     *
+     * @param patients patients in order of admission, with room, bed, day of discharge and attending doctor, null for none
+     * @param wards index of the ward of every patient in the list of wards
+     * @return null if all patients are restored, else the first patient whose bed can not be taken
+     */
+    public Patient restorePatients(List<Patient> patients, int[] wards) {
+        int[] counts = new int[medicalWards.length];
+        for (int i = 0; i < patients.size(); i++) {
+            counts[wards[i]]++;
+        }
+        ArrayList<ArrayList<Patient>> wardPatients = new ArrayList<>(medicalWards.length);
+        for (int count : counts) {
+            wardPatients.add(new ArrayList<>(count));
+        }
+        for (int i = 0; i < patients.size(); i++) {
+            wardPatients.get(wards[i]).add(patients.get(i));
+        }
+        for (int w = 0; w < medicalWards.length; w++) {
+            int restored = medicalWards[w].restorePatients(wardPatients.get(w));
+            if (restored < wardPatients.get(w).size()) {
+                return wardPatients.get(w).get(restored);
+            }
+        }
+
+        IdentityHashMap<Doctor, int[]> doctorCounts = new IdentityHashMap<>();
+        for (Patient patient : patients) {
+            if (patient.getAttendingDoctor() != null) {
+                doctorCounts.computeIfAbsent(patient.getAttendingDoctor(), d -> new int[1])[0]++;
+            }
+        }
+        IdentityHashMap<Doctor, LinkedHashSet<Patient>> doctorPatients = new IdentityHashMap<>();
+        for (Map.Entry<Doctor, int[]> entry : doctorCounts.entrySet()) {
+            doctorPatients.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()[0] * 4 / 3 + 1));
+        }
+        for (Patient patient : patients) {
+            if (patient.getMedications() == null) {    // plan is not saved, the same plan is made again
+                patient.setMedications(Medication.plan(patient));
+            }
+            if (patient.getAttendingDoctor() != null) {
+                doctorPatients.get(patient.getAttendingDoctor()).add(patient);
+            }
+        }
+        for (Map.Entry<Doctor, LinkedHashSet<Patient>> entry : doctorPatients.entrySet()) {
+            Set<Patient> list = patientsList.get(entry.getKey());
+            if (list == null) {
+                patientsList.put(entry.getKey(), Collections.synchronizedSet(entry.getValue()));
             } else {
-                doctor.setWaitingVisitation(true);
+                list.addAll(entry.getValue());
             }
         }
+        return null;
+    }
 
+    /**
+     * Puts a patient of a saved hospital at the end of the waiting queue, without starting an examination.
+     * Examinations of the restored patients start with examinePatients().
+     *
+     * @param patient patient waiting for examination
+     */
+    public void restoreWaitingPatient(Patient patient) {
+        waitingPatients.get(patient.getSpec()).add(patient);
     }
 
     /**
-     * Starts visitation thread for a doctor
+     * Removes a patient from the waiting queue, used when the journal of a saved hospital is replayed.
      *
-     * @param doctor Doctor
+     * @param patient waiting patient
+     * @return true if the patient was waiting
      */
-    public void doctorVisitation(Doctor doctor) {
-        Visitation visitation = new Visitation(doctor, patientsList.get(doctor), this);
-        visitation.start();
+    public boolean removeWaitingPatient(Patient patient) {
+        return waitingPatients.get(patient.getSpec()).remove(patient);
     }
 
     /**
@@ -207,17 +1181,120 @@ public class Hospital implements Runnable {
     private void assignNursesToWards() {
         int count = 0;
         for (Nurse nurse : nursesList) {
-            medicalWards[count % 3].assignNewNurse(nurse);
+            medicalWards[count % medicalWards.length].assignNewNurse(nurse);
             count++;
         }
     }
 
+    /**
+     * @param specialization specialization of the wards
+     * @return wards of the specialization, empty array if there are no such wards
+     */
+    private MedicalWard[] getWards(Specialization specialization) {
+        return wardsBySpec.getOrDefault(specialization, new MedicalWard[0]);
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @return number of free beds in the wards of the specialization
+     */
+    public int getFreeBeds(Specialization specialization) {
+        int count = 0;
+        for (MedicalWard mw : getWards(specialization)) {
+            count += mw.getFreeBeds();
+        }
+        return count;
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @param gender gender of the patient
+     * @return number of free beds in the wards of the specialization that a patient of the gender can take
+     */
+    public int getFreeBeds(Specialization specialization, Gender gender) {
+        int count = 0;
+        for (MedicalWard mw : getWards(specialization)) {
+            count += mw.getFreeBeds(gender);
+        }
+        return count;
+    }
+
+    /**
+     * @return number of free beds in the hospital
+     */
+    public int getFreeBeds() {
+        int count = 0;
+        for (MedicalWard mw : medicalWards) {
+            count += mw.getFreeBeds();
+        }
+        return count;
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @return number of occupied beds in the wards of the specialization
+     */
+    public int getOccupiedBeds(Specialization specialization) {
+        int count = 0;
+        for (MedicalWard mw : getWards(specialization)) {
+            count += mw.getOccupiedBeds();
+        }
+        return count;
+    }
+
+    /**
+     * @param gender gender of patients
+     * @return number of beds in the hospital occupied by patients of the gender
+     */
+    public int getOccupiedBeds(Gender gender) {
+        int count = 0;
+        for (MedicalWard mw : medicalWards) {
+            count += mw.getOccupiedBeds(gender);
+        }
+        return count;
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @return patients in the wards of the specialization to be discharged next day
+     */
+    public List<Patient> getPatientsForDischargingNextDay(Specialization specialization) {
+        ArrayList<Patient> patients = new ArrayList<>();
+        for (MedicalWard mw : getWards(specialization)) {
+            patients.addAll(mw.getPatientsForDischargingNextDay());
+        }
+        return patients;
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @return number of patients in the wards of the specialization discharged in each of the next days, index 0 are the patients discharged next day
+     */
+    public int[] getDischargeHistogram(Specialization specialization) {
+        int[] histogram = new int[0];
+        for (MedicalWard mw : getWards(specialization)) {
+            int[] wardHistogram = mw.getDischargeHistogram();
+            if (histogram.length == 0) {
+                histogram = wardHistogram;
+                continue;
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += wardHistogram[i];
+            }
+        }
+        return histogram;
+    }
+
     /**
      * Shows list of patients to be discharged next day
      */
     public void showPatientsForDischargingNextDay() {
         for (MedicalWard mw : medicalWards) {
-            System.out.println("Ward " + mw.getSpecialization() + " have " + mw.getPatientsForDischargingNextDay() + " patients for discharge next day.");
+            List<Patient> patients = mw.getPatientsForDischargingNextDay();
+            System.out.println("Ward " + mw.getSpecialization() + " have " + patients.size() + " patients for discharge next day.");
+            for (Patient patient : patients) {
+                System.out.println("    patient: " + patient.getName());
+            }
         }
     }
 
@@ -237,9 +1314,65 @@ public class Hospital implements Runnable {
      */
     public void showPatients() {
         for (Doctor doctor : patientsList.keySet()) {   // for every doctor with patients
-            System.out.println("Dr. " + doctor.getName() + " have " + patientsList.get(doctor).size() + " patients.");
-            for (Patient patient : patientsList.get(doctor)) {
-                System.out.println("    patient: " + patient.getName());
+            Set<Patient> patients = patientsList.get(doctor);
+            synchronized (patients) {
+                System.out.println("Dr. " + doctor.getName() + " have " + patients.size() + " patients.");
+                for (Patient patient : patients) {
+                    System.out.println("    patient: " + patient.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param doctor doctor
+     * @return number of patients of the doctor
+     */
+    public int getPatientsCount(Doctor doctor) {
+        Set<Patient> patients = patientsList.get(doctor);
+        return patients == null ? 0 : patients.size();
+    }
+
+    /**
+     * Shows percentiles of the waiting times of examined patients for every severity
+     */
+    public void showWaitTimes() {
+        for (Severity severity : Severity.values()) {
+            Histogram waitTimes = getWaitTimes(severity);
+            System.out.println(severity + " patients: " + waitTimes.getCount() + " examined, waited p50 " + waitTimes.getPercentile(50)
+                    + " ms, p90 " + waitTimes.getPercentile(90) + " ms, p99 " + waitTimes.getPercentile(99) + " ms, max " + waitTimes.getMax() + " ms.");
+        }
+    }
+
+    /**
+     * Shows the last complete round of every doctor: patients, slices, time of the round, time of the examinations
+     * delayed by the round and the examinations between the slices
+     */
+    public void showVisitationRounds() {
+        for (Doctor doctor : getDoctors()) {
+            VisitationRound round = visitationRounds.get(doctor);
+            if (round == null || !round.isComplete()) {
+                System.out.println("Dr. " + doctor.getName() + " has no complete round.");
+            } else {
+                System.out.println("Dr. " + doctor.getName() + " visited " + round.getPatientsCount() + " patients in " + round.getSlices()
+                        + " slices for " + round.getCompletionTime() + " ms, examinations delayed " + round.getBlockedTime() + " ms, "
+                        + round.getPreemptions() + " examinations between the slices.");
+            }
+        }
+    }
+
+    /**
+     * Shows the last round of medicines in every medical ward: time of the round, patients, doses and doses of the busiest nurse
+     */
+    public void showMedicationRounds() {
+        for (MedicalWard mw : medicalWards) {
+            MedicationRound round = mw.getLastMedicationRound();
+            if (round == null) {
+                System.out.println("Ward " + mw.getSpecialization() + " had no round of medicines.");
+            } else {
+                System.out.printf("Ward %s: %d nurses gave %d medicines to %d patients in %.3f ms, busiest nurse %d medicines.%n",
+                        mw.getSpecialization(), round.getNursesCount(), round.getDoses(), round.getPatients(),
+                        round.getCompletionNanos() / 1e6, round.getMaxDoses());
             }
         }
     }
@@ -255,16 +1388,23 @@ public class Hospital implements Runnable {
 
     @Override
     public void run(){
-        System.out.println("\n----------------------------------------");
-        System.out.println("Work day in hospital: " + workingDays);
-        System.out.println("----------------------------------------");
-        System.out.printf("\nDischarged patients:\n");
+        long start = System.nanoTime();
+        events.dayStarted(workingDays);
+        events.phaseStarted(EventType.DISCHARGE_STARTED);
         patientsDischarge();
-        System.out.printf("\nMedicine time.\n");
+        events.phaseStarted(EventType.MEDICINE_STARTED);
         patientsTakingPills();
-        System.out.printf("\nVisitation time.\n");
+        events.phaseStarted(EventType.VISITATION_STARTED);
         patientsVisitation();
         workingDays ++;
+        HospitalJournal journal = this.journal;
+        if (journal != null) {
+            journal.workingDay(workingDays);
+        }
+        HospitalMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.day(System.nanoTime() - start);
+        }
     }
 
 
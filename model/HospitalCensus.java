@@ -0,0 +1,220 @@
+package Hospital.model;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.CensusBed;
+import Hospital.model.facilities.WardCensus;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Immutable census of a hospital: the census of every ward and the patients of every doctor taken from them.
+ * Every ward census is consistent in itself, the wards are copied one after another, so a patient moved between two wards
+ * while the census was made can be seen in both or in none. The attending doctor of a patient is read when his ward
+ * is copied, the hospital sets and clears the doctor inside the change of the bed, so every patient has the doctor he had
+ * at the version of his ward.
+ * The version is the sum of the versions of the wards, so a census with a bigger version is newer.
+ * The beds of every doctor are indexed when the census is made, other queries stream the wards lazily, see PatientQuery.
+ */
+public final class HospitalCensus {
+    private final List<WardCensus> wards;
+    private final long version;
+    private final int workingDays;
+    private final List<Doctor> doctors;
+    private final Map<Doctor, List<CensusBed>> bedsByDoctor;
+
+    /**
+     * @param wards census of every ward, in order of the wards of the hospital
+     * @param doctors doctors of the hospital
+     * @param workingDays working days of the hospital
+     */
+    HospitalCensus(List<WardCensus> wards, List<Doctor> doctors, int workingDays) {
+        this.wards = Collections.unmodifiableList(new ArrayList<>(wards));
+        this.workingDays = workingDays;
+        this.doctors = Collections.unmodifiableList(new ArrayList<>(doctors));
+        IdentityHashMap<Doctor, ArrayList<CensusBed>> beds = new IdentityHashMap<>();
+        for (Doctor doctor : doctors) {
+            beds.put(doctor, new ArrayList<>());
+        }
+        long sum = 0;
+        for (WardCensus ward : wards) {
+            sum += ward.getVersion();
+            ward.beds().forEach(bed -> {
+                ArrayList<CensusBed> list = beds.get(bed.getDoctor());
+                if (list != null) {
+                    list.add(bed);
+                }
+            });
+        }
+        version = sum;
+        IdentityHashMap<Doctor, List<CensusBed>> unmodifiable = new IdentityHashMap<>();
+        for (Map.Entry<Doctor, ArrayList<CensusBed>> entry : beds.entrySet()) {
+            unmodifiable.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        bedsByDoctor = Collections.unmodifiableMap(unmodifiable);
+    }
+
+    /**
+     * @param wards census of every ward
+     * @return true if the census was made from exactly these ward censuses
+     */
+    boolean isMadeOf(List<WardCensus> wards) {
+        if (wards.size() != this.wards.size()) {
+            return false;
+        }
+        for (int i = 0; i < wards.size(); i++) {
+            if (wards.get(i) != this.wards.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return sum of the versions of the wards
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getWorkingDays() {
+        return workingDays;
+    }
+
+    /**
+     * @return census of every ward in order of the wards of the hospital
+     */
+    public List<WardCensus> getWards() {
+        return wards;
+    }
+
+    /**
+     * @param specialization specialization
+     * @return census of the wards of the specialization
+     */
+    public List<WardCensus> getWards(Specialization specialization) {
+        ArrayList<WardCensus> list = new ArrayList<>();
+        for (WardCensus ward : wards) {
+            if (ward.getSpecialization() == specialization) {
+                list.add(ward);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return doctors of the hospital
+     */
+    public List<Doctor> getDoctors() {
+        return doctors;
+    }
+
+    /**
+     * @param doctor doctor of the hospital
+     * @return beds of the patients of the doctor in order of wards, rooms and beds, empty if he is not a doctor of the hospital
+     */
+    public List<CensusBed> getBeds(Doctor doctor) {
+        List<CensusBed> beds = bedsByDoctor.get(doctor);
+        return beds == null ? Collections.emptyList() : beds;
+    }
+
+    /**
+     * @param doctor doctor of the hospital
+     * @return patients of the doctor in order of wards, rooms and beds, empty if he is not a doctor of the hospital
+     */
+    public List<Patient> getPatients(Doctor doctor) {
+        List<CensusBed> beds = getBeds(doctor);
+        return new AbstractList<>() {   // view of the beds, the patients are not copied
+            @Override
+            public Patient get(int index) {
+                return beds.get(index).getPatient();
+            }
+
+            @Override
+            public int size() {
+                return beds.size();
+            }
+        };
+    }
+
+    /**
+     * @return census of every ward, streamed in order of the wards
+     */
+    public Stream<WardCensus> wards() {
+        return wards.stream();
+    }
+
+    /**
+     * @return doctors of the hospital, streamed
+     */
+    public Stream<Doctor> doctors() {
+        return doctors.stream();
+    }
+
+    /**
+     * @return occupied beds of all wards in order of wards, rooms and beds, streamed lazily
+     */
+    public Stream<CensusBed> beds() {
+        return wards.stream().flatMap(WardCensus::beds);
+    }
+
+    /**
+     * @return patients of all wards in order of wards, rooms and beds, streamed lazily
+     */
+    public Stream<Patient> patients() {
+        return wards.stream().flatMap(WardCensus::patients);
+    }
+
+    /**
+     * @return query of all patients in the census, narrowed by its methods
+     */
+    public PatientQuery query() {
+        return new PatientQuery(this);
+    }
+
+    /**
+     * @param specialization specialization
+     * @return free beds in the wards of the specialization
+     */
+    public int getFreeBeds(Specialization specialization) {
+        int free = 0;
+        for (WardCensus ward : wards) {
+            if (ward.getSpecialization() == specialization) {
+                free += ward.getFreeBeds();
+            }
+        }
+        return free;
+    }
+
+    /**
+     * @return free beds in all wards
+     */
+    public int getFreeBeds() {
+        int free = 0;
+        for (WardCensus ward : wards) {
+            free += ward.getFreeBeds();
+        }
+        return free;
+    }
+
+    /**
+     * @param specialization specialization
+     * @return patients of the specialization discharged on the next day, in order of wards, rooms and beds
+     */
+    public List<Patient> getPatientsForDischargingNextDay(Specialization specialization) {
+        ArrayList<Patient> patients = new ArrayList<>();
+        for (WardCensus ward : wards) {
+            if (ward.getSpecialization() == specialization) {
+                patients.addAll(ward.getPatientsForDischargingNextDay());
+            }
+        }
+        return patients;
+    }
+}
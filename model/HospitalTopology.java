@@ -0,0 +1,209 @@
+package Hospital.model;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.PlacementMode;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.threads.DoctorScheduler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Description of the size of a hospital: wards of every specialization with their rooms and beds, doctors of every specialization,
+ * nurses, the storage of the wards, the stripes of rooms with their own locks in every ward and the way the wards choose rooms.
+ * Creates hospitals of that size.
+ * <p>
+ * Can be loaded from a properties file, for example:
+ * <pre>
+ * # number of wards, rooms in every ward, beds in every room
+ * wards.CARDIOLOGY = 100, 20, 3
+ * doctors.CARDIOLOGY = 400
+ * nurses = 1000
+ * storage = COLUMNS
+ * stripes = 8
+ * placement = BEST_FIT
+ * </pre>
+ * Specializations without wards or doctors in the file have none.
+ */
+public class HospitalTopology {
+    private final EnumMap<Specialization, int[]> wards = new EnumMap<>(Specialization.class);  // number of wards, rooms and beds in room for every specialization
+    private final EnumMap<Specialization, Integer> doctors = new EnumMap<>(Specialization.class);   // number of doctors for every specialization
+    private int nurses = 0;
+    private StorageMode storageMode = StorageMode.OBJECTS;
+    private int stripes = 1;    // stripes of rooms in every ward
+    private PlacementMode placementMode = PlacementMode.FIRST_FIT;
+
+    /**
+     * @return topology of the hospital from the task, one ward of 10 rooms with 3 beds for every specialization,
+     * and the same number of doctors and nurses as the hospital created by its own constructor
+     */
+    public static HospitalTopology standard() {
+        HospitalTopology topology = new HospitalTopology();
+        Specialization[] specs = Specialization.values();
+        for (int i = 0; i < specs.length; i++) {
+            topology.setWards(specs[i], 1, 10, 3);
+            topology.setDoctors(specs[i], 5 / specs.length + (i < 5 % specs.length ? 1 : 0));
+        }
+        topology.setNurses(8);
+        return topology;
+    }
+
+    /**
+     * Loads topology from a properties file.
+     *
+     * @param file properties file
+     * @return loaded topology
+     * @throws IOException if the file can not be read
+     * @throws IllegalArgumentException if a property has a wrong name or value
+     */
+    public static HospitalTopology load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        HospitalTopology topology = new HospitalTopology();
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name).trim();
+            try {
+                if (name.startsWith("wards.")) {
+                    String[] parts = value.split(",");
+                    if (parts.length != 3) {
+                        throw new IllegalArgumentException("Property " + name + " must have number of wards, rooms and beds in room.");
+                    }
+                    topology.setWards(Specialization.valueOf(name.substring("wards.".length())),
+                            Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()));
+                } else if (name.startsWith("doctors.")) {
+                    topology.setDoctors(Specialization.valueOf(name.substring("doctors.".length())), Integer.parseInt(value));
+                } else if (name.equals("nurses")) {
+                    topology.setNurses(Integer.parseInt(value));
+                } else if (name.equals("storage")) {
+                    topology.setStorageMode(StorageMode.valueOf(value));
+                } else if (name.equals("stripes")) {
+                    topology.setStripes(Integer.parseInt(value));
+                } else if (name.equals("placement")) {
+                    topology.setPlacementMode(PlacementMode.valueOf(value));
+                } else {
+                    throw new IllegalArgumentException("Unknown property " + name + ".");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Property " + name + " has wrong number " + value + ".", e);
+            }
+        }
+        return topology;
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @param count number of wards
+     * @param rooms number of rooms in every ward
+     * @param bedsInRoom number of beds in every room
+     */
+    public void setWards(Specialization specialization, int count, int rooms, int bedsInRoom) {
+        if (count < 0 || rooms < 1 || bedsInRoom < 1) {
+            throw new IllegalArgumentException("Wards of " + specialization + " must have at least one room and one bed.");
+        }
+        wards.put(specialization, new int[]{count, rooms, bedsInRoom});
+    }
+
+    /**
+     * @param specialization specialization of the doctors
+     * @param count number of doctors
+     */
+    public void setDoctors(Specialization specialization, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Number of doctors can not be negative.");
+        }
+        doctors.put(specialization, count);
+    }
+
+    public void setNurses(int nurses) {
+        if (nurses < 0) {
+            throw new IllegalArgumentException("Number of nurses can not be negative.");
+        }
+        this.nurses = nurses;
+    }
+
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    /**
+     * @param stripes number of stripes of rooms with their own locks in every ward, 1 for one lock of the whole ward
+     */
+    public void setStripes(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Wards must have at least one stripe of rooms.");
+        }
+        this.stripes = stripes;
+    }
+
+    public void setPlacementMode(PlacementMode placementMode) {
+        this.placementMode = placementMode;
+    }
+
+    /**
+     * @return total number of wards
+     */
+    public int getWardsCount() {
+        int count = 0;
+        for (int[] ward : wards.values()) {
+            count += ward[0];
+        }
+        return count;
+    }
+
+    /**
+     * @return total number of beds in all wards
+     */
+    public long getBedsCount() {
+        long count = 0;
+        for (int[] ward : wards.values()) {
+            count += (long) ward[0] * ward[1] * ward[2];
+        }
+        return count;
+    }
+
+    /**
+     * Creates hospital of this size. Doctors and nurses get the predefined names and random phone numbers,
+     * nurses are assigned to the wards in turn.
+     *
+     * @param scheduler scheduler for examinations and visitations, null for a pool of platform threads with a thread for every doctor
+     *                  and at most PlatformPoolScheduler.MAX_THREADS threads for a specialization, so big topologies
+     *                  should be given a SimulatedScheduler
+     * @param random random generator for phone numbers and treatments
+     * @return new hospital
+     */
+    public Hospital createHospital(DoctorScheduler scheduler, Random random) {
+        if (getWardsCount() == 0) {
+            throw new IllegalStateException("Hospital must have at least one ward.");
+        }
+        ArrayList<Doctor> doctorsList = new ArrayList<>();
+        for (Specialization specialization : doctors.keySet()) {
+            for (int i = 0; i < doctors.get(specialization); i++) {
+                doctorsList.add(new Doctor(Hospital.doctorsNames[doctorsList.size() % Hospital.doctorsNames.length],
+                        random.nextInt(2999999) + 7000000, specialization));
+            }
+        }
+        ArrayList<Nurse> nursesList = new ArrayList<>();
+        for (int i = 0; i < nurses; i++) {
+            nursesList.add(new Nurse(Hospital.nursesNames[i % Hospital.nursesNames.length], random));
+        }
+        ArrayList<MedicalWard> wardsList = new ArrayList<>();
+        for (Specialization specialization : wards.keySet()) {
+            int[] ward = wards.get(specialization);
+            for (int i = 0; i < ward[0]; i++) {
+                wardsList.add(new MedicalWard(specialization, ward[1], ward[2], storageMode, stripes, placementMode));
+            }
+        }
+        return new Hospital(scheduler, random, doctorsList, nursesList, wardsList);
+    }
+}
@@ -0,0 +1,145 @@
+package Hospital.model;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.CensusBed;
+import Hospital.model.facilities.WardCensus;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+
+import java.util.stream.Stream;
+
+/**
+ * Query of the patients of a HospitalCensus, narrowed by specialization, gender, age, days to discharge and attending doctor.
+ * Every method gives a new query, the query itself is immutable and can be shared by threads.
+ * Nothing is read until a stream of the query is consumed, and the beds are streamed straight from the census without
+ * making lists of them. The indexes of the census are used first: a query of a doctor reads only his beds,
+ * a query of a specialization or gender skips the wards of other specializations and the wards without patients of the gender.
+ * A parallel query splits the work by wards, so it helps when the hospital has several big wards.
+ */
+public final class PatientQuery {
+    private final HospitalCensus census;
+    private final Specialization specialization;    // null for all specializations
+    private final Gender gender;    // null for both genders
+    private final int minAge;
+    private final int maxAge;
+    private final int minDays;  // days remaining to discharge
+    private final int maxDays;
+    private final Doctor doctor;    // null for all doctors
+    private final boolean parallel;
+
+    PatientQuery(HospitalCensus census) {
+        this(census, null, null, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, null, false);
+    }
+
+    private PatientQuery(HospitalCensus census, Specialization specialization, Gender gender, int minAge, int maxAge, int minDays,
+                         int maxDays, Doctor doctor, boolean parallel) {
+        this.census = census;
+        this.specialization = specialization;
+        this.gender = gender;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minDays = minDays;
+        this.maxDays = maxDays;
+        this.doctor = doctor;
+        this.parallel = parallel;
+    }
+
+    /**
+     * @param specialization specialization of the ward of the patients
+     * @return query of the patients of the specialization
+     */
+    public PatientQuery specialization(Specialization specialization) {
+        return new PatientQuery(census, specialization, gender, minAge, maxAge, minDays, maxDays, doctor, parallel);
+    }
+
+    /**
+     * @param gender gender of the patients
+     * @return query of the patients of the gender
+     */
+    public PatientQuery gender(Gender gender) {
+        return new PatientQuery(census, specialization, gender, minAge, maxAge, minDays, maxDays, doctor, parallel);
+    }
+
+    /**
+     * @param min lowest age, inclusive
+     * @param max highest age, inclusive
+     * @return query of the patients with age in the range
+     */
+    public PatientQuery age(int min, int max) {
+        return new PatientQuery(census, specialization, gender, min, max, minDays, maxDays, doctor, parallel);
+    }
+
+    /**
+     * @param min fewest days to discharge, inclusive
+     * @param max most days to discharge, inclusive, 1 for the patients discharged on the next day
+     * @return query of the patients discharged in the range of days
+     */
+    public PatientQuery daysRemaining(int min, int max) {
+        return new PatientQuery(census, specialization, gender, minAge, maxAge, min, max, doctor, parallel);
+    }
+
+    /**
+     * @param doctor attending doctor of the patients
+     * @return query of the patients of the doctor
+     */
+    public PatientQuery doctor(Doctor doctor) {
+        return new PatientQuery(census, specialization, gender, minAge, maxAge, minDays, maxDays, doctor, parallel);
+    }
+
+    /**
+     * @return same query that streams the wards in parallel
+     */
+    public PatientQuery parallel() {
+        return new PatientQuery(census, specialization, gender, minAge, maxAge, minDays, maxDays, doctor, true);
+    }
+
+    /**
+     * @return occupied beds that match the query, in order of wards, rooms and beds, streamed lazily
+     */
+    public Stream<CensusBed> beds() {
+        if (doctor != null) {   // only the beds of the doctor
+            Stream<CensusBed> beds = parallel ? census.getBeds(doctor).parallelStream() : census.getBeds(doctor).stream();
+            return beds.filter(this::matches);
+        }
+        Stream<WardCensus> wards = parallel ? census.getWards().parallelStream() : census.getWards().stream();
+        return wards.filter(this::matches).flatMap(ward -> ward.beds().filter(this::matches));
+    }
+
+    /**
+     * @return patients that match the query, in order of wards, rooms and beds, streamed lazily
+     */
+    public Stream<Patient> stream() {
+        return beds().map(CensusBed::getPatient);
+    }
+
+    /**
+     * @return number of patients that match the query
+     */
+    public long count() {
+        return beds().count();
+    }
+
+    /**
+     * @return true if the ward can have patients that match the query
+     */
+    private boolean matches(WardCensus ward) {
+        return (specialization == null || ward.getSpecialization() == specialization)
+                && (gender == null || ward.getOccupiedBeds(gender) > 0);
+    }
+
+    /**
+     * @return true if the patient in the bed matches the query
+     */
+    private boolean matches(CensusBed bed) {
+        if (specialization != null && bed.getSpecialization() != specialization) {
+            return false;
+        }
+        int days = bed.getDaysRemaining();
+        if (days < minDays || days > maxDays) {
+            return false;
+        }
+        Patient patient = bed.getPatient();
+        return (gender == null || patient.getGender() == gender) && patient.getAge() >= minAge && patient.getAge() <= maxAge;
+    }
+}
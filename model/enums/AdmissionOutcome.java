@@ -0,0 +1,10 @@
+package Hospital.model.enums;
+
+/**
+ * What happened with a patient who entered the hospital.
+ */
+public enum AdmissionOutcome {
+    ADMITTED,   // a doctor examines the patient and he has a bed in the ward
+    WAITING,    // the patient waits for a free doctor
+    REJECTED    // there is no doctor of his specialization or no free bed in the ward
+}
@@ -0,0 +1,70 @@
+package Hospital.model.enums;
+
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+/**
+ * Medicines of the treatment plans. Every medicine is given in one ward, or in all wards if it has no specialization.
+ * The plan of a patient depends only on his data, so it does not take numbers from the random generator of the hospital,
+ * simulations with the same seed stay the same and a loaded patient gets the same plan again.
+ */
+public enum Medication {
+    PARACETAMOL(null),
+    IBUPROFEN(Specialization.ORTHOPEDY),
+    DICLOFENAC(Specialization.ORTHOPEDY),
+    CALCIUM(Specialization.ORTHOPEDY),
+    ASPIRIN(Specialization.CARDIOLOGY),
+    BISOPROLOL(Specialization.CARDIOLOGY),
+    ATORVASTATIN(Specialization.CARDIOLOGY),
+    ACYCLOVIR(Specialization.VIROLOGY),
+    OSELTAMIVIR(Specialization.VIROLOGY),
+    VITAMIN_C(Specialization.VIROLOGY);
+
+    private static final int MAX_MEDICINES = 3;     // most medicines in one plan
+    private static final EnumMap<Specialization, Medication[]> wardMedicines = new EnumMap<>(Specialization.class); // medicines of every ward in order
+    private final Specialization specialization;    // ward where the medicine is given, null for all wards
+
+    Medication(Specialization specialization) {
+        this.specialization = specialization;
+    }
+
+    static {
+        for (Specialization spec : Specialization.values()) {
+            ArrayList<Medication> medicines = new ArrayList<>();
+            for (Medication medication : values()) {
+                if (medication.specialization == null || medication.specialization == spec) {
+                    medicines.add(medication);
+                }
+            }
+            wardMedicines.put(spec, medicines.toArray(new Medication[0]));
+        }
+    }
+
+    public Specialization getSpecialization() {
+        return specialization;
+    }
+
+    /**
+     * Treatment plan made by the doctor on examination: one to three different medicines of the ward of the patient.
+     *
+     * @param patient examined patient
+     * @return medicines the patient takes every day
+     */
+    public static Medication[] plan(Patient patient) {
+        Medication[] medicines = wardMedicines.get(patient.getSpec()).clone();  // medicines not yet in the plan
+        int left = medicines.length;
+        int hash = patient.getPhoneNumber() * 31 + patient.getAge();
+        hash ^= hash >>> 16;
+        int count = Math.min(left, 1 + Math.floorMod(hash, MAX_MEDICINES));
+        Medication[] plan = new Medication[count];
+        for (int i = 0; i < count; i++) {
+            hash = hash * 0x9E3779B9 + i;    // next number from the data of the patient
+            int index = Math.floorMod(hash >>> 8, left);
+            plan[i] = medicines[index];
+            System.arraycopy(medicines, index + 1, medicines, index, --left - index);    // keeps the order of the others
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,26 @@
+package Hospital.model.enums;
+
+/**
+ * How urgently a patient needs a doctor, decided at triage when he enters the hospital.
+ * A more severe patient is examined before less severe patients who came a little before him, but not before those who
+ * waited longer than his head start, so no patient waits forever.
+ */
+public enum Severity {
+    CRITICAL(60_000),   // life threatening, goes before patients who came up to 60 s before him
+    URGENT(20_000),     // needs a doctor soon
+    STANDARD(5_000),    // usual patient
+    NON_URGENT(0);      // can wait
+
+    private final long headStart;  // time in milliseconds by which the patient goes before the least severe patients
+
+    Severity(long headStart) {
+        this.headStart = headStart;
+    }
+
+    /**
+     * @return time in milliseconds by which the patient goes before non-urgent patients who came at the same time
+     */
+    public long getHeadStart() {
+        return headStart;
+    }
+}
@@ -0,0 +1,183 @@
+package Hospital.model.events;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sink that keeps the events in a ring buffer with a fixed number of reused events and writes them on a background thread.
+ * A publishing thread only claims the next place in the ring and copies the references, it does not build strings and does not wait for the output.
+ * The background thread builds the messages and writes them in batches. If the ring is full, publishing waits until the writer frees a place.
+ * The background thread is started by the first published event, so a sink that is replaced before any event costs no thread.
+ * If the output fails the background thread stops, the failure is kept and events published after it are dropped and counted.
+ * When the background thread stops, after close() or a failure, it sets the next sequence number to a negative value
+ * in the same atomic step that checks the published events. A publisher that claimed its place before that step has its
+ * event written or counted by the background thread, a publisher that claims after it gets a negative number and drops
+ * and counts its event, so no publisher waits for a thread that has ended.
+ */
+public class AsyncEventSink implements EventSink {
+    private static final int BATCH_SIZE = 256;  // maximum number of events written at once
+    private static final long IDLE_PARK_NANOS = 1_000_000;  // time the writer waits when there are no events
+
+    private final HospitalEvent[] ring;     // reused events
+    private final int mask;     // size of the ring minus one, the size is a power of two
+    private final AtomicLongArray published;    // sequence number of the event published in every place, -1 if there is none
+    private final AtomicLong nextSequence = new AtomicLong();   // sequence number of the next published event, negative after the background thread stopped
+    private volatile long written = 0;  // sequence number of the next event to be written
+    private volatile boolean closed = false;
+    private volatile boolean started = false;   // true after the background thread is started
+    private volatile Throwable failure;     // error that stopped the background thread, null if it runs
+    private final LongAdder dropped = new LongAdder();  // events not written because the background thread stopped
+    private long unwritten = 0; // sequence number of the first event not yet written to the output, used by the background thread
+    private final Writer out;
+    private final Thread writer;
+
+    /**
+     * @param out destination for the messages
+     * @param capacity number of events in the ring, rounded up to a power of two
+     */
+    public AsyncEventSink(Writer out, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.out = out;
+        ring = new HospitalEvent[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            ring[i] = new HospitalEvent();
+            published.set(i, -1);
+        }
+        mask = size - 1;
+        writer = new Thread(this::writeEvents, "hospital-event-writer");
+        writer.setDaemon(true);
+    }
+
+    /**
+     * @return sink writing to the console with a ring of 8192 events
+     */
+    public static AsyncEventSink toConsole() {
+        return new AsyncEventSink(new OutputStreamWriter(System.out), 8192);
+    }
+
+    @Override
+    public void publish(EventType type, Doctor doctor, Nurse nurse, Patient patient, Specialization specialization, int number) {
+        if (closed) {
+            return;
+        }
+        if (!started) {
+            start();
+        }
+        long sequence = nextSequence.getAndIncrement();
+        if (sequence < 0) {     // background thread has stopped, nobody writes the event
+            dropped.increment();
+            return;
+        }
+        while (sequence - written >= ring.length) {     // ring is full, wait for the writer
+            if (failure != null) {  // the event was counted as dropped when the background thread stopped
+                return;
+            }
+            Thread.yield();
+        }
+        int index = (int) (sequence & mask);
+        ring[index].set(type, doctor, nurse, patient, specialization, number);
+        published.set(index, sequence);     // the writer can take the event after this
+    }
+
+    /**
+     * @return error that stopped the background thread, null if it has not failed
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return number of events dropped because the background thread failed or was closed before they were published
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (!started) {     // no event was published, there is no thread to stop
+            nextSequence.set(Long.MIN_VALUE);   // start() does not start the thread any more, later events are dropped
+            return;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Starts the background thread, if it is not started yet.
+     */
+    private synchronized void start() {
+        if (!started && !closed) {
+            writer.start();
+            started = true;
+        }
+    }
+
+    /**
+     * Body of the background thread. Keeps the error that stops the loop, so publishers stop waiting for free places,
+     * and counts as dropped all events claimed but not written, and all events claimed after it.
+     */
+    private void writeEvents() {
+        try {
+            writeLoop();
+        } catch (RuntimeException | Error e) {
+            dropped.add(nextSequence.getAndSet(Long.MIN_VALUE) - unwritten);
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Loop of the background thread. Takes the published events in order, builds their messages and writes them in batches.
+     */
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(BATCH_SIZE * 100);
+        long sequence = written;
+        while (true) {
+            int count = 0;
+            while (count < BATCH_SIZE && published.get((int) (sequence & mask)) == sequence) {
+                HospitalEvent event = ring[(int) (sequence & mask)];
+                event.format(batch);
+                batch.append(System.lineSeparator());
+                event.set(null, null, null, null, null, 0);     // do not keep persons after they are written
+                sequence++;
+                count++;
+            }
+            if (count > 0) {
+                written = sequence;     // places are free for publishers, messages are already in the batch
+                write(batch);
+                unwritten = sequence;
+                batch.setLength(0);
+            } else if (closed && nextSequence.compareAndSet(sequence, Long.MIN_VALUE)) {  // all events are written
+                return;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        try {
+            out.append(batch);
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
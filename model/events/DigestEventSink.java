@@ -0,0 +1,63 @@
+package Hospital.model.events;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Sink that does not write the events, but counts them by type and keeps a fingerprint of all messages with their time.
+ * Two runs with the same fingerprint have published the same events in the same order at the same times.
+ * The sink is not thread safe, it is used by a simulation that runs on one thread.
+ */
+public class DigestEventSink implements EventSink {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final LongSupplier clock;   // time of the events
+    private final HospitalEvent event = new HospitalEvent();    // reused event for building the message
+    private final StringBuilder message = new StringBuilder();
+    private final long[] counts = new long[EventType.values().length];  // number of events for every type
+    private long fingerprint = FNV_OFFSET;
+
+    /**
+     * @param clock time of the events, for example the virtual time of a simulation
+     */
+    public DigestEventSink(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void publish(EventType type, Doctor doctor, Nurse nurse, Patient patient, Specialization specialization, int number) {
+        counts[type.ordinal()]++;
+        event.set(type, doctor, nurse, patient, specialization, number);
+        message.setLength(0);
+        message.append(clock.getAsLong()).append(' ');
+        event.format(message);
+        for (int i = 0; i < message.length(); i++) {   // FNV-1a hash of the message
+            fingerprint ^= message.charAt(i);
+            fingerprint *= FNV_PRIME;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @param type type of events
+     * @return number of published events of the type
+     */
+    public long getCount(EventType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * @return hash of all published messages and their times
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+}
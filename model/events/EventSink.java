@@ -0,0 +1,86 @@
+package Hospital.model.events;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+
+/**
+ * Receiver of the events in the hospital. The hospital, the wards, examinations and visitations publish their events here instead of printing them.
+ * Methods for every type of event only pass references, so publishing does not create strings.
+ */
+public interface EventSink {
+
+    /**
+     * Publishes an event, data not used by the type is null.
+     *
+     * @param type type of the event
+     * @param doctor doctor in the event
+     * @param nurse nurse in the event
+     * @param patient patient in the event
+     * @param specialization specialization of the ward
+     * @param number number of the day or the room
+     */
+    void publish(EventType type, Doctor doctor, Nurse nurse, Patient patient, Specialization specialization, int number);
+
+    /**
+     * Writes all published events and stops the sink. Events published after closing are lost.
+     */
+    void close();
+
+    default void dayStarted(int day) {
+        publish(EventType.DAY_STARTED, null, null, null, null, day);
+    }
+
+    /**
+     * @param phase DISCHARGE_STARTED, MEDICINE_STARTED or VISITATION_STARTED
+     */
+    default void phaseStarted(EventType phase) {
+        publish(phase, null, null, null, null, 0);
+    }
+
+    default void examination(Doctor doctor, Patient patient) {
+        publish(EventType.EXAMINATION, doctor, null, patient, null, 0);
+    }
+
+    default void noDoctor(Patient patient) {
+        publish(EventType.NO_DOCTOR, null, null, patient, null, 0);
+    }
+
+    default void noBed(Patient patient) {
+        publish(EventType.NO_BED, null, null, patient, null, 0);
+    }
+
+    default void discharge(Patient patient) {
+        publish(EventType.DISCHARGE, null, null, patient, null, 0);
+    }
+
+    default void noNurse(Specialization specialization) {
+        publish(EventType.NO_NURSE, null, null, null, specialization, 0);
+    }
+
+    /**
+     * @param room number of the room, starting from 1
+     */
+    default void medicine(Nurse nurse, Patient patient, int room, Specialization specialization) {
+        publish(EventType.MEDICINE, null, nurse, patient, specialization, room);
+    }
+
+    /**
+     * @param room number of the room
+     */
+    default void visit(Doctor doctor, Patient patient, int room) {
+        publish(EventType.VISIT, doctor, null, patient, null, room);
+    }
+
+    default void notInWard(Patient patient) {
+        publish(EventType.NOT_IN_WARD, null, null, patient, null, 0);
+    }
+
+    /**
+     * @return sink that ignores all events
+     */
+    static EventSink noOp() {
+        return NoOpEventSink.INSTANCE;
+    }
+}
@@ -0,0 +1,19 @@
+package Hospital.model.events;
+
+/**
+ * Types of events in the hospital, every type has its own message in the log.
+ */
+public enum EventType {
+    DAY_STARTED,            // new working day, number of the day
+    DISCHARGE_STARTED,      // patients whose treatment has ended are discharged
+    MEDICINE_STARTED,       // nurses give medicine
+    VISITATION_STARTED,     // doctors visit their patients
+    EXAMINATION,            // doctor examines patient
+    NO_DOCTOR,              // no doctor for the specialization of the patient
+    NO_BED,                 // no free bed for the patient
+    DISCHARGE,              // patient is discharged
+    NO_NURSE,               // no nurse in the ward
+    MEDICINE,               // nurse gives medicine to patient in a room
+    VISIT,                  // doctor visits patient
+    NOT_IN_WARD             // patient to be removed is not in the ward
+}
@@ -0,0 +1,107 @@
+package Hospital.model.events;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+
+/**
+ * Event in the hospital. Keeps only references to the persons and numbers, the message is built when the event is written,
+ * so creating an event does not create strings. Events in the ring buffer of the log are reused.
+ */
+public class HospitalEvent {
+    private EventType type;
+    private Doctor doctor;
+    private Nurse nurse;
+    private Patient patient;
+    private Specialization specialization;
+    private int number; // number of the day or the room
+
+    /**
+     * Sets all data of the event, data not used by the type is null.
+     */
+    void set(EventType type, Doctor doctor, Nurse nurse, Patient patient, Specialization specialization, int number) {
+        this.type = type;
+        this.doctor = doctor;
+        this.nurse = nurse;
+        this.patient = patient;
+        this.specialization = specialization;
+        this.number = number;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public Nurse getNurse() {
+        return nurse;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public Specialization getSpecialization() {
+        return specialization;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Appends the message of the event.
+     * @param out builder for the message
+     */
+    public void format(StringBuilder out) {
+        switch (type) {
+            case DAY_STARTED:
+                out.append("\n----------------------------------------\n")
+                        .append("Work day in hospital: ").append(number)
+                        .append("\n----------------------------------------");
+                break;
+            case DISCHARGE_STARTED:
+                out.append("\nDischarged patients:");
+                break;
+            case MEDICINE_STARTED:
+                out.append("\nMedicine time.");
+                break;
+            case VISITATION_STARTED:
+                out.append("\nVisitation time.");
+                break;
+            case EXAMINATION:
+                out.append("Dr. ").append(doctor.getName()).append(" is examining ").append(patient);
+                break;
+            case NO_DOCTOR:
+                out.append("No doctor for this specialization!");
+                break;
+            case NO_BED:
+                out.append("There is no available bed for patient: ").append(patient);
+                break;
+            case DISCHARGE:
+                out.append("Patient ").append(patient.getName())
+                        .append(", sex: ").append(patient.getGender().toString().toLowerCase())
+                        .append(", specialization: ").append(patient.getSpec().toString().toLowerCase())
+                        .append(" is discharged.");
+                break;
+            case NO_NURSE:
+                out.append("No nurse to give a pills.");
+                break;
+            case MEDICINE:
+                out.append("Nurse ").append(nurse.getName()).append(" give medicine to patient ").append(patient.getName())
+                        .append(" in room ").append(number).append(" section ").append(specialization);
+                break;
+            case VISIT:
+                out.append("Dr. ").append(doctor.getName()).append(" is visiting ").append(patient.getName())
+                        .append(" in room ").append(number);
+                break;
+            case NOT_IN_WARD:
+                out.append("No such patient in the ward.");
+                break;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package Hospital.model.events;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+
+/**
+ * Sink that ignores all events, used when the messages of the hospital are not needed.
+ */
+class NoOpEventSink implements EventSink {
+    static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    private NoOpEventSink() {
+    }
+
+    @Override
+    public void publish(EventType type, Doctor doctor, Nurse nurse, Patient patient, Specialization specialization, int number) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
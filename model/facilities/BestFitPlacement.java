@@ -0,0 +1,77 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+
+import java.util.EnumMap;
+
+/**
+ * Room placement that takes the room of the same sex with the most occupied beds that still has a free bed, else an empty room.
+ * Rooms are filled before new ones are opened, so more rooms stay empty and can take patients of either sex.
+ * Keeps a set of rooms for every gender and number of occupied beds, a choice looks at no more sets than beds in a room.
+ */
+class BestFitPlacement implements RoomPlacement {
+    private final RoomSet emptyRooms;   // rooms without patients
+    private final EnumMap<Gender, RoomSet[]> partiallyFilledRooms = new EnumMap<>(Gender.class);  // rooms of every sex by occupied beds
+    private final int[] levels;     // occupied beds of every room in the sets of partially filled rooms, 0 if it is in none
+    private final int bedsInRoom;
+
+    /**
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in every room
+     */
+    BestFitPlacement(int rooms, int bedsInRoom) {
+        this.bedsInRoom = bedsInRoom;
+        levels = new int[rooms];
+        emptyRooms = new RoomSet(rooms);
+        for (Gender gender : Gender.values()) {
+            RoomSet[] sets = new RoomSet[bedsInRoom];   // index is the number of occupied beds, 1 to bedsInRoom - 1
+            for (int occupied = 1; occupied < bedsInRoom; occupied++) {
+                sets[occupied] = new RoomSet(rooms);
+            }
+            partiallyFilledRooms.put(gender, sets);
+        }
+        // at the beginning all rooms are empty, added backwards so the first room is taken first
+        for (int i = rooms - 1; i >= 0; i--) {
+            emptyRooms.add(i);
+        }
+    }
+
+    @Override
+    public int partiallyFilledRoom(Gender gender, int dischargeDay) {
+        RoomSet[] sets = partiallyFilledRooms.get(gender);
+        for (int occupied = bedsInRoom - 1; occupied > 0; occupied--) {  // fullest rooms first
+            if (!sets[occupied].isEmpty()) {
+                return sets[occupied].last();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int emptyRoom() {
+        return emptyRooms.last();
+    }
+
+    @Override
+    public boolean isPartiallyFilled(int room, Gender gender) {
+        return levels[room] > 0 && partiallyFilledRooms.get(gender)[levels[room]].contains(room);
+    }
+
+    @Override
+    public void update(int room, Gender gender, int occupied, int roomDischargeDay) {
+        RoomSet[] sets = partiallyFilledRooms.get(gender);
+        if (levels[room] > 0) {
+            sets[levels[room]].remove(room);
+            levels[room] = 0;
+        }
+        if (occupied == 0) {    // room is empty and can take patients of any sex
+            emptyRooms.add(room);
+            return;
+        }
+        emptyRooms.remove(room);
+        if (occupied < bedsInRoom) {    // room still has free beds for patients of the same sex
+            sets[occupied].add(room);
+            levels[room] = occupied;
+        }
+    }
+}
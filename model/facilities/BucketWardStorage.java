@@ -0,0 +1,135 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ward storage with an array of patients and a set of patients for every day of discharge,
+ * so every day only the patients for discharging are touched.
+ * Patients of different rooms can be added to the same bucket at the same time, an empty bucket is removed only inside
+ * a compute of its day and a patient added to a bucket that was removed in the meantime is added again to the new bucket,
+ * so no patient is lost.
+ */
+class BucketWardStorage implements WardStorage {
+    private final Patient[] patients;   // patient in every bed
+    private final Map<Integer, Set<Patient>> dischargeBuckets = new ConcurrentHashMap<>();  // patients in the ward for every day of discharge
+
+    /**
+     * @param beds number of beds in the ward
+     */
+    BucketWardStorage(int beds) {
+        patients = new Patient[beds];
+    }
+
+    @Override
+    public Patient get(int slot) {
+        return patients[slot];
+    }
+
+    @Override
+    public Gender getGender(int slot) {
+        return patients[slot].getGender();
+    }
+
+    @Override
+    public void put(int slot, Patient patient) {
+        patients[slot] = patient;
+        addToBucket(patient, patient.getDischargeDay());
+    }
+
+    /**
+     * Makes every missing bucket with the size for all its new patients, so the buckets do not grow while they are filled.
+     */
+    @Override
+    public void putAll(int[] slots, List<Patient> patients) {
+        HashMap<Integer, int[]> counts = new HashMap<>();   // new patients of every day of discharge
+        for (Patient patient : patients) {
+            counts.computeIfAbsent(patient.getDischargeDay(), day -> new int[1])[0]++;
+        }
+        for (Map.Entry<Integer, int[]> count : counts.entrySet()) {
+            dischargeBuckets.computeIfAbsent(count.getKey(), day -> ConcurrentHashMap.newKeySet(count.getValue()[0]));
+        }
+        for (int i = 0; i < patients.size(); i++) {
+            Patient patient = patients.get(i);
+            this.patients[slots[i]] = patient;
+            dischargeBuckets.get(patient.getDischargeDay()).add(patient);
+        }
+    }
+
+    @Override
+    public void remove(int slot) {
+        removeFromBucket(patients[slot], patients[slot].getDischargeDay());
+        patients[slot] = null;
+    }
+
+    @Override
+    public void setDischargeDay(int slot, int day) {
+        Patient patient = patients[slot];
+        removeFromBucket(patient, patient.getDischargeDay());
+        addToBucket(patient, day);
+    }
+
+    @Override
+    public void collectDischarges(int day, ArrayList<Patient> patients) {
+        Set<Patient> bucket = dischargeBuckets.get(day);
+        if (bucket == null) {   // no patients for discharge on that day
+            return;
+        }
+        int first = patients.size();
+        patients.addAll(bucket);
+        patients.subList(first, patients.size()).sort(Comparator.comparingInt(Patient::getRoom).thenComparingInt(Patient::getBed));
+    }
+
+    @Override
+    public void countDischarges(int day, int[] histogram) {
+        for (int i = 0; i < histogram.length; i++) {
+            Set<Patient> bucket = dischargeBuckets.get(day + i + 1);
+            histogram[i] = bucket == null ? 0 : bucket.size();
+        }
+    }
+
+    /**
+     * Adds patient in the bucket of the day
+     * @param patient patient in the ward
+     * @param day day of discharge
+     */
+    private void addToBucket(Patient patient, int day) {
+        Set<Patient> bucket = dischargeBuckets.get(day);
+        if (bucket != null) {
+            bucket.add(patient);
+            if (dischargeBuckets.get(day) == bucket) {  // bucket was not removed before the patient was added
+                return;
+            }
+        }
+        dischargeBuckets.compute(day, (d, b) -> {
+            if (b == null) {
+                b = ConcurrentHashMap.newKeySet();
+            }
+            b.add(patient);
+            return b;
+        });
+    }
+
+    /**
+     * Removes patient from the bucket of the day, empty bucket is removed.
+     * @param patient patient in the ward
+     * @param day day of discharge
+     */
+    private void removeFromBucket(Patient patient, int day) {
+        Set<Patient> bucket = dischargeBuckets.get(day);
+        if (bucket != null) {
+            bucket.remove(patient);
+            if (bucket.isEmpty()) {     // checked again in the compute, a patient can be added in the meantime
+                dischargeBuckets.computeIfPresent(day, (d, b) -> b.isEmpty() ? null : b);
+            }
+        }
+    }
+}
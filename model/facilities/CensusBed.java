@@ -0,0 +1,57 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+
+/**
+ * Occupied bed in a WardCensus: the patient with his day of discharge and attending doctor at the version of the census.
+ * Made only when a query reaches the bed, the census itself keeps the beds in arrays.
+ */
+public final class CensusBed {
+    private final WardCensus ward;
+    private final int slot;     // room * bedsInRoom + bed
+
+    CensusBed(WardCensus ward, int slot) {
+        this.ward = ward;
+        this.slot = slot;
+    }
+
+    public WardCensus getWard() {
+        return ward;
+    }
+
+    public Specialization getSpecialization() {
+        return ward.getSpecialization();
+    }
+
+    public int getRoom() {
+        return slot / ward.getBedsInRoom();
+    }
+
+    public int getBed() {
+        return slot % ward.getBedsInRoom();
+    }
+
+    public Patient getPatient() {
+        return ward.getPatient(getRoom(), getBed());
+    }
+
+    public int getDischargeDay() {
+        return ward.getDischargeDay(getRoom(), getBed());
+    }
+
+    /**
+     * @return attending doctor of the patient, null if he had none yet
+     */
+    public Doctor getDoctor() {
+        return ward.getDoctor(getRoom(), getBed());
+    }
+
+    /**
+     * @return days from the day of the ward to the discharge of the patient
+     */
+    public int getDaysRemaining() {
+        return getDischargeDay() - ward.getCurrentDay();
+    }
+}
@@ -0,0 +1,112 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.persons.Patient;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ward storage with a column of primitives for every property of the beds.
+ * The day of discharge and the gender of every bed are kept in two buffers, on the heap or in direct memory outside it,
+ * and the only objects are the references to the patients, needed to give them back when they are discharged.
+ * The references stay in an array on the heap even when the columns are in direct memory, a patient is known to his doctor
+ * and to the events by its object and can not be made again from the columns. So direct memory takes only the five bytes
+ * of the columns of every bed off the heap, the reference and the patient himself stay, and the storage saves the heap
+ * against buckets by having no entry for every patient, not by leaving the patients out.
+ * Besides the columns the storage keeps a counter of patients for every day of discharge, changed with the beds,
+ * so the counts of discharges are read from the counters, days without patients are never scanned, and a scan
+ * for the discharges of a day stops at the last patient of that day.
+ * Patients of different rooms can change the counter of the same day at the same time, every change is one atomic merge
+ * of the map and a counter that drops to zero is removed by it.
+ * The room and the specialization are not stored, they are given by the number of the bed and by the ward.
+ */
+class ColumnarWardStorage implements WardStorage {
+    private static final Gender[] genders = Gender.values();
+    private final Patient[] patients;   // patient in every bed
+    private final IntBuffer dischargeDays;  // day of discharge of every bed, 0 if the bed is free
+    private final ByteBuffer genderColumn;  // ordinal of the gender of the patient in every bed
+    private final Map<Integer, Integer> dischargeCounts = new ConcurrentHashMap<>(); // patients in the ward for every day of discharge
+
+    /**
+     * @param beds number of beds in the ward
+     * @param direct true if the columns are kept in direct memory
+     */
+    ColumnarWardStorage(int beds, boolean direct) {
+        patients = new Patient[beds];
+        if (direct) {
+            dischargeDays = ByteBuffer.allocateDirect(beds * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+            genderColumn = ByteBuffer.allocateDirect(beds);
+        } else {
+            dischargeDays = IntBuffer.wrap(new int[beds]);
+            genderColumn = ByteBuffer.wrap(new byte[beds]);
+        }
+    }
+
+    @Override
+    public Patient get(int slot) {
+        return patients[slot];
+    }
+
+    @Override
+    public Gender getGender(int slot) {
+        return genders[genderColumn.get(slot)];
+    }
+
+    @Override
+    public void put(int slot, Patient patient) {
+        dischargeDays.put(slot, patient.getDischargeDay());
+        genderColumn.put(slot, (byte) patient.getGender().ordinal());
+        patients[slot] = patient;
+        count(patient.getDischargeDay(), 1);
+    }
+
+    @Override
+    public void remove(int slot) {
+        count(dischargeDays.get(slot), -1);
+        patients[slot] = null;
+        dischargeDays.put(slot, 0);
+    }
+
+    @Override
+    public void setDischargeDay(int slot, int day) {
+        count(dischargeDays.get(slot), -1);
+        dischargeDays.put(slot, day);
+        count(day, 1);
+    }
+
+    @Override
+    public void collectDischarges(int day, ArrayList<Patient> patients) {
+        int left = dischargeCounts.getOrDefault(day, 0);
+        int beds = dischargeDays.capacity();
+        for (int slot = 0; slot < beds && left > 0; slot++) {
+            if (dischargeDays.get(slot) == day) {
+                left--;
+                Patient patient = this.patients[slot];
+                if (patient != null) {  // read without the lock of the ward the bed can be freed in the meantime
+                    patients.add(patient);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void countDischarges(int day, int[] histogram) {
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = dischargeCounts.getOrDefault(day + i + 1, 0);
+        }
+    }
+
+    /**
+     * Changes the counter of patients discharged on the day, counter that drops to zero is removed.
+     * @param day day of discharge
+     * @param change number of added patients, negative for removed patients
+     */
+    private void count(int day, int change) {
+        dischargeCounts.merge(day, change, (count, added) -> count + added == 0 ? null : count + added);
+    }
+}
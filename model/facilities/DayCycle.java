@@ -0,0 +1,110 @@
+package Hospital.model.facilities;
+
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs the daily work of the medical wards in parallel.
+ * Every phase of the day, discharging and giving medicine, is executed for all wards at the same time, medicine also by all nurses
+ * of a ward at the same time, and the phase ends only when all wards have finished it, so the next phase never starts before the previous one is over.
+ * With parallelism of one the wards are processed one after another on the calling thread.
+ */
+public class DayCycle {
+    private final MedicalWard[] medicalWards;
+    private final ForkJoinPool pool;    // null if the wards are processed on the calling thread
+
+    /**
+     * @param medicalWards wards of the hospital
+     * @param parallelism maximum number of wards processed at the same time
+     */
+    public DayCycle(MedicalWard[] medicalWards, int parallelism) {
+        this.medicalWards = medicalWards;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Discharges patients from every ward.
+     * @return discharged patients from all wards, in order of the wards
+     */
+    public ArrayList<Patient> patientsDischarge() {
+        return patientsDischarge(null);
+    }
+
+    /**
+     * Discharges patients from every ward and calls the action for every discharged patient while his ward is still changed,
+     * see MedicalWard.patientDischarge(Consumer). In parallel the action is called from several threads at the same time.
+     * @param discharged action for every discharged patient, null for none
+     * @return discharged patients from all wards, in order of the wards
+     */
+    public ArrayList<Patient> patientsDischarge(Consumer<Patient> discharged) {
+        ArrayList<Patient> dischargedPatients = new ArrayList<>();
+        if (pool == null) {
+            for (MedicalWard mw : medicalWards) {
+                dischargedPatients.addAll(mw.patientDischarge(discharged));
+            }
+            return dischargedPatients;
+        }
+        List<Callable<ArrayList<Patient>>> tasks = new ArrayList<>();
+        for (MedicalWard mw : medicalWards) {
+            tasks.add(() -> mw.patientDischarge(discharged));
+        }
+        for (ArrayList<Patient> patients : invokeAll(tasks)) {
+            dischargedPatients.addAll(patients);
+        }
+        return dischargedPatients;
+    }
+
+    /**
+     * Nurses of every ward give medicine to the patients. In parallel every nurse of every ward is one task,
+     * so a big ward with many nurses is not processed by one thread.
+     */
+    public void patientsTakingPills() {
+        if (pool == null) {
+            for (MedicalWard mw : medicalWards) {
+                mw.patientsTakingPills();
+            }
+            return;
+        }
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (MedicalWard mw : medicalWards) {
+            MedicationRound round = mw.startMedicationRound();
+            if (round != null) {
+                tasks.addAll(round.getNurseTasks());
+            }
+        }
+        invokeAll(tasks);
+    }
+
+    /**
+     * Stops the threads of the cycle.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Executes the tasks and waits for all of them, this is the barrier between the phases of the day.
+     * @param tasks task for every ward
+     * @return results of the tasks in order of the wards
+     */
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,140 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Room placement that puts patients who leave on the same day together. The day of a room is the last day of discharge
+ * of its patients, the room is empty after that day. A patient takes the room of the same sex with the earliest day
+ * not before his own day, so the room does not stay longer because of him, else the room with the latest earlier day.
+ * Rooms that empty at once can take patients of either sex, so the wards split less between the sexes.
+ * Keeps the rooms of every sex with free beds in a sorted map by day, a choice is one search of the map.
+ */
+class DischargeClusteringPlacement implements RoomPlacement {
+    private final RoomSet emptyRooms;   // rooms without patients
+    private final EnumMap<Gender, TreeMap<Integer, DayRooms>> partiallyFilledRooms = new EnumMap<>(Gender.class);  // rooms of every sex by day
+    private final int[] days;       // day of every room in the map, 0 if it is in none
+    private final int[] positions;  // position of every room in the rooms of its day
+    private final byte[] genders;   // ordinal of the gender of every room in the map
+    private final int bedsInRoom;
+
+    /**
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in every room
+     */
+    DischargeClusteringPlacement(int rooms, int bedsInRoom) {
+        this.bedsInRoom = bedsInRoom;
+        days = new int[rooms];
+        positions = new int[rooms];
+        genders = new byte[rooms];
+        emptyRooms = new RoomSet(rooms);
+        for (Gender gender : Gender.values()) {
+            partiallyFilledRooms.put(gender, new TreeMap<>());
+        }
+        // at the beginning all rooms are empty, added backwards so the first room is taken first
+        for (int i = rooms - 1; i >= 0; i--) {
+            emptyRooms.add(i);
+        }
+    }
+
+    @Override
+    public int partiallyFilledRoom(Gender gender, int dischargeDay) {
+        TreeMap<Integer, DayRooms> rooms = partiallyFilledRooms.get(gender);
+        Map.Entry<Integer, DayRooms> entry = rooms.ceilingEntry(dischargeDay);  // room that stays at least as long as the patient
+        if (entry == null) {
+            entry = rooms.lowerEntry(dischargeDay);     // room that is made to stay the fewest days longer
+        }
+        return entry == null ? -1 : entry.getValue().last();
+    }
+
+    @Override
+    public int emptyRoom() {
+        return emptyRooms.last();
+    }
+
+    @Override
+    public boolean isPartiallyFilled(int room, Gender gender) {
+        return days[room] > 0 && genders[room] == gender.ordinal();
+    }
+
+    @Override
+    public boolean usesDischargeDays() {
+        return true;
+    }
+
+    @Override
+    public void update(int room, Gender gender, int occupied, int roomDischargeDay) {
+        remove(room);
+        if (occupied == 0) {    // room is empty and can take patients of any sex
+            emptyRooms.add(room);
+            return;
+        }
+        emptyRooms.remove(room);
+        if (occupied < bedsInRoom) {    // room still has free beds for patients of the same sex
+            DayRooms rooms = partiallyFilledRooms.get(gender).computeIfAbsent(roomDischargeDay, day -> new DayRooms());
+            positions[room] = rooms.add(room);
+            days[room] = roomDischargeDay;
+            genders[room] = (byte) gender.ordinal();
+        }
+    }
+
+    /**
+     * Removes the room from the map, if it is there.
+     * @param room local index of the room
+     */
+    private void remove(int room) {
+        if (days[room] == 0) {
+            return;
+        }
+        TreeMap<Integer, DayRooms> map = partiallyFilledRooms.get(Gender.values()[genders[room]]);
+        DayRooms rooms = map.get(days[room]);
+        int moved = rooms.remove(positions[room]);
+        if (moved >= 0) {
+            positions[moved] = positions[room];
+        }
+        if (rooms.size == 0) {
+            map.remove(days[room]);
+        }
+        days[room] = 0;
+    }
+
+    /**
+     * Rooms with the same day in a dense array, the positions of the rooms are kept by the placement.
+     */
+    private static class DayRooms {
+        private int[] rooms = new int[4];
+        private int size = 0;
+
+        /**
+         * @return position of the added room
+         */
+        int add(int room) {
+            if (size == rooms.length) {
+                rooms = Arrays.copyOf(rooms, size * 2);
+            }
+            rooms[size] = room;
+            return size++;
+        }
+
+        /**
+         * Removes the room on the position, moving the last room on its place.
+         * @return the moved room, -1 if the removed room was the last
+         */
+        int remove(int position) {
+            size--;
+            if (position == size) {
+                return -1;
+            }
+            rooms[position] = rooms[size];
+            return rooms[position];
+        }
+
+        int last() {
+            return rooms[size - 1];
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+
+import java.util.EnumMap;
+
+/**
+ * Room placement that takes the room of the same sex added last to the set of rooms with free beds, else the empty room
+ * added last. Keeps the empty rooms and the rooms with free beds for each gender in sets, so every choice is constant time.
+ */
+class FirstFitPlacement implements RoomPlacement {
+    private final RoomSet emptyRooms;   // rooms without patients
+    private final EnumMap<Gender, RoomSet> partiallyFilledRooms = new EnumMap<>(Gender.class);  // rooms with patients of one sex and at least one free bed
+    private final int bedsInRoom;
+
+    /**
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in every room
+     */
+    FirstFitPlacement(int rooms, int bedsInRoom) {
+        this.bedsInRoom = bedsInRoom;
+        emptyRooms = new RoomSet(rooms);
+        for (Gender gender : Gender.values()) {
+            partiallyFilledRooms.put(gender, new RoomSet(rooms));
+        }
+        // at the beginning all rooms are empty, added backwards so the first room is taken first
+        for (int i = rooms - 1; i >= 0; i--) {
+            emptyRooms.add(i);
+        }
+    }
+
+    @Override
+    public int partiallyFilledRoom(Gender gender, int dischargeDay) {
+        return partiallyFilledRooms.get(gender).last();
+    }
+
+    @Override
+    public int emptyRoom() {
+        return emptyRooms.last();
+    }
+
+    @Override
+    public boolean isPartiallyFilled(int room, Gender gender) {
+        return partiallyFilledRooms.get(gender).contains(room);
+    }
+
+    @Override
+    public void update(int room, Gender gender, int occupied, int roomDischargeDay) {
+        if (occupied == 0) {    // room is empty and can take patients of any sex
+            partiallyFilledRooms.get(gender).remove(room);
+            emptyRooms.add(room);
+            return;
+        }
+        emptyRooms.remove(room);
+        if (occupied < bedsInRoom) {    // room still has free beds for patients of the same sex
+            partiallyFilledRooms.get(gender).add(room);
+        } else {
+            partiallyFilledRooms.get(gender).remove(room);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+
+/**
+ * Room placement that chooses rooms like FirstFitPlacement, but keeps a reserve of empty rooms in the ward.
+ * When only the reserve is left, an empty room is given only to the sex with no more rooms than the other,
+ * so a wave of patients of one sex can not take every room and leave the other sex without a bed.
+ */
+class GenderBalancedPlacement extends FirstFitPlacement {
+    private static final double RESERVED_ROOMS = 0.05;  // share of the rooms of the ward kept for the sex with fewer rooms
+
+    /**
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in every room
+     */
+    GenderBalancedPlacement(int rooms, int bedsInRoom) {
+        super(rooms, bedsInRoom);
+    }
+
+    @Override
+    public boolean mayOpenRoom(Gender gender, int emptyRooms, int ownRooms, int otherRooms, int rooms) {
+        int reserve = Math.max(1, (int) (rooms * RESERVED_ROOMS));
+        return emptyRooms > reserve || ownRooms <= otherRooms;
+    }
+}
@@ -1,11 +1,23 @@
 package Hospital.model.facilities;
 
 import Hospital.model.enums.Gender;
+import Hospital.model.enums.Medication;
 import Hospital.model.enums.Specialization;
+import Hospital.model.events.EventSink;
+import Hospital.model.persons.Doctor;
 import Hospital.model.persons.Nurse;
 import Hospital.model.persons.Patient;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Class for a medical ward
@@ -13,14 +25,41 @@ import java.util.ArrayList;
  * Store patients and their location by room and bed.
  * Store nurses serving patients.
  * Adds patients, only patients of the same gender can be in a room. If the beds are full, the patient is not added.
- * Remove patients if their treatment days are over.
- * Administering medication to patients. Each nurse serves one room, if there are more rooms than nurses, they rotate on a rotational basis.
+ * Keeps an index of empty rooms and of rooms with free beds for each gender, so adding and removing patients does not scan the rooms.
+ * Remove patients if their treatment days are over. Every patient has a day of discharge, the beds and their days of discharge
+ * are kept in a storage chosen by the storage mode, as objects with buckets by day of discharge or as columns of primitives.
+ * Keeps counters of free beds, occupied beds by gender and rooms by gender, they can be read at any time without a lock.
+ * The rooms are split in stripes, every stripe with its own lock and index of rooms, see RoomStripe. A room and its beds
+ * are changed only while holding the lock of its stripe, so patients are put in rooms of different stripes at the same time,
+ * while changes of the whole ward, like the discharges of a day, hold the locks of all stripes. With one stripe, the default,
+ * the rooms are taken in the same order as with a single lock.
+ * The room of a new patient is chosen by the placement mode of the ward, first fit by default, see PlacementMode.
+ * Every change of the beds raises the version of its stripe, and getCensus() gives an immutable copy of the beds at one version
+ * of all stripes, made without the locks, for queries that need all beds at once.
+ * Administering medication to patients. Each nurse owns a part of the rooms, every n-th room for n nurses, and gives every patient
+ * in her rooms all medicines of his treatment plan. The parts can be processed at the same time in a MedicationRound.
  */
 public class MedicalWard {
+    private static final int HISTOGRAM_DAYS = 8;  // days counted in the histogram of discharges
+    private static final int OPTIMISTIC_COPIES = 3; // copies of the beds without the lock before the lock is taken
     private final Specialization specialization;
-    private final Patient[][] patients; //Matrix, rooms and beds for patients
+    private final WardStorage storage;  // patients in the beds, bed number is room * bedsInRoom + bed
+    private final StorageMode storageMode;
+    private final PlacementMode placementMode;
+    private final int rooms;
+    private final int bedsInRoom;
+    private final int[] occupiedBeds;   // number of occupied beds in every room, changed while holding the lock of its stripe
+    private final RoomStripe[] stripes;     // stripe of room r is r % stripes.length
+    private final AtomicInteger freeBeds;   // number of free beds in the ward
+    private final AtomicIntegerArray occupiedBedsByGender = new AtomicIntegerArray(Gender.values().length);  // number of patients of every gender
+    private final AtomicIntegerArray roomsByGender = new AtomicIntegerArray(Gender.values().length);  // number of rooms with patients of every gender
+    private volatile int currentDay = 0;    // number of days passed in the ward
+    private final LongAdder admissions = new LongAdder();   // number of patients who got a bed in the ward
+    private volatile long discharges = 0;   // number of patients discharged from the ward
     private final ArrayList<Nurse> nursesList = new ArrayList<>();  // List of nurses in the ward
-    private int patientsForDischargingNextDay = 0;
+    private volatile WardCensus census; // last published copy of the beds, null before the first query
+    private volatile MedicationRound lastMedicationRound;   // last complete round of medicines, null if there was none
+    private volatile EventSink events = EventSink.noOp();   // receives discharges and medicines, by default they are ignored
 
     /**
      * Constructor that sets a medical ward
@@ -29,142 +68,775 @@ public class MedicalWard {
      * @param bedsInRoom number of beds in the room
      */
     public MedicalWard(Specialization specialization, int rooms, int bedsInRoom) {
+        this(specialization, rooms, bedsInRoom, StorageMode.OBJECTS);
+    }
+
+    /**
+     * Constructor that sets a medical ward with given storage of the patients
+     * @param specialization of the ward
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in the room
+     * @param mode way of keeping the patients
+     */
+    public MedicalWard(Specialization specialization, int rooms, int bedsInRoom, StorageMode mode) {
+        this(specialization, rooms, bedsInRoom, mode, 1);
+    }
+
+    /**
+     * Constructor that sets a medical ward with given storage of the patients and rooms split in stripes with their own locks
+     * @param specialization of the ward
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in the room
+     * @param mode way of keeping the patients
+     * @param stripes number of stripes of rooms, at most the number of rooms, 1 for one lock of the whole ward
+     */
+    public MedicalWard(Specialization specialization, int rooms, int bedsInRoom, StorageMode mode, int stripes) {
+        this(specialization, rooms, bedsInRoom, mode, stripes, PlacementMode.FIRST_FIT);
+    }
+
+    /**
+     * Constructor that sets a medical ward with given storage of the patients, stripes of rooms and way of choosing the rooms
+     * @param specialization of the ward
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in the room
+     * @param mode way of keeping the patients
+     * @param stripes number of stripes of rooms, at most the number of rooms, 1 for one lock of the whole ward
+     * @param placement way of choosing the room for a new patient
+     */
+    public MedicalWard(Specialization specialization, int rooms, int bedsInRoom, StorageMode mode, int stripes, PlacementMode placement) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Ward must have at least one stripe of rooms.");
+        }
         this.specialization = specialization;
-        patients = new Patient[rooms][bedsInRoom];
+        this.rooms = rooms;
+        this.bedsInRoom = bedsInRoom;
+        storageMode = mode;
+        placementMode = placement;
+        storage = WardStorage.create(mode, rooms * bedsInRoom);
+        occupiedBeds = new int[rooms];
+        this.stripes = new RoomStripe[Math.max(1, Math.min(stripes, rooms))];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new RoomStripe(i, this.stripes.length, rooms, bedsInRoom, placement);
+        }
+        freeBeds = new AtomicInteger(rooms * bedsInRoom);
     }
 
     /**
-     * A method that adds a patient to a medical ward. Checks for available beds in the room and for patients of the same sex.
+     * A method that adds a patient to a medical ward. Takes a room with patients of the same sex and a free bed,
+     * if there is no such room takes an empty room. Rooms are taken from the index, so no room is scanned.
      *
      * @param patient the patient to be added to the ward.
      * @return true if patient is added to ward and false if there are no free beds in the ward.
      */
     public boolean addPatient(Patient patient) {
-        Gender patientGender = patient.getGender();
-        int freeRoom = -1;
-
-        // loop for every room in ward
-        for (int i = 0; i < patients.length; i++) {
-            boolean flagForGender = false; // true if there is other patient in the room with same gender
-            int bed = -1;   // index of last free bed, -1 if there are no free beds
-            int freeBeds = 0;   // count of free beds in the room
-
-            // loop for every bed in the room
-            for (int j = 0; j < patients[i].length; j++) {
-
-                // if bed is empty rise the count of free beds and take index of the bed.
-                // else if patient in the bed is with same sex flag for gender become true
-                if (patients[i][j] == null) {
-                    freeBeds++;
-                    bed = j;
-                } else if (patients[i][j].getGender() == patientGender) {
-                    flagForGender = true;
+        return addPatient(patient, null);
+    }
+
+    /**
+     * Adds a patient to the ward like addPatient(Patient) and calls the action inside the change of his room, while still
+     * holding its lock, so the action is done before the ward starts the next day or discharges the patient, and a census
+     * copied during the action is copied again with the result of the action.
+     * The search starts from the stripe of the calling thread, so threads admitting at the same time take rooms of
+     * different stripes. Rooms with patients of the same sex are taken first in all stripes, then empty rooms.
+     *
+     * @param patient the patient to be added to the ward
+     * @param admitted action for the added patient, null for none
+     * @return true if patient is added to ward and false if there are no free beds for him
+     */
+    public boolean addPatient(Patient patient, Consumer<Patient> admitted) {
+        return addPatient(patient, -1, admitted);
+    }
+
+    /**
+     * Adds a patient like addPatient(Patient, Consumer) with the days of treatment decided before the placement,
+     * so the ward chooses his room by his real day of discharge.
+     *
+     * @param patient the patient to be added to the ward
+     * @param daysOfTreatment number of days in hospital before the day of discharge, negative to keep the day of discharge of the patient
+     * @param admitted action for the added patient, null for none
+     * @return true if patient is added to ward and false if there are no free beds for him
+     */
+    public boolean addPatient(Patient patient, int daysOfTreatment, Consumer<Patient> admitted) {
+        if (freeBeds.get() == 0) {
+            return false;
+        }
+        int first = (int) (Thread.currentThread().getId() % stripes.length);
+        for (int pass = 0; pass < 2; pass++) {  // second pass takes empty rooms even if other stripes have rooms of his sex
+            for (int i = 0; i < stripes.length; i++) {
+                RoomStripe stripe = stripes[(first + i) % stripes.length];
+                stripe.lock.lock();
+                try {
+                    if (admit(stripe, patient, daysOfTreatment, pass > 0, admitted)) {
+                        return true;
+                    }
+                } finally {
+                    stripe.lock.unlock();
                 }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds patients to the ward, taking the locks of the ward once for all of them. Patients are taken in order of the list,
+     * every patient gets a bed from the index of rooms of his gender, so the list is processed in one pass.
+     *
+     * @param patients patients to be added to the ward
+     * @return for every patient true if he is added, false if there was no free bed for him
+     */
+    public boolean[] addPatients(List<Patient> patients) {
+        return addPatients(patients, null);
+    }
 
+    /**
+     * Adds patients to the ward like addPatients(List) and calls the action with the index of every added patient,
+     * in order of the list, inside the change of his room while still holding the locks of the ward.
+     *
+     * @param patients patients to be added to the ward
+     * @param admitted action for the index of every added patient in the list, null for none
+     * @return for every patient true if he is added, false if there was no free bed for him
+     */
+    public boolean[] addPatients(List<Patient> patients, IntConsumer admitted) {
+        return addPatients(patients, null, admitted);
+    }
+
+    /**
+     * Adds patients like addPatients(List, IntConsumer) with the days of treatment of every patient decided before the placement.
+     *
+     * @param patients patients to be added to the ward
+     * @param daysOfTreatment days of treatment for the index of every patient in the list, null to keep their days of discharge
+     * @param admitted action for the index of every added patient in the list, null for none
+     * @return for every patient true if he is added, false if there was no free bed for him
+     */
+    public boolean[] addPatients(List<Patient> patients, IntUnaryOperator daysOfTreatment, IntConsumer admitted) {
+        boolean[] added = new boolean[patients.size()];
+        lockAll();
+        try {
+            for (int i = 0; i < added.length && freeBeds.get() > 0; i++) {
+                int index = i;
+                added[i] = admit(patients.get(i), daysOfTreatment == null ? -1 : daysOfTreatment.applyAsInt(i),
+                        admitted == null ? null : patient -> admitted.accept(index));
             }
+        } finally {
+            unlockAll();
+        }
+        return added;
+    }
 
-            // if there are free beds in room and patients inside are with same sex, patient is accepted to room and method returns true
-            if (bed > -1 && flagForGender) {
-                patients[i][bed] = patient;
-                patient.setRoom(i);
-                return true;
+    /**
+     * Puts the patient in a room of any stripe, called while holding the locks of all stripes.
+     * @param patient the patient to be added to the ward
+     * @param daysOfTreatment number of days in hospital before the day of discharge, negative to keep his day of discharge
+     * @param admitted action for the added patient, null for none
+     * @return true if patient is added to ward and false if there are no free beds for him
+     */
+    private boolean admit(Patient patient, int daysOfTreatment, Consumer<Patient> admitted) {
+        for (int pass = 0; pass < 2; pass++) {
+            for (RoomStripe stripe : stripes) {
+                if (admit(stripe, patient, daysOfTreatment, pass > 0, admitted)) {
+                    return true;
+                }
             }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a room of the stripe with patients of the same sex and a free bed, or an empty room, and puts the patient
+     * in the first free bed. An empty room is taken only if no stripe has a free bed in a room of the same sex,
+     * or if the caller allows it, so the rooms are not split between the sexes more than needed, and only if the
+     * placement of the ward lets the sex of the patient take one more room.
+     * Called while holding the lock of the stripe.
+     *
+     * @param stripe stripe of rooms
+     * @param patient the patient to be added to the ward
+     * @param daysOfTreatment number of days in hospital before the day of discharge, negative to keep his day of discharge
+     * @param anyEmptyRoom true if an empty room can be taken even when other stripes have rooms of his sex
+     * @param admitted action for the added patient, called before the change of the stripe ends, null for none
+     * @return true if patient is added to the stripe and false if there are no free beds for him
+     */
+    private boolean admit(RoomStripe stripe, Patient patient, int daysOfTreatment, boolean anyEmptyRoom, Consumer<Patient> admitted) {
+        Gender patientGender = patient.getGender();
+        // patient without treatment is discharged next day
+        int dischargeDay = daysOfTreatment < 0 ? Math.max(patient.getDischargeDay(), currentDay + 1) : currentDay + daysOfTreatment + 1;
+        int room = stripe.partiallyFilledRoom(patientGender, dischargeDay);  // room with same sex patients and free bed
+        if (room < 0 && (anyEmptyRoom || getFreeBedsInOwnRooms(patientGender) == 0) && mayOpenRoom(stripe, patientGender)) {
+            room = stripe.emptyRoom();  // if there is no such room take an empty one
+        }
+        // if there are no free beds in rooms method returns false
+        if (room < 0) {
+            return false;
+        }
+
+        // take first free bed in the room
+        int bed = 0;
+        while (storage.get(room * bedsInRoom + bed) != null) {
+            bed++;
+        }
+        stripe.beginChange();
+        patient.setRoom(room);
+        patient.setBed(bed);
+        patient.setDischargeDay(dischargeDay);
+        occupyBed(stripe, room, bed, patient);
+        if (admitted != null) {
+            admitted.accept(patient);
+        }
+        stripe.endChange();
+        admissions.increment();
+        return true;
+    }
 
-            // if room is empty, takes its index
-            if (freeBeds == patients[i].length) {
-                freeRoom = i;
+    /**
+     * @param stripe stripe of rooms
+     * @param gender gender of the patient
+     * @return true if the placement lets the patient take an empty room, counted from the rooms of the whole ward
+     */
+    private boolean mayOpenRoom(RoomStripe stripe, Gender gender) {
+        int ownRooms = 0;
+        int otherRooms = 0;
+        for (Gender g : Gender.values()) {
+            if (g == gender) {
+                ownRooms = roomsByGender.get(g.ordinal());
+            } else {
+                otherRooms = Math.max(otherRooms, roomsByGender.get(g.ordinal()));
             }
+        }
+        int emptyRooms = rooms;
+        for (int i = 0; i < roomsByGender.length(); i++) {
+            emptyRooms -= roomsByGender.get(i);
+        }
+        return stripe.mayOpenRoom(gender, emptyRooms, ownRooms, otherRooms, rooms);
+    }
 
+    /**
+     * @param stripe stripe of the room
+     * @param room index of the room
+     * @return last day of discharge of the patients in the room, 0 if the placement does not use the days
+     */
+    private int getRoomDischargeDay(RoomStripe stripe, int room) {
+        if (!stripe.usesDischargeDays()) {
+            return 0;
         }
-        // if there is free room, patient is accepted there and method returns true
-        if (freeRoom > -1) {
-            patients[freeRoom][0] = patient;
-            patient.setRoom(freeRoom);
+        int day = 0;
+        for (int bed = 0; bed < bedsInRoom; bed++) {
+            Patient patient = storage.get(room * bedsInRoom + bed);
+            if (patient != null) {
+                day = Math.max(day, patient.getDischargeDay());
+            }
+        }
+        return day;
+    }
+
+    /**
+     * @param gender gender of patients
+     * @return free beds in the rooms with patients of the gender in all stripes
+     */
+    private int getFreeBedsInOwnRooms(Gender gender) {
+        return roomsByGender.get(gender.ordinal()) * bedsInRoom - occupiedBedsByGender.get(gender.ordinal());
+    }
+
+    /**
+     * Puts a patient of a saved ward in the room and the bed written in his data, with his day of discharge.
+     * Used when a hospital is loaded, the day of the ward must be set before the patients.
+     *
+     * @param patient the patient to be added to the ward.
+     * @return true if patient is added, false if the bed is taken, the room has patients of the other sex
+     * or his day of discharge is already passed.
+     */
+    public boolean restorePatient(Patient patient) {
+        int room = patient.getRoom();
+        int bed = patient.getBed();
+        if (room < 0 || room >= rooms || bed < 0 || bed >= bedsInRoom || patient.getDischargeDay() <= currentDay) {
+            return false;
+        }
+        RoomStripe stripe = stripes[room % stripes.length];
+        stripe.lock.lock();
+        try {
+            if (storage.get(room * bedsInRoom + bed) != null) {
+                return false;
+            }
+            if (occupiedBeds[room] > 0 && !stripe.isPartiallyFilled(room, patient.getGender())) {   // room of the other sex
+                return false;
+            }
+            stripe.beginChange();
+            occupyBed(stripe, room, bed, patient);
+            stripe.endChange();
             return true;
+        } finally {
+            stripe.lock.unlock();
         }
-        // if there are no free beds in rooms method returns false
-        return false;
     }
 
     /**
-     * Removing the patient from ward. Check every room in ward for the patient and remove him.
+     * Puts the patients of a saved ward in their beds like restorePatient(Patient) for every patient.
+     * Used when a hospital is loaded, before the ward is used by other threads, so the locks are not taken,
+     * the counters are changed once for all patients and every taken room is moved in the index once at the end.
+     *
+     * @param patients patients of the ward with room, bed and day of discharge set
+     * @return number of restored patients, less than the size of the list if a patient can not be put in his bed,
+     * the patients after him are not restored
+     */
+    public int restorePatients(List<Patient> patients) {
+        Gender[] genders = Gender.values();
+        int[] slots = new int[patients.size()];     // bed of every restored patient
+        BitSet restoredBeds = new BitSet(rooms * bedsInRoom);
+        int[] takenRooms = new int[Math.min(rooms, patients.size())];   // rooms that got patients, in order
+        int takenCount = 0;
+        byte[] roomGenders = new byte[rooms];   // ordinal + 1 of the gender of the rooms that got patients, 0 for the others
+        int[] patientsByGender = new int[genders.length];
+        int[] openedByGender = new int[genders.length];  // empty rooms taken by every gender
+        int restored = 0;
+        for (Patient patient : patients) {
+            int room = patient.getRoom();
+            int bed = patient.getBed();
+            if (room < 0 || room >= rooms || bed < 0 || bed >= bedsInRoom || patient.getDischargeDay() <= currentDay) {
+                break;
+            }
+            int slot = room * bedsInRoom + bed;
+            if (storage.get(slot) != null || restoredBeds.get(slot)) {
+                break;
+            }
+            Gender patientGender = patient.getGender();
+            if (roomGenders[room] == 0) {   // first restored patient in the room
+                if (occupiedBeds[room] == 0) {
+                    openedByGender[patientGender.ordinal()]++;
+                } else if (getRoomGender(room) != patientGender) {   // room of the other sex
+                    break;
+                }
+                roomGenders[room] = (byte) (patientGender.ordinal() + 1);
+                takenRooms[takenCount++] = room;
+            } else if (roomGenders[room] != patientGender.ordinal() + 1) {
+                break;
+            }
+            restoredBeds.set(slot);
+            slots[restored++] = slot;
+            occupiedBeds[room]++;
+            patientsByGender[patientGender.ordinal()]++;
+            patient.setWard(this);
+        }
+        for (RoomStripe stripe : stripes) {
+            stripe.beginChange();
+        }
+        storage.putAll(slots, patients.subList(0, restored));
+        for (int i = 0; i < takenCount; i++) {
+            int room = takenRooms[i];
+            RoomStripe stripe = stripes[room % stripes.length];
+            stripe.update(room, genders[roomGenders[room] - 1], occupiedBeds[room], getRoomDischargeDay(stripe, room));
+        }
+        for (int g = 0; g < patientsByGender.length; g++) {
+            occupiedBedsByGender.addAndGet(g, patientsByGender[g]);
+            roomsByGender.addAndGet(g, openedByGender[g]);
+        }
+        freeBeds.addAndGet(-restored);
+        for (RoomStripe stripe : stripes) {
+            stripe.endChange();
+        }
+        return restored;
+    }
+
+    /**
+     * @param room index of a room with patients
+     * @return gender of the patients in the room
+     */
+    private Gender getRoomGender(int room) {
+        int bed = 0;
+        while (storage.get(room * bedsInRoom + bed) == null) {
+            bed++;
+        }
+        return storage.getGender(room * bedsInRoom + bed);
+    }
+
+    /**
+     * Puts the patient in the free bed and updates the index of rooms.
+     * @param stripe stripe of the room, its lock is held
+     * @param room index of the room
+     * @param bed index of the bed in the room
+     * @param patient patient with room, bed and day of discharge already set
+     */
+    private void occupyBed(RoomStripe stripe, int room, int bed, Patient patient) {
+        Gender patientGender = patient.getGender();
+        storage.put(room * bedsInRoom + bed, patient);
+        patient.setWard(this);
+        if (occupiedBeds[room]++ == 0) {    // empty room is taken by the sex of the patient
+            roomsByGender.incrementAndGet(patientGender.ordinal());
+        }
+        freeBeds.decrementAndGet();
+        occupiedBedsByGender.incrementAndGet(patientGender.ordinal());
+        stripe.update(room, patientGender, occupiedBeds[room], getRoomDischargeDay(stripe, room));
+    }
+
+    /**
+     * Removing the patient from ward. Takes the room and the bed of the patient and checks that he is there.
      *
      * @param patient to be removed from ward.
      * @return true if removing is successful, false if there is no such patient.
      */
     public boolean removePatient(Patient patient) {
-        // loop for every room in ward
-        for (int i = 0; i < patients.length; i++) {
-            // loop for every bed in room
-            for (int j = 0; j < patients[i].length; j++) {
+        return removePatient(patient, null);
+    }
 
+    /**
+     * Removes the patient like removePatient(Patient) and calls the action inside the change of his room, while still
+     * holding its lock, so the action is done before the bed is taken by another patient.
+     *
+     * @param patient to be removed from ward
+     * @param removed action for the removed patient, null for none
+     * @return true if removing is successful, false if there is no such patient
+     */
+    public boolean removePatient(Patient patient, Consumer<Patient> removed) {
+        int room = patient.getRoom();
+        if (room >= 0 && room < rooms) {
+            RoomStripe stripe = stripes[room % stripes.length];
+            stripe.lock.lock();
+            try {
                 // if patient match, remove him from array and return true
-                if (patients[i][j] == patient) {
-                    patients[i][j] = null;
+                if (isInWard(patient)) {
+                    stripe.beginChange();
+                    releaseBed(stripe, room, patient.getBed());
+                    if (removed != null) {
+                        removed.accept(patient);
+                    }
+                    stripe.endChange();
                     return true;
                 }
+            } finally {
+                stripe.lock.unlock();
             }
         }
-        System.out.println("No such patient in the ward.");
+        events.notInWard(patient);
         return false;
     }
 
     /**
-     * This method must be start at the beginning of every day. For every patient in ward it decrease number of days for treatment. If days are 0 or negative, the patient is discharged from ward.
+     * Frees the bed and updates the index of rooms.
+     * @param stripe stripe of the room, its lock is held
+     * @param room index of the room
+     * @param bed index of the bed in the room
+     */
+    private void releaseBed(RoomStripe stripe, int room, int bed) {
+        Gender patientGender = storage.getGender(room * bedsInRoom + bed);
+        storage.get(room * bedsInRoom + bed).setWard(null);
+        storage.remove(room * bedsInRoom + bed);
+        occupiedBeds[room]--;
+        freeBeds.incrementAndGet();
+        occupiedBedsByGender.decrementAndGet(patientGender.ordinal());
+        if (occupiedBeds[room] == 0) {  // room is empty and can take patients of any sex
+            roomsByGender.decrementAndGet(patientGender.ordinal());
+        }
+        stripe.update(room, patientGender, occupiedBeds[room], getRoomDischargeDay(stripe, room));
+    }
+
+    /**
+     * Sets the day of discharge for a patient from the days of treatment and moves him in the bucket of that day, if he is in the ward.
+     * The patient is discharged on the day after the last day of treatment.
+     *
+     * @param patient patient in the ward
+     * @param daysOfTreatment number of remaining days in hospital
+     * @return true if the patient is in the ward
+     */
+    public boolean setDaysOfTreatment(Patient patient, int daysOfTreatment) {
+        return setDaysOfTreatment(patient, daysOfTreatment, null);
+    }
+
+    /**
+     * Sets the days of treatment like setDaysOfTreatment(Patient, int) and calls the action inside the change of the room
+     * of the patient, while still holding its lock, if he is in the ward.
+     *
+     * @param patient patient in the ward
+     * @param daysOfTreatment number of remaining days in hospital
+     * @param changed action for the patient in the ward, null for none
+     * @return true if the patient is in the ward
+     */
+    public boolean setDaysOfTreatment(Patient patient, int daysOfTreatment, Consumer<Patient> changed) {
+        int room = patient.getRoom();
+        if (room < 0 || room >= rooms) {
+            patient.setDischargeDay(currentDay + daysOfTreatment + 1);
+            return false;
+        }
+        RoomStripe stripe = stripes[room % stripes.length];
+        stripe.lock.lock();
+        try {
+            int day = currentDay + daysOfTreatment + 1;
+            boolean inWard = isInWard(patient);
+            stripe.beginChange();
+            if (inWard) {
+                storage.setDischargeDay(room * bedsInRoom + patient.getBed(), day);
+            }
+            patient.setDischargeDay(day);
+            if (inWard && stripe.usesDischargeDays()) {     // the room can stay longer or shorter
+                stripe.update(room, patient.getGender(), occupiedBeds[room], getRoomDischargeDay(stripe, room));
+            }
+            if (inWard && changed != null) {
+                changed.accept(patient);
+            }
+            stripe.endChange();
+            return inWard;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @param patient patient
+     * @return true if the patient is in the bed written in his data
+     */
+    private boolean isInWard(Patient patient) {
+        int room = patient.getRoom();
+        int bed = patient.getBed();
+        return room >= 0 && room < rooms && bed >= 0 && bed < bedsInRoom && storage.get(room * bedsInRoom + bed) == patient;
+    }
+
+    /**
+     * This method must be start at the beginning of every day. Starts the next day and discharges the patients with that day of discharge.
+     * Patients are discharged in order of rooms and beds.
      * @return list of discharged patients
      */
     public ArrayList<Patient> patientDischarge() {
-        patientsForDischargingNextDay = 0;
+        return patientDischarge(null);
+    }
+
+    /**
+     * Starts the next day like patientDischarge() and calls the action for every discharged patient inside the change
+     * of the ward, while still holding its locks.
+     * @param discharged action for every discharged patient, null for none
+     * @return list of discharged patients
+     */
+    public ArrayList<Patient> patientDischarge(Consumer<Patient> discharged) {
         ArrayList<Patient> dischargedPatients = new ArrayList<>();
-        // loop for every room in ward
-        for (int i = 0; i < patients.length; i++) {
-            // loop for every bed in room
-            for (int j = 0; j < patients[i].length; j++) {
-                // check if there is anu patient in bed
-                if (patients[i][j] != null) {
-                    // if days of treatment are above 0, decrease it by one. Else discharge patient
-                    if (patients[i][j].getDaysOfTreatment() > 0) {
-                        patients[i][j].setDaysOfTreatment(patients[i][j].getDaysOfTreatment() - 1);
-                        // count patients that will be discharged next day
-                        if(patients[i][j].getDaysOfTreatment() == 0){
-                            patientsForDischargingNextDay ++;
-                        }
-
-                    } else {
-                        System.out.println("Patient " + patients[i][j].getName() + ", sex: " + patients[i][j].getGender().toString().toLowerCase() + ", specialization: " + patients[i][j].getSpec().toString().toLowerCase() + " is discharged.");
-                        dischargedPatients.add(patients[i][j]); // add patient to return list
-                        patients[i][j] = null;
-                    }
+        lockAll();
+        try {
+            beginChangeAll();
+            currentDay++;
+            storage.collectDischarges(currentDay, dischargedPatients);
+            for (Patient patient : dischargedPatients) {
+                events.discharge(patient);
+                releaseBed(stripes[patient.getRoom() % stripes.length], patient.getRoom(), patient.getBed());
+                if (discharged != null) {
+                    discharged.accept(patient);
                 }
             }
+            endChangeAll();
+            discharges += dischargedPatients.size();
+        } finally {
+            unlockAll();
         }
         return dischargedPatients;
     }
 
     /**
-     * Every nurse in the ward gives a medicine to patients in a separate room
+     * Every nurse in the ward gives medicines to patients in her rooms, the rooms are processed in order on the calling thread
+     * @return the round of medicines, null if there are no nurses in the ward
      */
-    public void patientsTakingPills(){
-        int nursesNumber = nursesList.size();   // takes number of nurses in ward
-        if (nursesNumber < 1){  // if there's no nurses in ward abort method
-            System.out.println("No nurse to give a pills.");
-            return;
+    public MedicationRound patientsTakingPills(){
+        MedicationRound round = startMedicationRound();
+        if (round != null) {
+            round.run();
         }
-        int count = 0;  // count for nurses in ward
-        // loop for every room in ward
-        for (int i = 0; i < patients.length; i++) {
-            Nurse nurse = nursesList.get(count%nursesNumber);   // for every room we have different nurse
-            // loop for every bed in room
-            for (int j = 0; j < patients[i].length; j++) {
-                // check if there is any patient in bed
-                if (patients[i][j] != null) {
-                    System.out.println("Nurse " + nurse.getName() + " give medicine to patient " + patients[i][j].getName() + " in room " + (i+1) + " section " + specialization);
+        return round;
+    }
+
+    /**
+     * Prepares the round of medicines, the caller runs it or its tasks for every nurse
+     * @return new round of medicines, null if there are no nurses in the ward
+     */
+    public MedicationRound startMedicationRound() {
+        if (nursesList.isEmpty()){  // if there's no nurses in ward abort method
+            events.noNurse(specialization);
+            return null;
+        }
+        return new MedicationRound(this, nursesList);
+    }
+
+    /**
+     * The nurse gives every patient in the room all medicines of his treatment plan. Patients who are not examined yet
+     * get the medicine event but no doses.
+     * @param nurse nurse of the room
+     * @param room index of the room
+     * @return number of patients in the upper 32 bits and number of doses in the lower 32 bits
+     */
+    long giveMedicines(Nurse nurse, int room) {
+        int patients = 0;
+        int doses = 0;
+        // loop for every bed in room
+        for (int j = 0; j < bedsInRoom; j++) {
+            // check if there is any patient in bed
+            Patient patient = storage.get(room * bedsInRoom + j);
+            if (patient != null) {
+                events.medicine(nurse, patient, room + 1, specialization);
+                Medication[] medications = patient.getMedications();
+                patients++;
+                doses += medications == null ? 0 : medications.length;
+            }
+        }
+        return (long) patients << 32 | doses;
+    }
+
+    void setLastMedicationRound(MedicationRound round) {
+        lastMedicationRound = round;
+    }
+
+    /**
+     * @return last complete round of medicines, null if there was none
+     */
+    public MedicationRound getLastMedicationRound() {
+        return lastMedicationRound;
+    }
+
+    /**
+     * Takes the locks of all stripes in order of the stripes, for changes of the whole ward.
+     */
+    private void lockAll() {
+        for (RoomStripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a change of all stripes, called while holding the locks of all stripes.
+     */
+    private void beginChangeAll() {
+        for (RoomStripe stripe : stripes) {
+            stripe.beginChange();
+        }
+    }
+
+    private void endChangeAll() {
+        for (RoomStripe stripe : stripes) {
+            stripe.endChange();
+        }
+    }
+
+    /**
+     * @return sum of the versions of the stripes, bigger after every change of the ward
+     */
+    private long getVersion() {
+        long version = 0;
+        for (RoomStripe stripe : stripes) {
+            version += stripe.getVersion();
+        }
+        return version;
+    }
+
+    /**
+     * Returns the census of the beds at the current version of the ward. The census is made again only when the ward
+     * has changed since the last one and is shared by all readers of the same version.
+     * The beds are copied without the locks of the ward, the copy is used only if the versions of all stripes were even
+     * and the same before and after copying, so admissions and discharges never wait for readers. If the ward keeps
+     * changing during a few copies, the last copy is made while holding the locks of all stripes.
+     *
+     * @return immutable census of the ward
+     */
+    public WardCensus getCensus() {
+        WardCensus last = census;
+        if (last != null && last.getVersion() == getVersion()) {
+            return last;
+        }
+        long[] before = new long[stripes.length];
+        for (int i = 0; i < OPTIMISTIC_COPIES; i++) {
+            if (readVersions(before)) {    // no change is running
+                WardCensus copy = copyBeds(sum(before));
+                VarHandle.loadLoadFence();  // the beds are read before the versions are read again
+                if (sameVersions(before)) {
+                    return publish(copy);
                 }
             }
-            count ++;
+            Thread.onSpinWait();
+        }
+        return lockedCensus();
+    }
+
+    /**
+     * Copies the beds while holding the locks of all stripes, the copy is always consistent but waits for the admissions
+     * and blocks them while the beds are copied.
+     *
+     * @return immutable census of the ward
+     */
+    public WardCensus lockedCensus() {
+        lockAll();
+        try {
+            return publish(copyBeds(getVersion()));
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * @param versions array for the version of every stripe
+     * @return true if no stripe was changing
+     */
+    private boolean readVersions(long[] versions) {
+        boolean even = true;
+        for (int i = 0; i < stripes.length; i++) {
+            versions[i] = stripes[i].getVersion();
+            even &= (versions[i] & 1) == 0;
+        }
+        return even;
+    }
+
+    /**
+     * @param versions version of every stripe read before
+     * @return true if no stripe has changed since
+     */
+    private boolean sameVersions(long[] versions) {
+        for (int i = 0; i < stripes.length; i++) {
+            if (stripes[i].getVersion() != versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long sum(long[] versions) {
+        long sum = 0;
+        for (long version : versions) {
+            sum += version;
+        }
+        return sum;
+    }
+
+    /**
+     * @param version version of the ward before the copy
+     * @return census with the beds, possibly torn if the ward was changed during the copy
+     */
+    private WardCensus copyBeds(long version) {
+        int beds = rooms * bedsInRoom;
+        Patient[] patients = new Patient[beds];
+        int[] dischargeDays = new int[beds];
+        Doctor[] doctors = new Doctor[beds];
+        for (int i = 0; i < beds; i++) {
+            Patient patient = storage.get(i);
+            if (patient != null) {
+                patients[i] = patient;
+                dischargeDays[i] = patient.getDischargeDay();
+                doctors[i] = patient.getAttendingDoctor();
+            }
         }
+        return new WardCensus(specialization, version, currentDay, rooms, bedsInRoom, patients, dischargeDays, doctors);
+    }
 
+    /**
+     * Keeps the census for the next readers, unless a newer one was already kept.
+     */
+    private WardCensus publish(WardCensus copy) {
+        WardCensus last = census;
+        if (last == null || last.getVersion() < copy.getVersion()) {
+            census = copy;
+        }
+        return copy;
+    }
 
+    /**
+     * Sets the receiver of the events of the ward
+     * @param events sink for discharges and medicines
+     */
+    public void setEventSink(EventSink events) {
+        this.events = events;
     }
 
     /**
@@ -183,29 +855,166 @@ public class MedicalWard {
         return specialization;
     }
 
+    public int getRooms() {
+        return rooms;
+    }
+
+    public int getBedsInRoom() {
+        return bedsInRoom;
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    public PlacementMode getPlacementMode() {
+        return placementMode;
+    }
+
+    /**
+     * @param room index of the room
+     * @param bed index of the bed in the room
+     * @return patient in the bed, null if the bed is free
+     */
+    public Patient getPatient(int room, int bed) {
+        return storage.get(room * bedsInRoom + bed);
+    }
+
     /**
-     * Count every unoccupied bed in the ward
      * @return count of unoccupied beds in the ward
      */
     public int getFreeBeds(){
-        int count = 0;
-        // loop for every room in ward
-        for (Patient[] room : patients) {
-            // loop for every bed in room
-            for (Patient patient : room) {
-                // check if there is patient in the bed
-                if (patient == null) {
-                    count++;
+        return freeBeds.get();
+    }
+
+    /**
+     * @return number of patients who got a bed in the ward, without the patients of a loaded snapshot
+     */
+    public long getAdmissions() {
+        return admissions.sum();
+    }
+
+    /**
+     * @return number of patients discharged from the ward
+     */
+    public long getDischarges() {
+        return discharges;
+    }
+
+    /**
+     * @return number of beds in the ward
+     */
+    public int getCapacity() {
+        return rooms * bedsInRoom;
+    }
+
+    /**
+     * @return count of occupied beds in the ward
+     */
+    public int getOccupiedBeds() {
+        return getCapacity() - freeBeds.get();
+    }
+
+    /**
+     * @param gender gender of patients
+     * @return count of beds occupied by patients of the gender
+     */
+    public int getOccupiedBeds(Gender gender) {
+        return occupiedBedsByGender.get(gender.ordinal());
+    }
+
+    /**
+     * Free beds that a patient of the gender can take: free beds in the rooms of his sex and all beds of the empty rooms.
+     * Read from the counters without the lock of the ward.
+     *
+     * @param gender gender of the patient
+     * @return number of free beds for patients of the gender
+     */
+    public int getFreeBeds(Gender gender) {
+        int emptyRooms = rooms;
+        for (int i = 0; i < roomsByGender.length(); i++) {
+            emptyRooms -= roomsByGender.get(i);
+        }
+        int ownRooms = roomsByGender.get(gender.ordinal());
+        return (emptyRooms + ownRooms) * bedsInRoom - occupiedBedsByGender.get(gender.ordinal());
+    }
+
+    /**
+     * @return number of days passed in the ward
+     */
+    public int getCurrentDay() {
+        return currentDay;
+    }
+
+    /**
+     * Sets number of days passed in the ward, used when a saved ward is loaded before its patients are restored.
+     * @param currentDay number of days passed in the ward
+     */
+    public void setCurrentDay(int currentDay) {
+        lockAll();
+        try {
+            beginChangeAll();
+            this.currentDay = currentDay;
+            endChangeAll();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Returns the patients for discharging on next day, read at one version of all stripes like getCensus().
+     * If the ward keeps changing during a few reads, the last read is made while holding the locks of all stripes.
+     *
+     * @return patients for discharging on next day
+     */
+    public ArrayList<Patient> getPatientsForDischargingNextDay() {
+        ArrayList<Patient> patients = new ArrayList<>();
+        long[] before = new long[stripes.length];
+        for (int i = 0; i < OPTIMISTIC_COPIES; i++) {
+            if (readVersions(before)) {    // no change is running
+                storage.collectDischarges(currentDay + 1, patients);
+                VarHandle.loadLoadFence();  // the beds are read before the versions are read again
+                if (sameVersions(before)) {
+                    return patients;
                 }
+                patients.clear();
             }
+            Thread.onSpinWait();
         }
-        return count;
+        lockAll();
+        try {
+            storage.collectDischarges(currentDay + 1, patients);
+        } finally {
+            unlockAll();
+        }
+        return patients;
     }
 
     /**
-     * @return number of patients for discharging on next day
+     * Returns number of patients discharged in each of the next days, index 0 are the patients discharged next day.
+     * The counts are read from the counters of the storage at one version of all stripes, like getPatientsForDischargingNextDay().
+     *
+     * @return number of patients for discharge for every next day
      */
-    public int getPatientsForDischargingNextDay() {
-        return patientsForDischargingNextDay;
+    public int[] getDischargeHistogram() {
+        int[] histogram = new int[HISTOGRAM_DAYS];
+        long[] before = new long[stripes.length];
+        for (int i = 0; i < OPTIMISTIC_COPIES; i++) {
+            if (readVersions(before)) {    // no change is running
+                storage.countDischarges(currentDay, histogram);
+                VarHandle.loadLoadFence();  // the counters are read before the versions are read again
+                if (sameVersions(before)) {
+                    return histogram;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        lockAll();
+        try {
+            storage.countDischarges(currentDay, histogram);
+        } finally {
+            unlockAll();
+        }
+        return histogram;
     }
 }
@@ -0,0 +1,182 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Nurse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One daily round of medicines in a ward.
+ * Every nurse owns a part of the rooms, nurse k of n nurses serves rooms k, k + n, k + 2n and so on, and gives every patient
+ * in her rooms all medicines of his treatment plan at once. The parts never share a room, so the nurses can go around
+ * at the same time without a lock, every nurse counting only her own patients and doses.
+ * The round can be run on the calling thread, room after room in order, or as one task for every nurse.
+ * It is complete when the last nurse finishes, then the ward keeps it as its last round.
+ */
+public class MedicationRound {
+    private final MedicalWard ward;
+    private final List<Nurse> nurses;
+    private final int[] patients;   // patients served by every nurse
+    private final int[] doses;      // medicines given by every nurse
+    private final long[] nurseNanos;    // time every nurse spent on her rooms in nanoseconds, measured only for the tasks
+    private final AtomicInteger unfinishedNurses;
+    private final long start = System.nanoTime();
+    private volatile long completionNanos = -1;    // time from the start to the end of the last nurse, -1 while the round is running
+
+    /**
+     * @param ward ward of the round
+     * @param nurses nurses of the ward, at least one
+     */
+    MedicationRound(MedicalWard ward, List<Nurse> nurses) {
+        this.ward = ward;
+        this.nurses = nurses;
+        patients = new int[nurses.size()];
+        doses = new int[nurses.size()];
+        nurseNanos = new long[nurses.size()];
+        unfinishedNurses = new AtomicInteger(nurses.size());
+    }
+
+    /**
+     * Runs the whole round on the calling thread, room after room in order of the rooms. The time of every nurse is not measured,
+     * reading the clock for every room would cost more than the room.
+     */
+    public void run() {
+        int nursesNumber = nurses.size();
+        for (int room = 0; room < ward.getRooms(); room++) {
+            giveMedicines(room % nursesNumber, room);
+        }
+        unfinishedNurses.set(0);
+        complete();
+    }
+
+    /**
+     * @return task for every nurse that goes around her rooms, the round is complete when all tasks have finished
+     */
+    public List<Callable<Object>> getNurseTasks() {
+        List<Callable<Object>> tasks = new ArrayList<>(nurses.size());
+        for (int i = 0; i < nurses.size(); i++) {
+            int nurse = i;
+            tasks.add(() -> {
+                runNurse(nurse);
+                return null;
+            });
+        }
+        return tasks;
+    }
+
+    /**
+     * The nurse goes around her rooms.
+     * @param nurse index of the nurse
+     */
+    private void runNurse(int nurse) {
+        long nurseStart = System.nanoTime();
+        for (int room = nurse; room < ward.getRooms(); room += nurses.size()) {
+            giveMedicines(nurse, room);
+        }
+        nurseNanos[nurse] = System.nanoTime() - nurseStart;
+        if (unfinishedNurses.decrementAndGet() == 0) {  // the last nurse completes the round
+            complete();
+        }
+    }
+
+    /**
+     * The nurse gives the patients of the room their medicines.
+     * @param nurse index of the nurse
+     * @param room index of the room
+     */
+    private void giveMedicines(int nurse, int room) {
+        long given = ward.giveMedicines(nurses.get(nurse), room);
+        patients[nurse] += (int) (given >>> 32);
+        doses[nurse] += (int) given;
+    }
+
+    private void complete() {
+        completionNanos = System.nanoTime() - start;
+        ward.setLastMedicationRound(this);
+    }
+
+    public Specialization getSpecialization() {
+        return ward.getSpecialization();
+    }
+
+    /**
+     * @return true if all nurses have finished
+     */
+    public boolean isComplete() {
+        return completionNanos >= 0;
+    }
+
+    /**
+     * @return time from the start of the round to the end of the last nurse in nanoseconds, -1 if the round is running
+     */
+    public long getCompletionNanos() {
+        return completionNanos;
+    }
+
+    public int getNursesCount() {
+        return nurses.size();
+    }
+
+    /**
+     * @param nurse index of the nurse in the ward
+     * @return patients served by the nurse, read after the round is complete
+     */
+    public int getPatients(int nurse) {
+        return patients[nurse];
+    }
+
+    /**
+     * @param nurse index of the nurse in the ward
+     * @return medicines given by the nurse, read after the round is complete
+     */
+    public int getDoses(int nurse) {
+        return doses[nurse];
+    }
+
+    /**
+     * @param nurse index of the nurse in the ward
+     * @return time the nurse spent on her rooms in nanoseconds, read after the round is complete, 0 if the round was run on one thread
+     */
+    public long getNurseNanos(int nurse) {
+        return nurseNanos[nurse];
+    }
+
+    /**
+     * @return patients served by all nurses
+     */
+    public int getPatients() {
+        int total = 0;
+        for (int p : patients) {
+            total += p;
+        }
+        return total;
+    }
+
+    /**
+     * @return medicines given by all nurses
+     */
+    public int getDoses() {
+        int total = 0;
+        for (int d : doses) {
+            total += d;
+        }
+        return total;
+    }
+
+    /**
+     * Doses of the busiest nurse. The round can not be shorter than her work, so a ward needs more nurses when this
+     * number is more than one nurse can give in the time of the round.
+     *
+     * @return most medicines given by one nurse
+     */
+    public int getMaxDoses() {
+        int max = 0;
+        for (int d : doses) {
+            max = Math.max(max, d);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,11 @@
+package Hospital.model.facilities;
+
+/**
+ * Ways in which a medical ward chooses the room for a new patient.
+ */
+public enum PlacementMode {
+    FIRST_FIT,      // last room of the same sex that got a free bed, else the last empty room
+    BEST_FIT,       // room of the same sex with the fewest free beds, so rooms are filled before new ones are opened
+    GENDER_BALANCED,    // as FIRST_FIT, but the last empty rooms are kept for the sex with fewer rooms
+    DISCHARGE_CLUSTERING    // room of the same sex whose patients leave on the closest day, so rooms empty at once
+}
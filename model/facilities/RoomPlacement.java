@@ -0,0 +1,78 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+
+/**
+ * Index of the rooms of one stripe of a medical ward that chooses the room for a new patient.
+ * Rooms are numbered by their local index in the stripe. The ward calls the methods only while holding the lock of the stripe,
+ * and tells the index about every change of a room, so choosing a room never scans the rooms.
+ */
+interface RoomPlacement {
+
+    /**
+     * @param gender gender of the patient
+     * @param dischargeDay day of discharge of the patient, the next day if it is not decided yet
+     * @return room with patients of the gender and a free bed, -1 if there is none
+     */
+    int partiallyFilledRoom(Gender gender, int dischargeDay);
+
+    /**
+     * @return empty room, -1 if there is none
+     */
+    int emptyRoom();
+
+    /**
+     * @param room local index of the room
+     * @param gender gender of patients
+     * @return true if the room has patients of the gender and a free bed
+     */
+    boolean isPartiallyFilled(int room, Gender gender);
+
+    /**
+     * Moves the room in the index after a patient was put in it or taken from it, or his day of discharge was changed.
+     * @param room local index of the room
+     * @param gender gender of the patients in the room
+     * @param occupied occupied beds in the room
+     * @param roomDischargeDay last day of discharge of the patients in the room, 0 if the index does not use the days
+     */
+    void update(int room, Gender gender, int occupied, int roomDischargeDay);
+
+    /**
+     * @return true if the index needs the days of discharge of the rooms
+     */
+    default boolean usesDischargeDays() {
+        return false;
+    }
+
+    /**
+     * Tells if a patient may take an empty room when there is no room of his sex with a free bed, counted in the whole ward.
+     * @param gender gender of the patient
+     * @param emptyRooms empty rooms in the ward
+     * @param ownRooms rooms with patients of the gender
+     * @param otherRooms rooms with patients of the other sex
+     * @param rooms rooms in the ward
+     * @return true if the patient may take an empty room
+     */
+    default boolean mayOpenRoom(Gender gender, int emptyRooms, int ownRooms, int otherRooms, int rooms) {
+        return true;
+    }
+
+    /**
+     * @param mode way of choosing rooms
+     * @param rooms number of rooms in the stripe
+     * @param bedsInRoom number of beds in every room
+     * @return new index with all rooms empty
+     */
+    static RoomPlacement create(PlacementMode mode, int rooms, int bedsInRoom) {
+        switch (mode) {
+            case BEST_FIT:
+                return new BestFitPlacement(rooms, bedsInRoom);
+            case GENDER_BALANCED:
+                return new GenderBalancedPlacement(rooms, bedsInRoom);
+            case DISCHARGE_CLUSTERING:
+                return new DischargeClusteringPlacement(rooms, bedsInRoom);
+            default:
+                return new FirstFitPlacement(rooms, bedsInRoom);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package Hospital.model.facilities;
+
+import java.util.Arrays;
+
+/**
+ * Set of room indexes used by the medical ward to find a room for a patient without scanning every room.
+ * Keeps the rooms in a dense array and the position of every room in a second array,
+ * so adding, removing and taking any room are all constant time.
+ */
+class RoomSet {
+    private final int[] rooms;      // dense array with the rooms in the set
+    private final int[] positions;  // position of every room in the dense array, -1 if the room is not in the set
+    private int size = 0;
+
+    /**
+     * @param capacity number of rooms in the ward
+     */
+    RoomSet(int capacity) {
+        rooms = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Adds room to the set, if it is already there nothing happens.
+     * @param room index of the room
+     */
+    void add(int room) {
+        if (positions[room] > -1) {
+            return;
+        }
+        rooms[size] = room;
+        positions[room] = size;
+        size++;
+    }
+
+    /**
+     * Removes room from the set, moving the last room on its place.
+     * @param room index of the room
+     */
+    void remove(int room) {
+        int position = positions[room];
+        if (position < 0) {
+            return;
+        }
+        size--;
+        int last = rooms[size];     // move last room in the place of removed one
+        rooms[position] = last;
+        positions[last] = position;
+        positions[room] = -1;
+    }
+
+    boolean contains(int room) {
+        return positions[room] > -1;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the room added last, -1 if the set is empty
+     */
+    int last() {
+        return size == 0 ? -1 : rooms[size - 1];
+    }
+}
@@ -0,0 +1,103 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Part of the rooms of a medical ward with its own lock. Stripe k of n owns rooms k, k + n, k + 2n and so on,
+ * and keeps its own RoomPlacement, the index that chooses a room for a new patient, by local index room / n.
+ * A room is changed only while holding the lock of its stripe, so patients can be put in rooms of different stripes
+ * at the same time and a room can never get patients of both sexes.
+ * Every stripe has its own version for the census, raised before and after every change of its rooms.
+ */
+class RoomStripe {
+    final ReentrantLock lock = new ReentrantLock();
+    private final int index;    // index of the stripe
+    private final int stripes;  // number of stripes of the ward
+    private final RoomPlacement placement;  // index of the rooms of the stripe
+    private volatile long version = 0;  // number of started and finished changes, odd while a change is running
+
+    /**
+     * @param index index of the stripe
+     * @param stripes number of stripes of the ward
+     * @param rooms number of rooms in the ward
+     * @param bedsInRoom number of beds in every room
+     * @param mode way of choosing rooms
+     */
+    RoomStripe(int index, int stripes, int rooms, int bedsInRoom, PlacementMode mode) {
+        this.index = index;
+        this.stripes = stripes;
+        placement = RoomPlacement.create(mode, (rooms - index + stripes - 1) / stripes, bedsInRoom);
+    }
+
+    /**
+     * @param gender gender of the patient
+     * @param dischargeDay day of discharge of the patient
+     * @return room of the stripe with patients of the gender and a free bed, -1 if there is none
+     */
+    int partiallyFilledRoom(Gender gender, int dischargeDay) {
+        return toRoom(placement.partiallyFilledRoom(gender, dischargeDay));
+    }
+
+    /**
+     * @return empty room of the stripe, -1 if there is none
+     */
+    int emptyRoom() {
+        return toRoom(placement.emptyRoom());
+    }
+
+    boolean isPartiallyFilled(int room, Gender gender) {
+        return placement.isPartiallyFilled(room / stripes, gender);
+    }
+
+    /**
+     * Moves the room in the index after a patient was put in it or taken from it, or his day of discharge was changed.
+     * @param room index of the room in the ward
+     * @param gender gender of the patients in the room
+     * @param occupied occupied beds in the room
+     * @param roomDischargeDay last day of discharge of the patients in the room, 0 if the index does not use the days
+     */
+    void update(int room, Gender gender, int occupied, int roomDischargeDay) {
+        placement.update(room / stripes, gender, occupied, roomDischargeDay);
+    }
+
+    /**
+     * @return true if the index of the rooms needs the days of discharge of the rooms
+     */
+    boolean usesDischargeDays() {
+        return placement.usesDischargeDays();
+    }
+
+    /**
+     * @return true if the patient may take an empty room, see RoomPlacement
+     */
+    boolean mayOpenRoom(Gender gender, int emptyRooms, int ownRooms, int otherRooms, int rooms) {
+        return placement.mayOpenRoom(gender, emptyRooms, ownRooms, otherRooms, rooms);
+    }
+
+    /**
+     * Starts a change of the rooms, called while holding the lock. Readers that copied the beds during the change
+     * see the odd version and copy them again.
+     */
+    void beginChange() {
+        version++;  // only the thread holding the lock writes the version
+        VarHandle.storeStoreFence();    // the odd version is visible before the changed beds
+    }
+
+    /**
+     * Ends a change of the rooms, the even version is written after all changes.
+     */
+    void endChange() {
+        version++;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    private int toRoom(int local) {
+        return local < 0 ? -1 : local * stripes + index;
+    }
+}
@@ -0,0 +1,10 @@
+package Hospital.model.facilities;
+
+/**
+ * Ways in which a medical ward keeps its patients.
+ */
+public enum StorageMode {
+    OBJECTS,    // array of patients and a set of patients for every day of discharge
+    COLUMNS,    // arrays of primitives for every bed, days of discharge are found by scanning the array
+    DIRECT_COLUMNS  // same as COLUMNS with the two columns in direct memory, the references to the patients stay on the heap
+}
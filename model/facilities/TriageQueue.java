@@ -0,0 +1,175 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Severity;
+import Hospital.model.metrics.Histogram;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Queue of patients waiting for examination, ordered by severity and time of arrival.
+ * Every patient gets a priority equal to his time of arrival less the head start of his severity, the patient with the smallest
+ * priority is examined first and patients with the same priority in order of arrival. So a critical patient goes before the patients
+ * who came shortly before him, and a patient who waited long enough goes before everybody who came later.
+ * ------------
+ * Patients are kept in a concurrent skip list, adding and taking a patient is O(log n) without a lock.
+ * Time that every patient waited is counted in a histogram for his severity.
+ */
+public class TriageQueue {
+    private static final Severity[] severities = Severity.values();
+    private final ConcurrentSkipListSet<Ticket> tickets = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();   // order of arrival
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongSupplier clock;   // current time in milliseconds
+    private final Histogram[] waitTimes = new Histogram[severities.length];   // waiting times for every severity
+
+    /**
+     * Place of a patient in the queue.
+     */
+    private static final class Ticket implements Comparable<Ticket> {
+        private final long priority;    // time of arrival less the head start
+        private final long sequence;
+        private final long arrival;
+        private final Patient patient;
+
+        private Ticket(long priority, long sequence, long arrival, Patient patient) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.arrival = arrival;
+            this.patient = patient;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int result = Long.compare(priority, other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * @param clock current time in milliseconds, real or virtual
+     */
+    public TriageQueue(LongSupplier clock) {
+        this.clock = clock;
+        for (int i = 0; i < waitTimes.length; i++) {
+            waitTimes[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Puts the patient in the queue with the current time as his time of arrival.
+     *
+     * @param patient patient waiting for examination
+     */
+    public void add(Patient patient) {
+        long now = clock.getAsLong();
+        tickets.add(new Ticket(now - patient.getSeverity().getHeadStart(), sequence.getAndIncrement(), now, patient));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Puts the patients in the queue in order of the collection, all with the same time of arrival.
+     *
+     * @param patients patients waiting for examination
+     */
+    public void addAll(Collection<Patient> patients) {
+        long now = clock.getAsLong();
+        for (Patient patient : patients) {
+            tickets.add(new Ticket(now - patient.getSeverity().getHeadStart(), sequence.getAndIncrement(), now, patient));
+        }
+        size.addAndGet(patients.size());
+    }
+
+    /**
+     * Takes the patient who is next for examination and counts the time he waited.
+     *
+     * @return next patient, null if the queue is empty
+     */
+    public Patient poll() {
+        Ticket ticket = tickets.pollFirst();
+        if (ticket == null) {
+            return null;
+        }
+        size.decrementAndGet();
+        waitTimes[ticket.patient.getSeverity().ordinal()].record(clock.getAsLong() - ticket.arrival);
+        return ticket.patient;
+    }
+
+    /**
+     * Takes the patient who is next for examination only if he is at least as severe as the given severity,
+     * so a doctor can stop other work for severe patients without breaking the order of the queue.
+     *
+     * @param severity least severity of the taken patient
+     * @return next patient, null if the queue is empty or the next patient is less severe
+     */
+    public Patient poll(Severity severity) {
+        while (true) {
+            Iterator<Ticket> first = tickets.iterator();
+            if (!first.hasNext()) {
+                return null;
+            }
+            Ticket ticket = first.next();
+            if (ticket.patient.getSeverity().compareTo(severity) > 0) {     // less severe than asked
+                return null;
+            }
+            if (tickets.remove(ticket)) {   // else other doctor took him, check the new first patient
+                size.decrementAndGet();
+                waitTimes[ticket.patient.getSeverity().ordinal()].record(clock.getAsLong() - ticket.arrival);
+                return ticket.patient;
+            }
+        }
+    }
+
+    /**
+     * Removes the patient from the queue without counting his waiting time. Searches the whole queue, so it is O(n).
+     *
+     * @param patient waiting patient
+     * @return true if the patient was in the queue
+     */
+    public boolean remove(Patient patient) {
+        for (Ticket ticket : tickets) {
+            if (ticket.patient == patient && tickets.remove(ticket)) {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return tickets.isEmpty();
+    }
+
+    /**
+     * @return number of waiting patients, read from a counter
+     */
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    /**
+     * @return copy of the waiting patients in order of examination
+     */
+    public List<Patient> toList() {
+        ArrayList<Patient> patients = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            patients.add(ticket.patient);
+        }
+        return patients;
+    }
+
+    /**
+     * @param severity severity of the patients
+     * @return waiting times in milliseconds of the examined patients of the severity
+     */
+    public Histogram getWaitTimes(Severity severity) {
+        return waitTimes[severity.ordinal()];
+    }
+}
@@ -0,0 +1,184 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable copy of the beds of a medical ward at one version of the ward.
+ * Keeps the patient in every bed with his day of discharge and his attending doctor, so queries give the same answers
+ * however the ward changes after the copy, and any number of threads can read it without a lock.
+ * Counters of free and occupied beds are counted from the copied beds, so they always agree with the patients.
+ * The patient objects are shared with the ward, only their data that does not change, like name and gender, should be read from them.
+ * beds() and patients() stream the occupied beds lazily, straight from the arrays, without making a list.
+ */
+public final class WardCensus {
+    private final Specialization specialization;
+    private final long version;
+    private final int currentDay;
+    private final int rooms;
+    private final int bedsInRoom;
+    private final Patient[] patients;   // patient in every bed, null if the bed is free
+    private final int[] dischargeDays;  // day of discharge of the patient in every bed
+    private final Doctor[] doctors;     // attending doctor of the patient in every bed, null if he had none yet
+    private final int[] occupiedBedsByGender = new int[Gender.values().length];
+    private final int occupiedBeds;
+
+    /**
+     * @param specialization specialization of the ward
+     * @param version version of the ward, even
+     * @param currentDay day of the ward
+     * @param rooms number of rooms
+     * @param bedsInRoom number of beds in every room
+     * @param patients patients in the beds, not copied
+     * @param dischargeDays days of discharge of the patients, not copied
+     * @param doctors attending doctors of the patients, not copied
+     */
+    WardCensus(Specialization specialization, long version, int currentDay, int rooms, int bedsInRoom, Patient[] patients,
+               int[] dischargeDays, Doctor[] doctors) {
+        this.specialization = specialization;
+        this.version = version;
+        this.currentDay = currentDay;
+        this.rooms = rooms;
+        this.bedsInRoom = bedsInRoom;
+        this.patients = patients;
+        this.dischargeDays = dischargeDays;
+        this.doctors = doctors;
+        int occupied = 0;
+        for (Patient patient : patients) {
+            if (patient != null) {
+                occupied++;
+                occupiedBedsByGender[patient.getGender().ordinal()]++;
+            }
+        }
+        occupiedBeds = occupied;
+    }
+
+    public Specialization getSpecialization() {
+        return specialization;
+    }
+
+    /**
+     * @return version of the ward when the census was made, grows with every change of the ward
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getCurrentDay() {
+        return currentDay;
+    }
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    public int getBedsInRoom() {
+        return bedsInRoom;
+    }
+
+    public int getCapacity() {
+        return patients.length;
+    }
+
+    public int getOccupiedBeds() {
+        return occupiedBeds;
+    }
+
+    public int getFreeBeds() {
+        return patients.length - occupiedBeds;
+    }
+
+    /**
+     * @param gender gender of patients
+     * @return count of beds occupied by patients of the gender
+     */
+    public int getOccupiedBeds(Gender gender) {
+        return occupiedBedsByGender[gender.ordinal()];
+    }
+
+    /**
+     * @param room index of the room
+     * @param bed index of the bed in the room
+     * @return patient in the bed, null if the bed was free
+     */
+    public Patient getPatient(int room, int bed) {
+        return patients[room * bedsInRoom + bed];
+    }
+
+    /**
+     * @param room index of the room
+     * @param bed index of an occupied bed in the room
+     * @return day of discharge of the patient in the bed
+     */
+    public int getDischargeDay(int room, int bed) {
+        return dischargeDays[room * bedsInRoom + bed];
+    }
+
+    /**
+     * @param room index of the room
+     * @param bed index of an occupied bed in the room
+     * @return attending doctor of the patient in the bed, null if he had none yet
+     */
+    public Doctor getDoctor(int room, int bed) {
+        return doctors[room * bedsInRoom + bed];
+    }
+
+    /**
+     * @return occupied beds in order of rooms and beds, made lazily
+     */
+    public Stream<CensusBed> beds() {
+        return IntStream.range(0, patients.length).filter(slot -> patients[slot] != null).mapToObj(slot -> new CensusBed(this, slot));
+    }
+
+    /**
+     * @param room index of the room
+     * @return occupied beds of the room, made lazily
+     */
+    public Stream<CensusBed> beds(int room) {
+        return IntStream.range(room * bedsInRoom, (room + 1) * bedsInRoom).filter(slot -> patients[slot] != null)
+                .mapToObj(slot -> new CensusBed(this, slot));
+    }
+
+    /**
+     * @return patients in order of rooms and beds, streamed lazily
+     */
+    public Stream<Patient> patients() {
+        return Arrays.stream(patients).filter(Objects::nonNull);
+    }
+
+    /**
+     * @return patients in order of rooms and beds
+     */
+    public List<Patient> getPatients() {
+        ArrayList<Patient> list = new ArrayList<>(occupiedBeds);
+        for (Patient patient : patients) {
+            if (patient != null) {
+                list.add(patient);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return patients discharged on the next day of the ward, in order of rooms and beds
+     */
+    public List<Patient> getPatientsForDischargingNextDay() {
+        ArrayList<Patient> list = new ArrayList<>();
+        for (int i = 0; i < patients.length; i++) {
+            if (patients[i] != null && dischargeDays[i] == currentDay + 1) {
+                list.add(patients[i]);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,91 @@
+package Hospital.model.facilities;
+
+import Hospital.model.enums.Gender;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storage of the beds of a medical ward.
+ * Every bed has a number, room * beds in room + bed, so the beds are ordered by rooms and beds.
+ * The ward changes a bed only while holding the lock of its room, so beds of different rooms can be changed at the same time,
+ * and collects the discharges while holding the locks of all rooms. The reading methods can be called at any time,
+ * a read made while beds are changed can be inconsistent and the ward checks the versions of its stripes to find it.
+ */
+interface WardStorage {
+
+    /**
+     * @param slot number of the bed
+     * @return patient in the bed, null if the bed is free
+     */
+    Patient get(int slot);
+
+    /**
+     * @param slot number of an occupied bed
+     * @return gender of the patient in the bed
+     */
+    Gender getGender(int slot);
+
+    /**
+     * Puts the patient in a free bed, with the day of discharge written in the patient.
+     * @param slot number of a free bed
+     * @param patient patient
+     */
+    void put(int slot, Patient patient);
+
+    /**
+     * Puts the patients in free beds like put(int, Patient) for every patient.
+     * Used when a saved ward is loaded before other threads use it, so the storage can make its structures at once.
+     * @param slots number of a free bed for every patient, all different
+     * @param patients patients with the days of discharge written in them
+     */
+    default void putAll(int[] slots, List<Patient> patients) {
+        for (int i = 0; i < patients.size(); i++) {
+            put(slots[i], patients.get(i));
+        }
+    }
+
+    /**
+     * Frees the bed.
+     * @param slot number of an occupied bed
+     */
+    void remove(int slot);
+
+    /**
+     * Changes the day of discharge of the patient in the bed, the day written in the patient is still the old one.
+     * @param slot number of an occupied bed
+     * @param day new day of discharge
+     */
+    void setDischargeDay(int slot, int day);
+
+    /**
+     * Adds to the list the patients discharged on the day, in order of their beds.
+     * @param day day of discharge
+     * @param patients list for the patients
+     */
+    void collectDischarges(int day, ArrayList<Patient> patients);
+
+    /**
+     * Counts the patients discharged in every day after the given day, index 0 is the next day.
+     * @param day the day before the first counted day
+     * @param histogram array for the counts, every element is overwritten
+     */
+    void countDischarges(int day, int[] histogram);
+
+    /**
+     * @param mode way of keeping the patients
+     * @param beds number of beds in the ward
+     * @return new storage with all beds free
+     */
+    static WardStorage create(StorageMode mode, int beds) {
+        switch (mode) {
+            case COLUMNS:
+                return new ColumnarWardStorage(beds, false);
+            case DIRECT_COLUMNS:
+                return new ColumnarWardStorage(beds, true);
+            default:
+                return new BucketWardStorage(beds);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package Hospital.model.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative values, like times in milliseconds, with counters instead of the values.
+ * Values below 32 have their own counter, bigger values share a counter with the values that differ in the lower bits only,
+ * so every value is counted with an error of at most 1/32 of the value and the histogram has less than 2000 counters for all longs.
+ * Values can be recorded from many threads at the same time without a lock. Recording a value is one atomic increment of its counter,
+ * the biggest value is changed only when it grows, and the number and the average of the values are computed from the counters when they are read.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;   // counters for every power of two
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BITS) * SUB_BUCKETS;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Counts the value, negative values are counted as 0.
+     *
+     * @param value recorded value
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(index(value));
+        long oldMax = max.get();
+        while (value > oldMax && !max.compareAndSet(oldMax, value)) {
+            oldMax = max.get();
+        }
+    }
+
+    /**
+     * Adds all values of the other histogram to this one.
+     *
+     * @param other histogram
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        long otherMax = other.max.get();
+        long oldMax = max.get();
+        while (otherMax > oldMax && !max.compareAndSet(oldMax, otherMax)) {
+            oldMax = max.get();
+        }
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return biggest recorded value, 0 if there is none
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return average of the recorded values with the error of the counters, 0 if there is none
+     */
+    public double getMean() {
+        long total = 0;
+        double sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                total += c;
+                sum += c * ((lowest(i) + highest(i)) / 2.0);
+            }
+        }
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /**
+     * Value below which the given percent of the recorded values are. Returns the biggest value of the counter where the percentile is,
+     * but not more than the biggest recorded value.
+     *
+     * @param percentile percent of the values, from 0 to 100
+     * @return value of the percentile, 0 if there are no values
+     */
+    public long getPercentile(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));    // number of values up to the percentile
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highest(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Sets all counters to zero. Values recorded at the same time may be partly lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    /**
+     * @param value non-negative value
+     * @return index of the counter of the value
+     */
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;    // lower bits that are not kept
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @param index index of a counter
+     * @return smallest value counted by the counter
+     */
+    private static long lowest(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * @param index index of a counter
+     * @return biggest value counted by the counter
+     */
+    private static long highest(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        return lowest(index) + (1L << (index - SUB_BUCKETS) / SUB_BUCKETS) - 1;
+    }
+}
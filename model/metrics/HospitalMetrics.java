@@ -0,0 +1,284 @@
+package Hospital.model.metrics;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Severity;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.MedicationRound;
+import Hospital.model.persons.Doctor;
+import Hospital.model.threads.VisitationRound;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of the work of a hospital, updated on the hot paths without a lock.
+ * Counters are LongAdders, so threads that count at the same time do not slow each other down. Numbers that are already
+ * counted elsewhere are not counted again: admissions by the wards, examinations and visitations by their histograms
+ * and the busy time by every doctor.
+ * Reading the clock costs as much as the rest of a short examinePatients pass, so only one of 16 passes is timed, chosen
+ * by the random generator of the calling thread, so the threads do not share a counter of the passes.
+ * Durations of examinePatients passes and days are measured in nanoseconds of real time, durations of examinations
+ * and visitations and the busy time of the doctors in milliseconds of the scheduler, which are virtual in a simulation.
+ * Gauges, like occupancy of the wards, utilization of the doctors and the last round of medicines, are not kept, they are computed from the hospital
+ * when a snapshot is taken with toJson().
+ */
+public class HospitalMetrics {
+    private static final int PASS_SAMPLE = 16;  // one of so many examinePatients passes is timed, on average
+    private final LongAdder arrivals = new LongAdder();     // patients who entered the hospital
+    private final LongAdder noBed = new LongAdder();        // examined patients without a bed
+    private final LongAdder noDoctor = new LongAdder();     // patients without a doctor of their specialization
+    private final LongAdder visits = new LongAdder();       // patients visited in all visitations
+    private final LongAdder discharges = new LongAdder();
+    private final Histogram examinePasses = new Histogram();    // nanoseconds of the timed examinePatients passes
+    private final Histogram days = new Histogram();     // nanoseconds of every day of the hospital
+    private final Histogram examinationTimes = new Histogram();     // milliseconds from the claim of the doctor to the end of the examination
+    private final Histogram visitationTimes = new Histogram();      // milliseconds from the claim of the doctor to the end of the visitation
+    private final Histogram roundTimes = new Histogram();   // milliseconds from the start of a round to its last visit
+    private final Histogram roundBlockedTimes = new Histogram();    // milliseconds of every round when patients waited for the doctor
+    private final LongAdder preemptions = new LongAdder();  // examinations between the slices of the rounds
+    private final IdentityHashMap<Doctor, Long> startBusyTimes = new IdentityHashMap<>();   // busy time of every doctor when the metrics started
+    private final long start;   // time of the scheduler when the metrics started
+
+    /**
+     * @param doctors doctors of the hospital
+     * @param start current time of the scheduler in milliseconds
+     */
+    public HospitalMetrics(List<Doctor> doctors, long start) {
+        for (Doctor doctor : doctors) {
+            startBusyTimes.put(doctor, doctor.getBusyTime());
+        }
+        this.start = start;
+    }
+
+    public void arrival(int patients) {
+        arrivals.add(patients);
+    }
+
+    public void noBed() {
+        noBed.increment();
+    }
+
+    public void noDoctor() {
+        noDoctor.increment();
+    }
+
+    public void discharges(int patients) {
+        discharges.add(patients);
+    }
+
+    /**
+     * @return true if the next examinePatients pass should be timed
+     */
+    public boolean timeExaminePass() {
+        return ThreadLocalRandom.current().nextInt(PASS_SAMPLE) == 0;
+    }
+
+    /**
+     * @param nanos duration of one timed examinePatients pass in nanoseconds
+     */
+    public void examinePass(long nanos) {
+        examinePasses.record(nanos);
+    }
+
+    /**
+     * @param nanos duration of one day in nanoseconds
+     */
+    public void day(long nanos) {
+        days.record(nanos);
+    }
+
+    /**
+     * Counts a finished examination and adds its time to the busy time of the doctor.
+     *
+     * @param doctor doctor
+     * @param millis time from the claim of the doctor to the end of the examination
+     */
+    public void examination(Doctor doctor, long millis) {
+        examinationTimes.record(millis);
+        doctor.addBusyTime(millis);
+    }
+
+    /**
+     * Counts a finished visitation and adds its time to the busy time of the doctor.
+     *
+     * @param doctor doctor
+     * @param patients number of visited patients
+     * @param millis time from the claim of the doctor to the end of the visitation
+     */
+    public void visitation(Doctor doctor, int patients, long millis) {
+        visits.add(patients);
+        visitationTimes.record(millis);
+        doctor.addBusyTime(millis);
+    }
+
+    /**
+     * Counts a complete round of a doctor.
+     *
+     * @param round complete round
+     */
+    public void visitationRound(VisitationRound round) {
+        roundTimes.record(round.getCompletionTime());
+        roundBlockedTimes.record(round.getBlockedTime());
+        preemptions.add(round.getPreemptions());
+    }
+
+    public long getArrivals() {
+        return arrivals.sum();
+    }
+
+    public long getNoBed() {
+        return noBed.sum();
+    }
+
+    public long getNoDoctor() {
+        return noDoctor.sum();
+    }
+
+    public long getDischarges() {
+        return discharges.sum();
+    }
+
+    public long getExaminations() {
+        return examinationTimes.getCount();
+    }
+
+    public Histogram getExaminePasses() {
+        return examinePasses;
+    }
+
+    public Histogram getDays() {
+        return days;
+    }
+
+    public Histogram getRoundTimes() {
+        return roundTimes;
+    }
+
+    public Histogram getRoundBlockedTimes() {
+        return roundBlockedTimes;
+    }
+
+    public long getPreemptions() {
+        return preemptions.sum();
+    }
+
+    /**
+     * @param doctor doctor of the hospital
+     * @param now current time of the scheduler in milliseconds
+     * @return part of the time since the start of the metrics that the doctor spent on finished tasks, from 0 to 1
+     */
+    public double getUtilization(Doctor doctor, long now) {
+        Long startBusyTime = startBusyTimes.get(doctor);
+        if (startBusyTime == null || now <= start) {
+            return 0;
+        }
+        return Math.min(1, (double) (doctor.getBusyTime() - startBusyTime) / (now - start));
+    }
+
+    /**
+     * Takes a snapshot of the metrics and the gauges of the hospital as a JSON object.
+     *
+     * @param hospital hospital of the metrics
+     * @param now current time of the scheduler in milliseconds
+     * @return JSON text
+     */
+    public String toJson(Hospital hospital, long now) {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\n  \"timestamp\": ").append(System.currentTimeMillis());
+        json.append(",\n  \"workingDay\": ").append(hospital.getWorkingDays());
+        json.append(",\n  \"waitingPatients\": ").append(hospital.getWaitingPatientsCount());
+        json.append(",\n  \"counters\": {\"arrivals\": ").append(arrivals.sum());
+        long admissions = 0;
+        for (MedicalWard mw : hospital.getWards()) {
+            admissions += mw.getAdmissions();
+        }
+        json.append(", \"admissions\": ").append(admissions);
+        json.append(", \"noBed\": ").append(noBed.sum());
+        json.append(", \"noDoctor\": ").append(noDoctor.sum());
+        json.append(", \"examinations\": ").append(examinationTimes.getCount());
+        json.append(", \"visitations\": ").append(visitationTimes.getCount());
+        json.append(", \"visits\": ").append(visits.sum());
+        json.append(", \"preemptions\": ").append(preemptions.sum());
+        json.append(", \"discharges\": ").append(discharges.sum()).append('}');
+
+        json.append(",\n  \"latency\": {\n    \"examinePassNanos\": ");
+        histogram(json, examinePasses);
+        json.append(",\n    \"dayNanos\": ");
+        histogram(json, days);
+        json.append(",\n    \"examinationMillis\": ");
+        histogram(json, examinationTimes);
+        json.append(",\n    \"visitationMillis\": ");
+        histogram(json, visitationTimes);
+        json.append(",\n    \"roundMillis\": ");
+        histogram(json, roundTimes);
+        json.append(",\n    \"roundBlockedMillis\": ");
+        histogram(json, roundBlockedTimes);
+        json.append(",\n    \"waitMillis\": {");
+        Severity[] severities = Severity.values();
+        for (int i = 0; i < severities.length; i++) {
+            json.append(i == 0 ? "\n      \"" : ",\n      \"").append(severities[i]).append("\": ");
+            histogram(json, hospital.getWaitTimes(severities[i]));
+        }
+        json.append("\n    }\n  }");
+
+        json.append(",\n  \"doctors\": [");
+        List<Doctor> doctors = hospital.getDoctors();
+        for (int i = 0; i < doctors.size(); i++) {
+            Doctor doctor = doctors.get(i);
+            json.append(i == 0 ? "\n    " : ",\n    ").append("{\"name\": \"").append(escape(doctor.getName()));
+            json.append("\", \"specialization\": \"").append(doctor.getSpecialization());
+            json.append("\", \"patients\": ").append(hospital.getPatientsCount(doctor));
+            json.append(", \"utilization\": ").append(String.format(Locale.ROOT, "%.4f", getUtilization(doctor, now)));
+            VisitationRound round = hospital.getVisitationRound(doctor);
+            if (round != null && round.isComplete()) {
+                json.append(", \"lastRound\": {\"patients\": ").append(round.getPatientsCount());
+                json.append(", \"slices\": ").append(round.getSlices());
+                json.append(", \"millis\": ").append(round.getCompletionTime());
+                json.append(", \"blockedMillis\": ").append(round.getBlockedTime());
+                json.append(", \"preemptions\": ").append(round.getPreemptions()).append('}');
+            }
+            json.append('}');
+        }
+        json.append("\n  ]");
+
+        json.append(",\n  \"wards\": [");
+        List<MedicalWard> wards = hospital.getWards();
+        for (int i = 0; i < wards.size(); i++) {
+            MedicalWard mw = wards.get(i);
+            json.append(i == 0 ? "\n    " : ",\n    ").append("{\"specialization\": \"").append(mw.getSpecialization());
+            json.append("\", \"capacity\": ").append(mw.getCapacity());
+            json.append(", \"occupied\": ").append(mw.getOccupiedBeds());
+            json.append(", \"occupancy\": ").append(String.format(Locale.ROOT, "%.4f", (double) mw.getOccupiedBeds() / mw.getCapacity()));
+            json.append(", \"admissions\": ").append(mw.getAdmissions());
+            json.append(", \"discharges\": ").append(mw.getDischarges());
+            MedicationRound round = mw.getLastMedicationRound();
+            if (round != null) {
+                json.append(", \"medicationRound\": {\"nurses\": ").append(round.getNursesCount());
+                json.append(", \"patients\": ").append(round.getPatients());
+                json.append(", \"doses\": ").append(round.getDoses());
+                json.append(", \"maxNurseDoses\": ").append(round.getMaxDoses());
+                json.append(", \"nanos\": ").append(round.getCompletionNanos()).append('}');
+            }
+            json.append('}');
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    private static void histogram(StringBuilder json, Histogram histogram) {
+        json.append("{\"count\": ").append(histogram.getCount());
+        json.append(", \"mean\": ").append(String.format(Locale.ROOT, "%.1f", histogram.getMean()));
+        json.append(", \"p50\": ").append(histogram.getPercentile(50));
+        json.append(", \"p90\": ").append(histogram.getPercentile(90));
+        json.append(", \"p99\": ").append(histogram.getPercentile(99));
+        json.append(", \"p999\": ").append(histogram.getPercentile(99.9));
+        json.append(", \"max\": ").append(histogram.getMax()).append('}');
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,91 @@
+package Hospital.model.metrics;
+
+import Hospital.model.Hospital;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics of a hospital as JSON in a file at a fixed period, on its own background thread.
+ * Every snapshot is written in a temporary file and moved on the place of the file, so a reader always sees a whole snapshot.
+ * A periodic snapshot that can not be written is reported on the error output and kept as the last failure,
+ * the next snapshots are still written, so a full disk or a locked file stops the export only while it lasts.
+ */
+public class MetricsExporter implements AutoCloseable {
+    private final Hospital hospital;
+    private final Path file;
+    private volatile IOException failure;   // last periodic snapshot that could not be written, null if there was none
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "metrics-exporter");
+        thread.setDaemon(true);     // does not keep the program running
+        return thread;
+    });
+
+    /**
+     * Starts writing the metrics.
+     *
+     * @param hospital hospital with metrics
+     * @param file file for the JSON snapshot
+     * @param period time between two snapshots in milliseconds
+     */
+    public MetricsExporter(Hospital hospital, Path file, long period) {
+        this.hospital = hospital;
+        this.file = file.toAbsolutePath();
+        try {
+            Files.createDirectories(this.file.getParent());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        // an exception thrown from the task would cancel all next snapshots, so it is caught here
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                export();
+            } catch (IOException | RuntimeException e) {
+                failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                System.err.println("Metrics can not be written in " + file + ": " + e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes a snapshot of the metrics now.
+     *
+     * @throws IOException if the file can not be written
+     */
+    public synchronized void export() throws IOException {
+        String json = hospital.getMetricsJson();
+        if (json == null) {     // metrics are turned off
+            return;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temporary, json, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return error of the last periodic snapshot that could not be written, null if all were written
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Stops the periodic snapshots and writes the last one.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            export();
+        } catch (InterruptedException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package Hospital.model.network;
+
+import Hospital.model.enums.AdmissionOutcome;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Network of hospitals at several sites, reached through a transport.
+ * Every patient has a home site chosen by a hash of his name and phone number, so the patients are spread evenly over the sites
+ * and the same patient always goes to the same site.
+ * When a site has no bed for an examined patient, the network asks the other sites how many beds they have for his specialization
+ * and gender, and sends him to the site with most of them. If no site has a bed, the patient leaves the network.
+ * A sent patient can again find no bed, if the beds were taken in the meantime, then he is sent from that site in the same way.
+ * A patient is sent at most once less than there are sites, so he can not move between two sites forever while their beds are taken;
+ * after that he leaves the network as if no site had a bed.
+ * Free beds of the whole network are the sum of the free beds of the sites.
+ * All requests are asynchronous, so the network never blocks a site.
+ */
+public class HospitalNetwork {
+    private final SiteTransport transport;
+    private final int sites;
+    private final AtomicLong transfers = new AtomicLong();  // patients sent to another site
+    private final AtomicLong rejections = new AtomicLong(); // patients without a bed at any site
+    private final AtomicInteger pendingTransfers = new AtomicInteger();    // patients searching for another site
+
+    /**
+     * Creates network of the sites of the transport and receives their patients without a bed.
+     *
+     * @param transport transport to the sites
+     */
+    public HospitalNetwork(SiteTransport transport) {
+        this.transport = transport;
+        sites = transport.getSitesCount();
+        if (sites == 0) {
+            throw new IllegalArgumentException("Network must have at least one site.");
+        }
+        transport.setOverflow(this::overflow);
+    }
+
+    /**
+     * @param patient patient
+     * @return number of the home site of the patient
+     */
+    public int getHomeSite(Patient patient) {
+        int hash = patient.getName().hashCode() * 31 + patient.getPhoneNumber();
+        hash ^= hash >>> 16;    // spread the bits, phone numbers differ mostly in the lower digits
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, sites);
+    }
+
+    /**
+     * Sends the patient to the hospital of his home site.
+     *
+     * @param patient patient entering the network
+     * @return completed when the patient has entered the hospital
+     */
+    public CompletableFuture<Void> enterHospital(Patient patient) {
+        return transport.admit(getHomeSite(patient), patient);
+    }
+
+    /**
+     * Sends a group of patients who arrive at the same time to their home sites, every site gets its patients in one request.
+     *
+     * @param patients patients in order of arrival
+     * @return outcome for every patient at his home site, in the order of the list. Rejected patients are sent to other sites.
+     */
+    public CompletableFuture<AdmissionOutcome[]> enterHospital(List<Patient> patients) {
+        ArrayList<ArrayList<Patient>> groups = new ArrayList<>(sites);  // patients of every site
+        ArrayList<int[]> indexes = new ArrayList<>(sites);  // their indexes in the list
+        int[] counts = new int[sites];
+        int[] homes = new int[patients.size()];
+        for (int i = 0; i < homes.length; i++) {
+            homes[i] = getHomeSite(patients.get(i));
+            counts[homes[i]]++;
+        }
+        for (int site = 0; site < sites; site++) {
+            groups.add(new ArrayList<>(counts[site]));
+            indexes.add(new int[counts[site]]);
+        }
+        for (int i = 0; i < homes.length; i++) {
+            ArrayList<Patient> group = groups.get(homes[i]);
+            indexes.get(homes[i])[group.size()] = i;
+            group.add(patients.get(i));
+        }
+
+        AdmissionOutcome[] outcomes = new AdmissionOutcome[patients.size()];
+        ArrayList<CompletableFuture<Void>> requests = new ArrayList<>();
+        for (int site = 0; site < sites; site++) {
+            if (groups.get(site).isEmpty()) {
+                continue;
+            }
+            int[] siteIndexes = indexes.get(site);
+            requests.add(transport.admit(site, groups.get(site)).thenAccept(siteOutcomes -> {
+                for (int i = 0; i < siteOutcomes.length; i++) {
+                    outcomes[siteIndexes[i]] = siteOutcomes[i];     // every site writes different elements
+                }
+            }));
+        }
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).thenApply(done -> outcomes);
+    }
+
+    /**
+     * Searches another site for a patient without a bed and sends him there.
+     *
+     * @param patient examined patient without a bed
+     * @param from site where the patient did not get a bed
+     */
+    private void overflow(Patient patient, int from) {
+        if (patient.getTransfers() >= sites - 1) {  // every other site had a chance already
+            rejections.incrementAndGet();
+            return;
+        }
+        pendingTransfers.incrementAndGet();
+        ArrayList<CompletableFuture<Integer>> freeBeds = new ArrayList<>(sites);
+        for (int site = 0; site < sites; site++) {
+            freeBeds.add(site == from ? CompletableFuture.completedFuture(0) : transport.getFreeBeds(site, patient.getSpec(), patient.getGender()));
+        }
+        CompletableFuture.allOf(freeBeds.toArray(new CompletableFuture<?>[0])).thenCompose(done -> {
+            int best = -1;
+            int bestBeds = 0;
+            for (int site = 0; site < sites; site++) {
+                int beds = freeBeds.get(site).join();
+                if (beds > bestBeds) {
+                    best = site;
+                    bestBeds = beds;
+                }
+            }
+            if (best < 0) {     // no bed in the network, patient leaves
+                rejections.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }
+            transfers.incrementAndGet();
+            patient.setTransfers(patient.getTransfers() + 1);   // only one site handles the patient at a time
+            return transport.admit(best, patient);
+        }).whenComplete((done, error) -> {
+            if (error != null) {    // a site is shut down
+                rejections.incrementAndGet();
+            }
+            pendingTransfers.decrementAndGet();
+        });
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @return number of free beds in the wards of the specialization at all sites
+     */
+    public CompletableFuture<Integer> getFreeBeds(Specialization specialization) {
+        ArrayList<CompletableFuture<Integer>> freeBeds = new ArrayList<>(sites);
+        for (int site = 0; site < sites; site++) {
+            freeBeds.add(transport.getFreeBeds(site, specialization));
+        }
+        return sum(freeBeds);
+    }
+
+    /**
+     * @param specialization specialization of the wards
+     * @param gender gender of the patient
+     * @return number of free beds at all sites that a patient of the specialization and gender can take
+     */
+    public CompletableFuture<Integer> getFreeBeds(Specialization specialization, Gender gender) {
+        ArrayList<CompletableFuture<Integer>> freeBeds = new ArrayList<>(sites);
+        for (int site = 0; site < sites; site++) {
+            freeBeds.add(transport.getFreeBeds(site, specialization, gender));
+        }
+        return sum(freeBeds);
+    }
+
+    private static CompletableFuture<Integer> sum(List<CompletableFuture<Integer>> values) {
+        return CompletableFuture.allOf(values.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            int sum = 0;
+            for (CompletableFuture<Integer> value : values) {
+                sum += value.join();
+            }
+            return sum;
+        });
+    }
+
+    public int getSitesCount() {
+        return sites;
+    }
+
+    /**
+     * @return number of patients sent to another site
+     */
+    public long getTransfers() {
+        return transfers.get();
+    }
+
+    /**
+     * @return number of examined patients who did not get a bed at any site
+     */
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    /**
+     * @return number of patients for whom another site is being searched
+     */
+    public int getPendingTransfers() {
+        return pendingTransfers.get();
+    }
+
+    /**
+     * Shuts down the transport and the hospitals of all sites.
+     */
+    public void shutdown() {
+        transport.shutdown();
+    }
+}
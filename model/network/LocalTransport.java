@@ -0,0 +1,116 @@
+package Hospital.model.network;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.AdmissionOutcome;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Transport to hospitals in the same process, used to run a network on one machine.
+ * Every site has its own thread which handles the requests to the site in order of arrival, like the server of a remote site.
+ * Examinations and visitations still run on the scheduler of each hospital.
+ */
+public class LocalTransport implements SiteTransport {
+    private static final long SHUTDOWN_TIMEOUT = 60_000;    // time to wait for the accepted requests on shutdown in milliseconds
+    private final ArrayList<Hospital> hospitals;
+    private final ExecutorService[] executors;  // thread of every site
+
+    /**
+     * @param hospitals hospital of every site
+     */
+    public LocalTransport(List<Hospital> hospitals) {
+        this.hospitals = new ArrayList<>(hospitals);
+        executors = new ExecutorService[hospitals.size()];
+        for (int i = 0; i < executors.length; i++) {
+            String name = "site-" + i;
+            executors[i] = Executors.newSingleThreadExecutor(task -> new Thread(task, name));
+        }
+    }
+
+    @Override
+    public int getSitesCount() {
+        return hospitals.size();
+    }
+
+    /**
+     * @param site number of the site
+     * @return hospital of the site
+     */
+    public Hospital getHospital(int site) {
+        return hospitals.get(site);
+    }
+
+    @Override
+    public CompletableFuture<Void> admit(int site, Patient patient) {
+        Hospital hospital = hospitals.get(site);
+        return call(site, () -> {
+            hospital.enterHospital(patient);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<AdmissionOutcome[]> admit(int site, List<Patient> patients) {
+        Hospital hospital = hospitals.get(site);
+        return call(site, () -> hospital.enterHospital(patients));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getFreeBeds(int site, Specialization specialization, Gender gender) {
+        Hospital hospital = hospitals.get(site);
+        return call(site, () -> hospital.getFreeBeds(specialization, gender));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getFreeBeds(int site, Specialization specialization) {
+        Hospital hospital = hospitals.get(site);
+        return call(site, () -> hospital.getFreeBeds(specialization));
+    }
+
+    /**
+     * Runs the request on the thread of the site. After shutdown the request is not run and the result fails.
+     */
+    private <T> CompletableFuture<T> call(int site, Supplier<T> request) {
+        try {
+            return CompletableFuture.supplyAsync(request, executors[site]);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void setOverflow(ObjIntConsumer<Patient> overflow) {
+        for (int i = 0; i < hospitals.size(); i++) {
+            int site = i;
+            hospitals.get(i).setOverflow(overflow == null ? null : patient -> overflow.accept(patient, site));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+        try {
+            for (ExecutorService executor : executors) {
+                executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        for (Hospital hospital : hospitals) {
+            hospital.shutdown();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Hospital.model.network;
+
+import Hospital.model.enums.AdmissionOutcome;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Patient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Connection of a hospital network to its sites, every site is a hospital numbered from 0.
+ * All requests are asynchronous, the result is completed when the site has handled the request,
+ * so a site never waits for another site.
+ */
+public interface SiteTransport {
+
+    /**
+     * @return number of sites
+     */
+    int getSitesCount();
+
+    /**
+     * Sends a patient to the hospital of a site.
+     *
+     * @param site number of the site
+     * @param patient patient entering the hospital
+     * @return completed when the patient has entered the hospital
+     */
+    CompletableFuture<Void> admit(int site, Patient patient);
+
+    /**
+     * Sends a group of patients who arrive at the same time to the hospital of a site.
+     *
+     * @param site number of the site
+     * @param patients patients in order of arrival
+     * @return outcome for every patient at the site, in the order of the list
+     */
+    CompletableFuture<AdmissionOutcome[]> admit(int site, List<Patient> patients);
+
+    /**
+     * @param site number of the site
+     * @param specialization specialization of the wards
+     * @param gender gender of the patient
+     * @return number of free beds at the site that a patient of the specialization and gender can take
+     */
+    CompletableFuture<Integer> getFreeBeds(int site, Specialization specialization, Gender gender);
+
+    /**
+     * @param site number of the site
+     * @param specialization specialization of the wards
+     * @return number of free beds in the wards of the specialization at the site
+     */
+    CompletableFuture<Integer> getFreeBeds(int site, Specialization specialization);
+
+    /**
+     * Sets the receiver of examined patients who did not get a bed at their site, with the number of that site.
+     *
+     * @param overflow receiver of patients without a bed
+     */
+    void setOverflow(ObjIntConsumer<Patient> overflow);
+
+    /**
+     * Stops accepting requests, waits for the accepted ones and shuts down the hospitals.
+     */
+    void shutdown();
+}
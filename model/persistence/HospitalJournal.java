@@ -0,0 +1,370 @@
+package Hospital.model.persistence;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Severity;
+import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal of the changes in a hospital after its last snapshot, written only at the end of the file.
+ * The hospital writes every admission, every treatment, every early discharge and every new day, while holding the lock of the ward,
+ * so the records of a ward are in the order of its changes. It writes every patient added to the waiting queue before he is added,
+ * and every examined patient who leaves without a bed. Records are kept in a buffer and written
+ * when it is full and at the start of every day, so a crash loses at most the changes of the current day.
+ * <p>
+ * Records: admission (ward, day of the ward, doctor, patient with room, bed and day of discharge),
+ * treatment (ward, day of the ward, room, bed, day of discharge), discharge day (day of the wards after the discharge),
+ * working day (number of the next working day), arrival (patient with severity), leaving (patient)
+ * and early discharge (ward, day of the ward, room, bed).
+ * <p>
+ * Doctors and wards are written by their index in the lists of the hospital, so the journal matches only
+ * the snapshot taken right before it was opened.
+ */
+public class HospitalJournal implements AutoCloseable {
+    private static final byte ADMISSION = 1;
+    private static final byte TREATMENT = 2;
+    private static final byte DAY = 3;
+    private static final byte WORKING_DAY = 4;
+    private static final byte ARRIVAL = 5;
+    private static final byte LEAVING = 6;
+    private static final byte EARLY_DISCHARGE = 7;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Gender[] genders = Gender.values();
+    private static final Specialization[] specs = Specialization.values();
+    private static final Severity[] severities = Severity.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);   // records not yet written in the file
+    private final IdentityHashMap<MedicalWard, Integer> wards = new IdentityHashMap<>();   // index of every ward in the hospital
+    private final IdentityHashMap<Doctor, Integer> doctors = new IdentityHashMap<>();  // index of every doctor in the hospital
+
+    /**
+     * Creates a new empty journal for the hospital, an old journal in the file is deleted.
+     * Must be opened right after a snapshot and set in the hospital with setJournal().
+     *
+     * @param file file for the journal
+     * @param hospital hospital
+     * @throws IOException if the file can not be created
+     * @throws IllegalArgumentException if the hospital has more wards or a ward more beds in a room than a record can hold
+     */
+    public HospitalJournal(Path file, Hospital hospital) throws IOException {
+        List<MedicalWard> wardList = hospital.getWards();
+        if (wardList.size() > Short.MAX_VALUE) {    // wards and beds are written as shorts
+            throw new IllegalArgumentException("Journal can not hold " + wardList.size() + " wards.");
+        }
+        for (int i = 0; i < wardList.size(); i++) {
+            if (wardList.get(i).getBedsInRoom() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Journal can not hold " + wardList.get(i).getBedsInRoom() + " beds in a room.");
+            }
+            wards.put(wardList.get(i), i);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        List<Doctor> doctorList = hospital.getDoctors();
+        for (int i = 0; i < doctorList.size(); i++) {
+            doctors.put(doctorList.get(i), i);
+        }
+    }
+
+    /**
+     * Writes admission of a patient in a ward.
+     *
+     * @param ward ward of the patient
+     * @param doctor attending doctor
+     * @param patient patient with room, bed and day of discharge
+     */
+    public synchronized void admission(MedicalWard ward, Doctor doctor, Patient patient) {
+        byte[] name = name(patient);
+        reserve(32 + name.length);
+        buffer.put(ADMISSION).putShort(wards.get(ward).shortValue()).putInt(ward.getCurrentDay()).putInt(doctors.getOrDefault(doctor, -1));
+        buffer.putInt(patient.getRoom()).putShort((short) patient.getBed()).putInt(patient.getDischargeDay());
+        putPatient(patient, name);
+    }
+
+    /**
+     * Writes a patient added to the waiting queue, called before he is added.
+     *
+     * @param patient patient who entered the hospital
+     */
+    public synchronized void arrival(Patient patient) {
+        byte[] name = name(patient);
+        reserve(12 + name.length);
+        buffer.put(ARRIVAL).put((byte) patient.getSeverity().ordinal());
+        putPatient(patient, name);
+    }
+
+    /**
+     * Writes an examined patient who did not get a bed and left the hospital.
+     *
+     * @param patient patient who left
+     */
+    public synchronized void leaving(Patient patient) {
+        byte[] name = name(patient);
+        reserve(11 + name.length);
+        buffer.put(LEAVING);
+        putPatient(patient, name);
+    }
+
+    /**
+     * Writes a patient taken from his ward before his day of discharge.
+     *
+     * @param ward ward of the patient
+     * @param patient patient with the room and the bed he left
+     */
+    public synchronized void earlyDischarge(MedicalWard ward, Patient patient) {
+        reserve(13);
+        buffer.put(EARLY_DISCHARGE).putShort(wards.get(ward).shortValue()).putInt(ward.getCurrentDay());
+        buffer.putInt(patient.getRoom()).putShort((short) patient.getBed());
+    }
+
+    /**
+     * Writes new day of discharge of a patient in a ward.
+     *
+     * @param ward ward of the patient
+     * @param patient patient with room, bed and day of discharge
+     */
+    public synchronized void treatment(MedicalWard ward, Patient patient) {
+        reserve(17);
+        buffer.put(TREATMENT).putShort(wards.get(ward).shortValue()).putInt(ward.getCurrentDay());
+        buffer.putInt(patient.getRoom()).putShort((short) patient.getBed()).putInt(patient.getDischargeDay());
+    }
+
+    /**
+     * Writes the start of a new day in the wards and writes the buffer in the file.
+     *
+     * @param day day of the wards after the discharge
+     */
+    public synchronized void day(int day) {
+        reserve(5);
+        buffer.put(DAY).putInt(day);
+        flush();
+    }
+
+    /**
+     * Writes the number of the next working day of the hospital.
+     *
+     * @param workingDays number of the next working day
+     */
+    public synchronized void workingDay(int workingDays) {
+        reserve(5);
+        buffer.put(WORKING_DAY).putInt(workingDays);
+    }
+
+    /**
+     * Writes all records from the buffer in the file.
+     */
+    public synchronized void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes all records and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * @return UTF-8 bytes of the name of the patient
+     * @throws IllegalArgumentException if the name or the age of the patient do not fit in a record
+     */
+    private static byte[] name(Patient patient) {
+        byte[] name = patient.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE || patient.getAge() < 0 || patient.getAge() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Patient " + patient.getName() + " does not fit in a journal record.");
+        }
+        return name;
+    }
+
+    /**
+     * Writes the data of a patient: phone, age, gender, specialization and name.
+     */
+    private void putPatient(Patient patient, byte[] name) {
+        buffer.putInt(patient.getPhoneNumber()).put((byte) patient.getAge()).put((byte) patient.getGender().ordinal()).put((byte) patient.getSpec().ordinal());
+        buffer.putShort((short) name.length).put(name);
+    }
+
+    /**
+     * Reads the data of a patient written by putPatient().
+     */
+    private static Patient getPatient(MappedByteBuffer in) {
+        int phone = in.getInt();
+        int age = in.get();
+        Gender gender = genders[in.get()];
+        Specialization spec = specs[in.get()];
+        byte[] name = new byte[in.getShort()];
+        in.get(name);
+        return new Patient(new String(name, StandardCharsets.UTF_8), phone, age, gender, spec);
+    }
+
+    /**
+     * Replays the journal in a hospital loaded from the snapshot taken before the journal was opened.
+     * Arrived patients are put in the waiting queue, admitted patients and patients who left are taken from it,
+     * days are replayed by discharging the patients again. An incomplete record at the end of the file, left by a crash, is ignored.
+     *
+     * @param file file with the journal
+     * @param hospital hospital loaded from the snapshot, without journal
+     * @return number of replayed records
+     * @throws IOException if the file can not be read or does not match the hospital
+     */
+    public static int replay(Path file, Hospital hospital) throws IOException {
+        List<MedicalWard> wardList = hospital.getWards();
+        List<Doctor> doctorList = hospital.getDoctors();
+        Map<String, ArrayDeque<Patient>> waiting = new HashMap<>();     // waiting patients of the snapshot by their data
+        for (Patient patient : hospital.getWaitingPatients()) {
+            waiting.computeIfAbsent(key(patient), k -> new ArrayDeque<>()).add(patient);
+        }
+
+        int records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (in.hasRemaining()) {
+                try {
+                    replayRecord(in, hospital, wardList, doctorList, waiting);
+                } catch (BufferUnderflowException e) {  // last record was not written completely
+                    break;
+                }
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static void replayRecord(MappedByteBuffer in, Hospital hospital, List<MedicalWard> wardList, List<Doctor> doctorList,
+                                     Map<String, ArrayDeque<Patient>> waiting) throws IOException {
+        byte type = in.get();
+        switch (type) {
+            case ADMISSION: {
+                MedicalWard ward = wardList.get(in.getShort());
+                int day = in.getInt();
+                int doctor = in.getInt();
+                int room = in.getInt();
+                int bed = in.getShort();
+                int dischargeDay = in.getInt();
+                Patient patient = getPatient(in);
+                advance(hospital, ward, day);
+
+                Patient waitingPatient = takeWaiting(hospital, waiting, patient);
+                if (waitingPatient != null) {   // patient was waiting, the same object is admitted
+                    patient = waitingPatient;
+                }
+                patient.setRoom(room);
+                patient.setBed(bed);
+                patient.setDischargeDay(dischargeDay);
+                if (!hospital.restorePatient(patient, doctor < 0 ? null : doctorList.get(doctor), ward)) {
+                    throw new IOException("Journal does not match the snapshot, bed " + bed + " in room " + room + " is taken.");
+                }
+                break;
+            }
+            case TREATMENT: {
+                MedicalWard ward = wardList.get(in.getShort());
+                int day = in.getInt();
+                int room = in.getInt();
+                int bed = in.getShort();
+                int dischargeDay = in.getInt();
+                advance(hospital, ward, day);
+                Patient patient = ward.getPatient(room, bed);
+                if (patient == null) {
+                    throw new IOException("Journal does not match the snapshot, bed " + bed + " in room " + room + " is free.");
+                }
+                hospital.startTreatment(patient, dischargeDay - ward.getCurrentDay() - 1);
+                break;
+            }
+            case DAY:
+                advance(hospital, wardList.get(0), in.getInt());
+                break;
+            case WORKING_DAY:
+                hospital.setWorkingDays(in.getInt());
+                break;
+            case ARRIVAL: {
+                Severity severity = severities[in.get()];
+                Patient patient = getPatient(in);
+                patient.setSeverity(severity);
+                hospital.restoreWaitingPatient(patient);
+                waiting.computeIfAbsent(key(patient), k -> new ArrayDeque<>()).add(patient);
+                break;
+            }
+            case LEAVING:
+                takeWaiting(hospital, waiting, getPatient(in));
+                break;
+            case EARLY_DISCHARGE: {
+                MedicalWard ward = wardList.get(in.getShort());
+                int day = in.getInt();
+                int room = in.getInt();
+                int bed = in.getShort();
+                advance(hospital, ward, day);
+                Patient patient = ward.getPatient(room, bed);
+                if (patient == null || !hospital.dischargePatient(patient)) {
+                    throw new IOException("Journal does not match the snapshot, bed " + bed + " in room " + room + " is free.");
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown record " + type + " in the journal.");
+        }
+    }
+
+    /**
+     * Discharges the patients of the next days until the ward reaches the day, all wards start their days together.
+     */
+    private static void advance(Hospital hospital, MedicalWard ward, int day) {
+        while (ward.getCurrentDay() < day) {
+            hospital.patientsDischarge();
+        }
+    }
+
+    /**
+     * Takes the waiting patient with the same data from the waiting queue.
+     * @return the waiting patient, null if no such patient is waiting
+     */
+    private static Patient takeWaiting(Hospital hospital, Map<String, ArrayDeque<Patient>> waiting, Patient patient) {
+        ArrayDeque<Patient> same = waiting.get(key(patient));
+        if (same == null || same.isEmpty()) {
+            return null;
+        }
+        Patient waitingPatient = same.poll();
+        hospital.removeWaitingPatient(waitingPatient);
+        return waitingPatient;
+    }
+
+    private static String key(Patient patient) {
+        return patient.getName() + '/' + patient.getPhoneNumber() + '/' + patient.getAge() + '/' + patient.getGender() + '/' + patient.getSpec();
+    }
+}
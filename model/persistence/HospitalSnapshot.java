@@ -0,0 +1,306 @@
+package Hospital.model.persistence;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Severity;
+import Hospital.model.enums.Specialization;
+import Hospital.model.events.AsyncEventSink;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.facilities.StorageMode;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Nurse;
+import Hospital.model.persons.Patient;
+import Hospital.model.threads.DoctorScheduler;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Saves the whole state of a hospital in a binary file and loads it back.
+ * The file is written and read through a memory mapped buffer. Names are kept once in a table at the beginning,
+ * doctors, nurses and wards follow, and every patient is a record with fixed size, so loading a hospital
+ * with millions of patients is one pass over the file without parsing text.
+ * <p>
+ * File format, all numbers are big endian:
+ * magic, version, working days,
+ * names: count, then length and UTF-8 bytes of every name,
+ * doctors: count, then name, phone and specialization of every doctor,
+ * nurses: count, then name, years of experience and phone of every nurse,
+ * wards: count, then specialization, storage, rooms, beds in room and current day of every ward,
+ * patients in wards: count, then a record of every patient in order of doctors and admission,
+ * followed by the patients without a doctor in order of wards, rooms and beds,
+ * waiting patients: count, then a record of every patient in order of specialization and examination.
+ * <p>
+ * A snapshot must be taken when no examination or visitation is running, for example between the days of a simulation
+ * or after shutdown. Changes after the snapshot can be written in a HospitalJournal and replayed with recover().
+ */
+public class HospitalSnapshot {
+    private static final int MAGIC = 0x48535031;    // "HSP1"
+    private static final int VERSION = 3;   // version 1 had no severity of the patients, versions 1 and 2 had a short ward and a byte bed
+    private static final int PATIENT_BYTES = 33;    // size of the record of one patient
+    private static final Gender[] genders = Gender.values();
+    private static final Severity[] severities = Severity.values();
+    private static final Specialization[] specs = Specialization.values();
+    private static final StorageMode[] storageModes = StorageMode.values();
+
+    private HospitalSnapshot() {
+    }
+
+    /**
+     * Writes the hospital in the file. The snapshot is written in a temporary file and moved on the place of the file,
+     * so a crash while writing leaves the previous snapshot.
+     *
+     * @param hospital hospital without running examinations and visitations
+     * @param file file for the snapshot
+     * @throws IOException if the file can not be written
+     */
+    public static void write(Hospital hospital, Path file) throws IOException {
+        List<Doctor> doctors = hospital.getDoctors();
+        List<Nurse> nurses = hospital.getNurses();
+        List<MedicalWard> wards = hospital.getWards();
+        Map<String, Integer> names = new HashMap<>();   // index of every name in the table
+        ArrayList<byte[]> nameBytes = new ArrayList<>();
+        IdentityHashMap<MedicalWard, Integer> wardIndex = new IdentityHashMap<>();
+        for (int i = 0; i < wards.size(); i++) {
+            wardIndex.put(wards.get(i), i);
+        }
+
+        ArrayList<List<Patient>> doctorPatients = new ArrayList<>(doctors.size());   // patients of every doctor in order of admission
+        for (Doctor doctor : doctors) {
+            nameIndex(doctor.getName(), names, nameBytes);
+            doctorPatients.add(hospital.getPatients(doctor));
+        }
+        ArrayList<Patient> withoutDoctor = new ArrayList<>();   // patients in the wards without a doctor, restored without a doctor
+        for (MedicalWard ward : wards) {
+            for (int room = 0; room < ward.getRooms(); room++) {
+                for (int bed = 0; bed < ward.getBedsInRoom(); bed++) {
+                    Patient patient = ward.getPatient(room, bed);
+                    if (patient != null && patient.getAttendingDoctor() == null) {  // a patient with a doctor is in his list
+                        withoutDoctor.add(patient);
+                    }
+                }
+            }
+        }
+        int admitted = withoutDoctor.size();
+        for (List<Patient> patients : doctorPatients) {
+            admitted += patients.size();
+        }
+        for (Nurse nurse : nurses) {
+            nameIndex(nurse.getName(), names, nameBytes);
+        }
+        List<Patient> waiting = hospital.getWaitingPatients();
+        for (List<Patient> patients : doctorPatients) {
+            for (Patient patient : patients) {
+                nameIndex(patient.getName(), names, nameBytes);
+            }
+        }
+        for (Patient patient : withoutDoctor) {
+            nameIndex(patient.getName(), names, nameBytes);
+        }
+        for (Patient patient : waiting) {
+            nameIndex(patient.getName(), names, nameBytes);
+        }
+
+        long size = 3 * Integer.BYTES + Integer.BYTES;
+        for (byte[] name : nameBytes) {
+            size += Short.BYTES + name.length;
+        }
+        size += Integer.BYTES + (long) doctors.size() * (2 * Integer.BYTES + 1);
+        size += Integer.BYTES + (long) nurses.size() * 3 * Integer.BYTES;
+        size += Integer.BYTES + (long) wards.size() * (2 + 3 * Integer.BYTES);
+        size += 2 * Integer.BYTES + (long) (admitted + waiting.size()) * PATIENT_BYTES;
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(VERSION).putInt(hospital.getWorkingDays());
+            out.putInt(nameBytes.size());
+            for (byte[] name : nameBytes) {
+                out.putShort((short) name.length).put(name);
+            }
+            out.putInt(doctors.size());
+            for (Doctor doctor : doctors) {
+                out.putInt(names.get(doctor.getName())).putInt(doctor.getPhoneNumber()).put((byte) doctor.getSpecialization().ordinal());
+            }
+            out.putInt(nurses.size());
+            for (Nurse nurse : nurses) {
+                out.putInt(names.get(nurse.getName())).putInt(nurse.getYearsOfExperience()).putInt(nurse.getPhoneNumber());
+            }
+            out.putInt(wards.size());
+            for (MedicalWard ward : wards) {
+                out.put((byte) ward.getSpecialization().ordinal()).put((byte) ward.getStorageMode().ordinal());
+                out.putInt(ward.getRooms()).putInt(ward.getBedsInRoom()).putInt(ward.getCurrentDay());
+            }
+            out.putInt(admitted);
+            for (int i = 0; i < doctors.size(); i++) {
+                for (Patient patient : doctorPatients.get(i)) {
+                    putPatient(out, patient, names.get(patient.getName()), wardIndex.getOrDefault(patient.getWard(), -1), i);
+                }
+            }
+            for (Patient patient : withoutDoctor) {
+                putPatient(out, patient, names.get(patient.getName()), wardIndex.getOrDefault(patient.getWard(), -1), -1);
+            }
+            out.putInt(waiting.size());
+            for (Patient patient : waiting) {
+                putPatient(out, patient, names.get(patient.getName()), -1, -1);
+            }
+            out.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a hospital from the snapshot. The hospital has the same doctors, nurses, wards, patients in the same beds
+     * with the same days of discharge, and the same waiting patients, whose examinations start with examinePatients().
+     *
+     * @param file file with the snapshot
+     * @param scheduler scheduler for examinations and visitations of the loaded hospital, null for a pool of platform threads
+     * @return loaded hospital
+     * @throws IOException if the file can not be read or is not a snapshot
+     */
+    public static Hospital read(Path file, DoctorScheduler scheduler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int magic = in.getInt();
+            int version = in.getInt();
+            if (magic != MAGIC || version < 1 || version > VERSION) {
+                throw new IOException("File " + file + " is not a hospital snapshot.");
+            }
+            int workingDays = in.getInt();
+            String[] names = new String[in.getInt()];
+            for (int i = 0; i < names.length; i++) {
+                byte[] name = new byte[in.getShort()];
+                in.get(name);
+                names[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            ArrayList<Doctor> doctors = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                doctors.add(new Doctor(names[in.getInt()], in.getInt(), specs[in.get()]));
+            }
+            ArrayList<Nurse> nurses = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                nurses.add(new Nurse(names[in.getInt()], in.getInt(), in.getInt()));
+            }
+            ArrayList<MedicalWard> wards = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                Specialization specialization = specs[in.get()];
+                StorageMode mode = storageModes[in.get()];
+                MedicalWard ward = new MedicalWard(specialization, in.getInt(), in.getInt(), mode);
+                ward.setCurrentDay(in.getInt());
+                wards.add(ward);
+            }
+
+            Hospital hospital = new Hospital(scheduler, new Random(), doctors, nurses, wards);
+            hospital.setWorkingDays(workingDays);
+            int count = in.getInt();
+            ArrayList<Patient> admitted = new ArrayList<>(count);
+            int[] admittedWards = new int[count];   // index of the ward of every patient
+            for (int i = 0; i < count; i++) {
+                int position = in.position();
+                Patient patient = getPatient(in, names, version);
+                int doctor = in.getInt(position + 20);
+                int ward = version > 2 ? in.getInt(position + 24) : in.getShort(position + 24);
+                if (ward < 0 || ward >= wards.size()) {
+                    throw new IOException("Patient " + patient.getName() + " has no ward.");
+                }
+                patient.setAttendingDoctor(doctor < 0 ? null : doctors.get(doctor));
+                admitted.add(patient);
+                admittedWards[i] = ward;
+            }
+            // the hospital is not used by other threads yet, so all patients are put in the wards at once
+            Patient failed = hospital.restorePatients(admitted, admittedWards);
+            if (failed != null) {
+                throw new IOException("Patient " + failed.getName() + " can not be put in room " + failed.getRoom() + ", bed " + failed.getBed()
+                        + " with day of discharge " + failed.getDischargeDay() + ".");
+            }
+            for (int i = in.getInt(); i > 0; i--) {
+                hospital.restoreWaitingPatient(getPatient(in, names, version));
+            }
+            return hospital;
+        }
+    }
+
+    /**
+     * Loads a hospital from the snapshot and replays the journal written after it.
+     * The replayed days do not publish events again, the loaded hospital writes its new events on the console.
+     *
+     * @param snapshot file with the snapshot
+     * @param journal file with the journal, it may not exist if nothing happened after the snapshot
+     * @param scheduler scheduler for examinations and visitations of the loaded hospital, null for a pool of platform threads
+     * @return recovered hospital
+     * @throws IOException if a file can not be read or does not match the snapshot
+     */
+    public static Hospital recover(Path snapshot, Path journal, DoctorScheduler scheduler) throws IOException {
+        Hospital hospital = read(snapshot, scheduler);
+        if (Files.exists(journal)) {
+            hospital.setEventSink(EventSink.noOp());
+            HospitalJournal.replay(journal, hospital);
+            hospital.setEventSink(AsyncEventSink.toConsole());
+        }
+        return hospital;
+    }
+
+    private static void nameIndex(String name, Map<String, Integer> names, ArrayList<byte[]> nameBytes) throws IOException {
+        if (!names.containsKey(name)) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {   // length of a name is written as a short
+                throw new IOException("Name of " + bytes.length + " bytes is too long for a snapshot.");
+            }
+            names.put(name, nameBytes.size());
+            nameBytes.add(bytes);
+        }
+    }
+
+    /**
+     * Writes the record of a patient: name, phone, age, day of discharge, room, doctor, ward, bed, and severity, gender and specialization in one byte.
+     */
+    private static void putPatient(MappedByteBuffer out, Patient patient, int name, int ward, int doctor) {
+        out.putInt(name).putInt(patient.getPhoneNumber()).putInt(patient.getAge());
+        out.putInt(patient.getDischargeDay()).putInt(patient.getRoom()).putInt(doctor);
+        out.putInt(ward).putInt(patient.getBed()).put((byte) (patient.getSeverity().ordinal() << 6 | patient.getGender().ordinal() << 4 | patient.getSpec().ordinal()));
+    }
+
+    /**
+     * Reads the record of a patient, the doctor and the ward are read by the caller from the position of the record.
+     * Version of the snapshot tells if the record has the severity and the size of the ward and the bed.
+     */
+    private static Patient getPatient(MappedByteBuffer in, String[] names, int version) {
+        String name = names[in.getInt()];
+        int phone = in.getInt();
+        int age = in.getInt();
+        int dischargeDay = in.getInt();
+        int room = in.getInt();
+        in.getInt();    // doctor
+        int bed;
+        if (version > 2) {
+            in.getInt();    // ward
+            bed = in.getInt();
+        } else {
+            in.getShort();  // ward
+            bed = in.get() & 0xFF;
+        }
+        int kind = in.get() & 0xFF;
+        Patient patient = new Patient(name, phone, age, genders[kind >> 4 & 3], specs[kind & 15]);
+        if (version > 1) {  // patients of older snapshots stay standard
+            patient.setSeverity(severities[kind >> 6]);
+        }
+        patient.setDischargeDay(dischargeDay);
+        patient.setRoom(room);
+        patient.setBed(bed);
+        return patient;
+    }
+}
@@ -3,44 +3,76 @@ package Hospital.model.persons;
 import Hospital.model.enums.Specialization;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Class Doctor
  * Contains the details of the doctor, his name, phone number, specialization
  * and information about whether he is currently busy and whether he has a visitation pending.
+ * A free doctor is claimed atomically, so two threads can never give work to the same doctor.
  */
 public class Doctor {
     private final String name;
-    private final String phoneNumber;
+    private final int phoneNumber;  // phone number without the prefix 088
     private final Specialization specialization;
-    private boolean isFree = true;  // True if doctor is free and don't have visitation or examination
-    private boolean waitingVisitation = false;  // True if it's time for visitation, but he is on examination
+    private final AtomicBoolean isFree = new AtomicBoolean(true);  // True if doctor is free and don't have visitation or examination
+    private volatile long busyTime = 0;  // milliseconds spent on finished examinations and visitations
+    private final AtomicBoolean waitingVisitation = new AtomicBoolean(false);  // True if it's time for visitation, but he is on examination
+    private final AtomicBoolean queued = new AtomicBoolean(false);  // True if the doctor has an entry in the queue of free doctors
 
     /**
      * Constructor that asks for the name of the doctor and generates random phone number and chooses a random specialization
      * @param name name of the doctor
      */
     public Doctor(String name){
-        Random rand = new Random();
+        this(name, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Constructor that asks for the name of the doctor and the random generator for his phone number and specialization
+     * @param name name of the doctor
+     * @param rand random generator, the same seed gives the same doctor
+     */
+    public Doctor(String name, Random rand){
         this.name = name;
-        phoneNumber = "088" + (rand.nextInt(2999999) + 7000000);    // create random phone number
+        phoneNumber = rand.nextInt(2999999) + 7000000;    // create random phone number
         Specialization[] specs = Specialization.values();
         specialization = specs[rand.nextInt(specs.length)];     // chose random specialization
     }
 
+    /**
+     * Constructor with all details of the doctor, used when a saved hospital is loaded
+     * @param name name of the doctor
+     * @param phoneNumber phone number without the prefix 088
+     * @param specialization specialization of the doctor
+     */
+    public Doctor(String name, int phoneNumber, Specialization specialization){
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.specialization = specialization;
+    }
+
     /**
      *
       * @return name, specialization and phone of the doctor
      */
     @Override
     public String toString() {
-        return "dr. " + name + ", specialization: " + specialization.toString().toLowerCase() + ", phone: " + phoneNumber;
+        return "dr. " + name + ", specialization: " + specialization.toString().toLowerCase() + ", phone: 088" + phoneNumber;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * @return phone number without the prefix 088
+     */
+    public int getPhoneNumber() {
+        return phoneNumber;
+    }
+
     /**
      *
      * @return specialization of the doctor
@@ -50,17 +82,75 @@ public class Doctor {
     }
 
     public boolean isFree() {
-        return isFree;
+        return isFree.get();
+    }
+
+    /**
+     * Marks the doctor as having an entry in the queue of free doctors, so he never gets two entries.
+     * @return true if he had no entry and the caller must add him to the queue, false if he already has one
+     */
+    public boolean tryEnqueue() {
+        return queued.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the entry of the doctor as taken from the queue of free doctors.
+     * Called by the one who took the entry, before he tries to claim the doctor.
+     */
+    public void dequeued() {
+        queued.set(false);
     }
-    public void setFree(boolean isFree){
-        this.isFree = isFree;
+
+    /**
+     * @return true if the doctor has an entry in the queue of free doctors
+     */
+    public boolean isQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Sets the doctor to busy if he is free.
+     * @return true if the doctor was free and now works for the caller, false if he is busy
+     */
+    public boolean tryClaim() {
+        return isFree.compareAndSet(true, false);
+    }
+
+    /**
+     * Sets the doctor to free, must be called only by the one who claimed him.
+     */
+    public void release() {
+        isFree.set(true);
+    }
+
+    /**
+     * Adds the time of a finished task, must be called only by the one who claimed him, so there is one writer at a time.
+     * @param millis time of the task in milliseconds
+     */
+    public void addBusyTime(long millis) {
+        busyTime += millis;
+    }
+
+    /**
+     * @return milliseconds spent on finished examinations and visitations
+     */
+    public long getBusyTime() {
+        return busyTime;
     }
 
     public boolean isWaitingVisitation() {
-        return waitingVisitation;
+        return waitingVisitation.get();
     }
 
     public void setWaitingVisitation(boolean waitingVisitation) {
-        this.waitingVisitation = waitingVisitation;
+        this.waitingVisitation.set(waitingVisitation);
+    }
+
+    /**
+     * Takes the pending visitation, so only one thread can start it.
+     * @return true if there was a pending visitation
+     */
+    public boolean takeWaitingVisitation() {
+        return waitingVisitation.getAndSet(false);
     }
 }
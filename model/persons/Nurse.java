@@ -1,29 +1,61 @@
 package Hospital.model.persons;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Nurse {
     private final String name;
     private final int yearsOfExperience;
-    private final String phoneNumber;
+    private final int phoneNumber;  // phone number without the prefix 088
 
     /**
      * Constructor that asks for the name of the nurse and generates random year of experience, random phone number and chooses a random specialization
      * @param name name of the nurse
      */
     public Nurse(String name){
-        Random rand = new Random();
+        this(name, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Constructor that asks for the name of the nurse and the random generator for her years of experience and phone number
+     * @param name name of the nurse
+     * @param rand random generator, the same seed gives the same nurse
+     */
+    public Nurse(String name, Random rand){
         this.name = name;
         this.yearsOfExperience = rand.nextInt(30);
-        phoneNumber = "088" + (rand.nextInt(2999999) + 7000000);    // create random phone number
+        phoneNumber = rand.nextInt(2999999) + 7000000;    // create random phone number
+    }
+
+    /**
+     * Constructor with all details of the nurse, used when a saved hospital is loaded
+     * @param name name of the nurse
+     * @param yearsOfExperience years of experience
+     * @param phoneNumber phone number without the prefix 088
+     */
+    public Nurse(String name, int yearsOfExperience, int phoneNumber){
+        this.name = name;
+        this.yearsOfExperience = yearsOfExperience;
+        this.phoneNumber = phoneNumber;
     }
 
     public String getName() {
         return name;
     }
 
+    public int getYearsOfExperience() {
+        return yearsOfExperience;
+    }
+
+    /**
+     * @return phone number without the prefix 088
+     */
+    public int getPhoneNumber() {
+        return phoneNumber;
+    }
+
     @Override
     public String toString() {
-        return "nurse " + name + ", years of experience: " + yearsOfExperience + ", phone: " + phoneNumber;
+        return "nurse " + name + ", years of experience: " + yearsOfExperience + ", phone: 088" + phoneNumber;
     }
 }
@@ -1,52 +1,108 @@
 package Hospital.model.persons;
 
 import Hospital.model.enums.Gender;
+import Hospital.model.enums.Medication;
+import Hospital.model.enums.Severity;
 import Hospital.model.enums.Specialization;
+import Hospital.model.facilities.MedicalWard;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Class patient
- * It stores the patient's data, name, age, gender, phone number, illness, remaining days of treatment and the room in which he is accommodated.
+ * It stores the patient's data, name, age, gender, phone number, illness, severity, medicines of the treatment plan, day of discharge, the room and bed in which he is accommodated and his attending doctor.
+ * Names are shared between all patients and the phone number is kept as a number, so creating a patient allocates only the patient.
  */
 public class Patient {
     // Predefined names for mens
-    private final String[] namesM = {"Peter", "Georg", "Asen", "Ivan", "Martin", "Anton", "Stanislav", "Pavel", "Naum", "Kiril", "Milan", "Kalin", "Alexander"};
+    private static final String[] namesM = {"Peter", "Georg", "Asen", "Ivan", "Martin", "Anton", "Stanislav", "Pavel", "Naum", "Kiril", "Milan", "Kalin", "Alexander"};
     // predefined names for women
-    private final String[] namesF = {"Sara", "Anastasia", "Maria", "Martina", "Isabela", "Antonia", "Alexandra", "Veselina", "Kalina", "Stefka", "Milena", "Ina", "Penka"};
+    private static final String[] namesF = {"Sara", "Anastasia", "Maria", "Martina", "Isabela", "Antonia", "Alexandra", "Veselina", "Kalina", "Stefka", "Milena", "Ina", "Penka"};
+    private static final Gender[] genders = Gender.values();
+    private static final Specialization[] specs = Specialization.values();
     private final String name;
-    private final String phoneNumber;
+    private final int phoneNumber;  //phone number without the prefix 088
     private final int age;
     private final Gender gender;
     private final Specialization spec;  //specialization patient needs
-    private int daysOfTreatment = 0;
+    private Severity severity = Severity.STANDARD;  //how urgently patient needs a doctor
+    private int dischargeDay = 0;   //day of the ward when patient is discharged
+    private volatile Medication[] medications;  //medicines of the treatment plan, null before the examination
     private int room;   //room number in hospital
+    private int bed;    //bed number in the room
+    private volatile Doctor attendingDoctor;    //doctor treating the patient, null if the patient is not in a ward
+    private volatile MedicalWard ward;  //ward of the patient, null if the patient is not in a ward
+    private int transfers;  //number of times the patient was sent to another hospital of a network
 
     /**
      * Constructor that generates random gander, name depends on gender, phone number, age and specialization patient needs.
      */
     public Patient() {
-        Random rand = new Random();
-        Gender[] genders = Gender.values();
+        this(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Constructor that generates the patient with given random generator.
+     *
+     * @param rand random generator, the same seed gives the same patients
+     */
+    public Patient(RandomGenerator rand) {
         gender = genders[rand.nextInt(genders.length)];     // chose random gender
         if (gender == Gender.MALE) {     // chose random name depends on gender
             this.name = namesM[rand.nextInt(namesM.length)];
         } else {
             this.name = namesF[rand.nextInt(namesF.length)];
         }
-        phoneNumber = "088" + (rand.nextInt(2999999) + 7000000);    // create random phone number
+        phoneNumber = rand.nextInt(2999999) + 7000000;    // create random phone number
         age = rand.nextInt(99);
-        Specialization[] specs = Specialization.values();
         spec = specs[rand.nextInt(specs.length)];     // chose random specialization
     }
 
+    /**
+     * Constructor that generates random name, phone number and age for a patient with given gender and specialization,
+     * used when the mix of patients is decided by the caller.
+     *
+     * @param rand random generator, the same seed gives the same patients
+     * @param gender gender of the patient
+     * @param spec specialization patient needs
+     */
+    public Patient(RandomGenerator rand, Gender gender, Specialization spec) {
+        this.gender = gender;
+        if (gender == Gender.MALE) {     // chose random name depends on gender
+            this.name = namesM[rand.nextInt(namesM.length)];
+        } else {
+            this.name = namesF[rand.nextInt(namesF.length)];
+        }
+        phoneNumber = rand.nextInt(2999999) + 7000000;    // create random phone number
+        age = rand.nextInt(99);
+        this.spec = spec;
+    }
+
+    /**
+     * Constructor with all details of the patient, used when a saved hospital is loaded.
+     *
+     * @param name name of the patient
+     * @param phoneNumber phone number without the prefix 088
+     * @param age age of the patient
+     * @param gender gender of the patient
+     * @param spec specialization patient needs
+     */
+    public Patient(String name, int phoneNumber, int age, Gender gender, Specialization spec) {
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.age = age;
+        this.gender = gender;
+        this.spec = spec;
+    }
+
     public Gender getGender() {
         return this.gender;
     }
 
     @Override
     public String toString() {
-        return "Patient: " + name + ", phone number: " + phoneNumber + ", age: " + age + ", sex: " + gender.toString().toLowerCase();
+        return "Patient: " + name + ", phone number: 088" + phoneNumber + ", age: " + age + ", sex: " + gender.toString().toLowerCase();
     }
 
     public String getName() {
@@ -54,25 +110,63 @@ public class Patient {
     }
 
     /**
-     * Days patient to be in hospital
+     * @return phone number without the prefix 088
+     */
+    public int getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    /**
+     * Day when patient leaves the hospital, counted by the days of his ward
      *
-     * @param daysOfTreatment number of remaining days in hospital
+     * @param dischargeDay day of discharge
      */
-    public void setDaysOfTreatment(int daysOfTreatment) {
-        this.daysOfTreatment = daysOfTreatment;
+    public void setDischargeDay(int dischargeDay) {
+        this.dischargeDay = dischargeDay;
     }
 
     /**
-     * @return remaining days in hospital
+     * @return day of discharge
      */
-    public int getDaysOfTreatment() {
-        return daysOfTreatment;
+    public int getDischargeDay() {
+        return dischargeDay;
     }
 
     public Specialization getSpec() {
         return spec;
     }
 
+    /**
+     * Severity decided at triage, must be set before the patient enters the hospital
+     * @param severity how urgently patient needs a doctor
+     */
+    public void setSeverity(Severity severity) {
+        this.severity = severity;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Medicines of the treatment plan, given by the nurses every day
+     * @param medications medicines the patient takes every day
+     */
+    public void setMedications(Medication[] medications) {
+        this.medications = medications;
+    }
+
+    /**
+     * @return medicines of the treatment plan, null if the patient was not examined yet
+     */
+    public Medication[] getMedications() {
+        return medications;
+    }
+
     public void setRoom(int room) {
         this.room = room;
     }
@@ -80,4 +174,44 @@ public class Patient {
     public int getRoom() {
         return room;
     }
+
+    public void setBed(int bed) {
+        this.bed = bed;
+    }
+
+    public int getBed() {
+        return bed;
+    }
+
+    public void setAttendingDoctor(Doctor attendingDoctor) {
+        this.attendingDoctor = attendingDoctor;
+    }
+
+    public Doctor getAttendingDoctor() {
+        return attendingDoctor;
+    }
+
+    /**
+     * Set by the ward when the patient takes or frees a bed
+     * @param ward ward of the patient, null if he left the ward
+     */
+    public void setWard(MedicalWard ward) {
+        this.ward = ward;
+    }
+
+    public MedicalWard getWard() {
+        return ward;
+    }
+
+    /**
+     * Counted by the network before it sends the patient to another site, so he does not move between the sites forever
+     * @param transfers number of times the patient was sent to another site
+     */
+    public void setTransfers(int transfers) {
+        this.transfers = transfers;
+    }
+
+    public int getTransfers() {
+        return transfers;
+    }
 }
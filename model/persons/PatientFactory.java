@@ -0,0 +1,63 @@
+package Hospital.model.persons;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Factory for creating many patients fast.
+ * Every thread gets its own random generator split from one seeded generator, so threads never share
+ * a generator and one thread with the same seed always gets the same patients.
+ */
+public class PatientFactory {
+    private final SplittableRandom master;  // generator from which every thread gets its own
+    private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(this::split);
+
+    /**
+     * Constructor for factory with random seed.
+     */
+    public PatientFactory() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * @param seed seed of the generator, the same seed gives the same patients
+     */
+    public PatientFactory(long seed) {
+        master = new SplittableRandom(seed);
+    }
+
+    private synchronized SplittableRandom split() {
+        return master.split();
+    }
+
+    /**
+     * @return new random patient
+     */
+    public Patient next() {
+        return new Patient(random.get());
+    }
+
+    /**
+     * Creates patients and gives every one to the consumer, without keeping them in a list.
+     *
+     * @param count    number of patients
+     * @param consumer what to do with every patient, for example hospital::enterHospital
+     */
+    public void generate(int count, Consumer<Patient> consumer) {
+        SplittableRandom rand = random.get();
+        for (int i = 0; i < count; i++) {
+            consumer.accept(new Patient(rand));
+        }
+    }
+
+    /**
+     * @param count number of patients
+     * @return list with new random patients
+     */
+    public ArrayList<Patient> generate(int count) {
+        ArrayList<Patient> patients = new ArrayList<>(count);
+        generate(count, patients::add);
+        return patients;
+    }
+}
@@ -0,0 +1,81 @@
+package Hospital.model.simulation;
+
+import Hospital.model.Hospital;
+import Hospital.model.events.DigestEventSink;
+import Hospital.model.events.EventType;
+import Hospital.model.persons.Patient;
+
+import java.util.Random;
+
+/**
+ * Simulation of a hospital in virtual time.
+ * Patients arrive at random times with given average number per day, the days start every 5 seconds of virtual time
+ * like in the demo, and examinations and visitations last as long as in the hospital, but nothing sleeps.
+ * Everything random comes from the seed, so two simulations with the same parameters produce exactly the same events.
+ */
+public class HospitalSimulation {
+    private static final long DAY_LENGTH = 5000;    // length of one day in virtual milliseconds
+
+    private final long seed;
+    private final int days;
+    private final double arrivalsPerDay;
+    private long arrivals = 0;
+
+    /**
+     * @param seed seed of all random generators
+     * @param days number of simulated days
+     * @param arrivalsPerDay average number of patients coming to the hospital every day
+     */
+    public HospitalSimulation(long seed, int days, double arrivalsPerDay) {
+        this.seed = seed;
+        this.days = days;
+        this.arrivalsPerDay = arrivalsPerDay;
+    }
+
+    /**
+     * Runs the simulation from the beginning.
+     * @return report with counts of events and their fingerprint
+     */
+    public SimulationReport run() {
+        long start = System.currentTimeMillis();
+        Simulation simulation = new Simulation();
+        Hospital hospital = new Hospital(new SimulatedScheduler(simulation), seed);
+        hospital.setWardParallelism(1);     // wards are processed in the same order every day
+        DigestEventSink events = new DigestEventSink(simulation::now);
+        hospital.setEventSink(events);
+
+        long end = (days + 1) * DAY_LENGTH;
+        for (int day = 1; day <= days; day++) {
+            simulation.scheduleAt(day * DAY_LENGTH, hospital);
+        }
+        arrivals = 0;
+        scheduleArrival(simulation, hospital, new Random(seed + 1), end);
+        simulation.runUntil(end);
+        hospital.shutdown();
+
+        return new SimulationReport(seed, days, arrivals, events.getCount(EventType.EXAMINATION), events.getCount(EventType.DISCHARGE),
+                events.getCount(EventType.NO_DOCTOR) + events.getCount(EventType.NO_BED), events.getCount(EventType.VISIT),
+                hospital.getWaitingPatientsCount(), simulation.getExecutedActions(), events.getFingerprint(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Schedules the next arrival of a patient, the time between arrivals is exponential, so the arrivals are a Poisson process.
+     *
+     * @param simulation simulation
+     * @param hospital hospital
+     * @param rand random generator for arrivals and patients
+     * @param end end of the simulation
+     */
+    private void scheduleArrival(Simulation simulation, Hospital hospital, Random rand, long end) {
+        long delay = (long) (-Math.log(1 - rand.nextDouble()) * DAY_LENGTH / arrivalsPerDay);
+        if (simulation.now() + delay >= end) {
+            return;
+        }
+        simulation.schedule(delay, () -> {
+            arrivals++;
+            hospital.enterHospital(new Patient(rand));
+            scheduleArrival(simulation, hospital, rand, end);
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package Hospital.model.simulation;
+
+import Hospital.model.Hospital;
+import Hospital.model.enums.Gender;
+import Hospital.model.enums.Severity;
+import Hospital.model.enums.Specialization;
+import Hospital.model.persons.Patient;
+
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends patients to a hospital by a load profile, in the virtual time of a simulation or in real time.
+ * Times of arrivals are drawn with the highest rate of the profile and every arrival is kept with the probability
+ * of the rate at its time compared to the highest rate, so the arrivals are a Poisson process also when the rate changes.
+ * The same seed gives the same patients at the same times. The profile is read when the generator is created.
+ */
+public class LoadGenerator {
+    private static final Specialization[] specs = Specialization.values();
+    private static final Severity[] severityValues = Severity.values();
+    private final LoadProfile profile;
+    private final Random rand;  // random generator for arrivals and patients
+    private final Random treatmentRandom;   // random generator for days of treatment, used by the threads of the examinations
+    private final double[] specWeights;     // sums of the weights of the specializations up to every specialization
+    private final double[] severityWeights; // sums of the weights of the severities up to every severity
+    private final double peakRate;
+    private double lastArrival = 0; // time of the last arrival in milliseconds since the start
+    private volatile long arrivals = 0;     // written only by the thread of the arrivals
+    private volatile boolean stopped = false;
+
+    /**
+     * @param profile load profile
+     * @param seed seed of all random generators
+     */
+    public LoadGenerator(LoadProfile profile, long seed) {
+        this.profile = profile;
+        rand = new Random(seed);
+        treatmentRandom = new Random(seed + 1);
+        specWeights = new double[specs.length];
+        double sum = 0;
+        for (int i = 0; i < specs.length; i++) {
+            sum += profile.getSpecializationWeight(specs[i]);
+            specWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Some specialization must have a weight");
+        }
+        severityWeights = new double[severityValues.length];
+        sum = 0;
+        for (int i = 0; i < severityValues.length; i++) {
+            sum += profile.getSeverityWeight(severityValues[i]);
+            severityWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Some severity must have a weight");
+        }
+        peakRate = profile.getPeakRate();
+    }
+
+    /**
+     * @return new patient with gender, specialization and severity by the profile
+     */
+    public Patient nextPatient() {
+        Gender gender = rand.nextDouble() < profile.getFemaleShare() ? Gender.FEMALE : Gender.MALE;
+        Specialization spec = specs[pick(specWeights)];
+        Patient patient = new Patient(rand, gender, spec);
+        patient.setSeverity(severityValues[pick(severityWeights)]);
+        return patient;
+    }
+
+    /**
+     * @return time of the next arrival in milliseconds since the start
+     */
+    public long nextArrival() {
+        while (true) {
+            lastArrival += -Math.log(1 - rand.nextDouble()) / peakRate;     // time between arrivals with the highest rate
+            if (rand.nextDouble() * peakRate < profile.getRate((long) lastArrival)) {
+                return (long) lastArrival;
+            }
+        }
+    }
+
+    /**
+     * Days of treatment by the profile, can be given to the hospital with setTreatmentDays.
+     *
+     * @param patient examined patient
+     * @return days of treatment
+     */
+    public int nextTreatmentDays(Patient patient) {
+        int min = profile.getMinTreatmentDays();
+        int max = profile.getMaxTreatmentDays();
+        double mean = profile.getMeanTreatmentDays();
+        if (mean == 0) {
+            return min + treatmentRandom.nextInt(max - min + 1);
+        }
+        double p = 1 / (mean - min + 1);    // probability that the treatment ends on a day
+        long days = min + (long) (Math.log(1 - treatmentRandom.nextDouble()) / Math.log(1 - p));
+        return (int) Math.min(days, max);
+    }
+
+    /**
+     * Schedules the arrivals in the simulation from its current time, every arrival schedules the next one.
+     *
+     * @param simulation simulation
+     * @param hospital hospital that receives the patients
+     * @param end time when no more patients come
+     */
+    public void start(Simulation simulation, Hospital hospital, long end) {
+        long start = simulation.now();
+        hospital.setTreatmentDays(this::nextTreatmentDays);
+        scheduleArrival(simulation, hospital, start, end);
+    }
+
+    private void scheduleArrival(Simulation simulation, Hospital hospital, long start, long end) {
+        long time = start + nextArrival();
+        if (time >= end) {
+            return;
+        }
+        simulation.scheduleAt(time, () -> {
+            arrivals++;
+            hospital.enterHospital(nextPatient());
+            scheduleArrival(simulation, hospital, start, end);
+        });
+    }
+
+    /**
+     * Sends patients to the hospital in real time on the executor, until stop is called or the executor is shut down.
+     *
+     * @param executor executor that waits for the arrivals
+     * @param hospital hospital that receives the patients
+     */
+    public void start(ScheduledExecutorService executor, Hospital hospital) {
+        long start = System.nanoTime() / 1_000_000;
+        hospital.setTreatmentDays(this::nextTreatmentDays);
+        scheduleArrival(executor, hospital, start);
+    }
+
+    private void scheduleArrival(ScheduledExecutorService executor, Hospital hospital, long start) {
+        long delay = start + nextArrival() - System.nanoTime() / 1_000_000;
+        try {
+            executor.schedule(() -> {
+                if (stopped) {
+                    return;
+                }
+                arrivals++;
+                hospital.enterHospital(nextPatient());
+                scheduleArrival(executor, hospital, start);
+            }, Math.max(0, delay), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {    // executor was shut down, no more patients come
+        }
+    }
+
+    /**
+     * Stops the arrivals in real time, the patient who is being sent still comes.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return patients sent to the hospital
+     */
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * @param weights sums of the weights up to every value
+     * @return index of a random value with the probability of its weight
+     */
+    private int pick(double[] weights) {
+        double r = rand.nextDouble() * weights[weights.length - 1];
+        for (int i = 0; i < weights.length - 1; i++) {
+            if (r < weights[i]) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
@@ -0,0 +1,231 @@
+package Hospital.model.simulation;
+
+import Hospital.model.enums.Severity;
+import Hospital.model.enums.Specialization;
+
+import java.util.EnumMap;
+
+/**
+ * Description of the load on a hospital: how many patients come every day, which specializations, genders and severities
+ * they have and how long they stay in the hospital.
+ * Patients come as a Poisson process. A sustained profile has the same rate all the time, a burst profile has a higher
+ * rate for some days in every period, for example three times more patients for one day in every week.
+ * Days of treatment are uniform between the shortest and the longest stay, or geometric with the given average
+ * and cut at the longest stay, which gives a few long stays like in a real hospital.
+ */
+public class LoadProfile {
+    private double arrivalsPerDay;  // average arrivals on a day without burst
+    private long dayLength = 5000;  // length of one day of the hospital in milliseconds
+    private int burstPeriod = 0;    // days from the start of one burst to the start of the next, 0 if there are no bursts
+    private int burstDays = 0;
+    private double burstFactor = 1; // how many times more patients come during a burst
+    private double femaleShare = 0.5;
+    private final EnumMap<Specialization, Double> specializations = new EnumMap<>(Specialization.class);    // weight of every specialization
+    private final EnumMap<Severity, Double> severities = new EnumMap<>(Severity.class);   // weight of every severity
+    private int minTreatmentDays = 3;
+    private int maxTreatmentDays = 5;
+    private double meanTreatmentDays = 0;   // 0 if the days are uniform between min and max
+
+    /**
+     * Creates profile with the same rate all the time, all specializations equally often and 5% critical, 15% urgent,
+     * 60% standard and 20% non-urgent patients.
+     *
+     * @param arrivalsPerDay average number of patients coming every day
+     */
+    public LoadProfile(double arrivalsPerDay) {
+        if (arrivalsPerDay <= 0) {
+            throw new IllegalArgumentException("Arrivals per day must be positive: " + arrivalsPerDay);
+        }
+        this.arrivalsPerDay = arrivalsPerDay;
+        for (Specialization specialization : Specialization.values()) {
+            specializations.put(specialization, 1.0);
+        }
+        severities.put(Severity.CRITICAL, 5.0);
+        severities.put(Severity.URGENT, 15.0);
+        severities.put(Severity.STANDARD, 60.0);
+        severities.put(Severity.NON_URGENT, 20.0);
+    }
+
+    /**
+     * @param arrivalsPerDay average number of patients coming every day
+     * @return profile with the same rate all the time
+     */
+    public static LoadProfile sustained(double arrivalsPerDay) {
+        return new LoadProfile(arrivalsPerDay);
+    }
+
+    /**
+     * @param arrivalsPerDay average number of patients coming on a day without burst
+     * @param period days from the start of one burst to the start of the next
+     * @param days days of every burst
+     * @param factor how many times more patients come during a burst
+     * @return profile with bursts at the start of every period
+     */
+    public static LoadProfile bursts(double arrivalsPerDay, int period, int days, double factor) {
+        LoadProfile profile = new LoadProfile(arrivalsPerDay);
+        profile.setBursts(period, days, factor);
+        return profile;
+    }
+
+    /**
+     * @param period days from the start of one burst to the start of the next, 0 for no bursts
+     * @param days days of every burst
+     * @param factor how many times more patients come during a burst
+     */
+    public void setBursts(int period, int days, double factor) {
+        if (period < 0 || days < 0 || (period > 0 && days > period) || factor < 1) {
+            throw new IllegalArgumentException("Wrong bursts: period " + period + ", days " + days + ", factor " + factor);
+        }
+        burstPeriod = period;
+        burstDays = days;
+        burstFactor = factor;
+    }
+
+    public void setArrivalsPerDay(double arrivalsPerDay) {
+        if (arrivalsPerDay <= 0) {
+            throw new IllegalArgumentException("Arrivals per day must be positive: " + arrivalsPerDay);
+        }
+        this.arrivalsPerDay = arrivalsPerDay;
+    }
+
+    /**
+     * @param dayLength length of one day of the hospital in milliseconds, virtual in a simulation
+     */
+    public void setDayLength(long dayLength) {
+        if (dayLength <= 0) {
+            throw new IllegalArgumentException("Day length must be positive: " + dayLength);
+        }
+        this.dayLength = dayLength;
+    }
+
+    /**
+     * @param femaleShare part of the patients who are women, from 0 to 1
+     */
+    public void setFemaleShare(double femaleShare) {
+        if (femaleShare < 0 || femaleShare > 1) {
+            throw new IllegalArgumentException("Female share must be from 0 to 1: " + femaleShare);
+        }
+        this.femaleShare = femaleShare;
+    }
+
+    /**
+     * @param specialization specialization patients need
+     * @param weight how often the specialization is needed compared to the others, 0 if never
+     */
+    public void setSpecializationWeight(Specialization specialization, double weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        specializations.put(specialization, weight);
+    }
+
+    /**
+     * @param severity severity decided at triage
+     * @param weight how often the severity is decided compared to the others, 0 if never
+     */
+    public void setSeverityWeight(Severity severity, double weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        severities.put(severity, weight);
+    }
+
+    /**
+     * Sets days of treatment uniform between the shortest and the longest stay.
+     *
+     * @param min shortest stay in days
+     * @param max longest stay in days
+     */
+    public void setTreatmentDays(int min, int max) {
+        setTreatmentDays(min, max, 0);
+    }
+
+    /**
+     * Sets days of treatment geometric with the given average, cut at the longest stay.
+     *
+     * @param min shortest stay in days
+     * @param max longest stay in days
+     * @param mean average stay in days before the cut, bigger than min, or 0 for uniform days between min and max
+     */
+    public void setTreatmentDays(int min, int max, double mean) {
+        if (min < 1 || max < min || (mean != 0 && (mean <= min || mean > max))) {
+            throw new IllegalArgumentException("Wrong treatment days: min " + min + ", max " + max + ", mean " + mean);
+        }
+        minTreatmentDays = min;
+        maxTreatmentDays = max;
+        meanTreatmentDays = mean;
+    }
+
+    /**
+     * @param time time since the start of the load in milliseconds
+     * @return average number of patients coming in one millisecond at the given time
+     */
+    public double getRate(long time) {
+        double rate = arrivalsPerDay / dayLength;
+        if (burstPeriod > 0 && (time / dayLength) % burstPeriod < burstDays) {
+            rate *= burstFactor;
+        }
+        return rate;
+    }
+
+    /**
+     * @return highest number of patients coming in one millisecond, during bursts
+     */
+    public double getPeakRate() {
+        return arrivalsPerDay * (burstPeriod > 0 && burstDays > 0 ? burstFactor : 1) / dayLength;
+    }
+
+    /**
+     * @return average arrivals per day over whole burst periods
+     */
+    public double getAverageArrivalsPerDay() {
+        if (burstPeriod == 0) {
+            return arrivalsPerDay;
+        }
+        return arrivalsPerDay * (burstPeriod + burstDays * (burstFactor - 1)) / burstPeriod;
+    }
+
+    public double getArrivalsPerDay() {
+        return arrivalsPerDay;
+    }
+
+    public long getDayLength() {
+        return dayLength;
+    }
+
+    public double getFemaleShare() {
+        return femaleShare;
+    }
+
+    public double getSpecializationWeight(Specialization specialization) {
+        return specializations.get(specialization);
+    }
+
+    public double getSeverityWeight(Severity severity) {
+        return severities.get(severity);
+    }
+
+    public int getMinTreatmentDays() {
+        return minTreatmentDays;
+    }
+
+    public int getMaxTreatmentDays() {
+        return maxTreatmentDays;
+    }
+
+    /**
+     * @return average stay before the cut, 0 if the days are uniform
+     */
+    public double getMeanTreatmentDays() {
+        return meanTreatmentDays;
+    }
+
+    @Override
+    public String toString() {
+        String load = String.format("%.1f patients a day", arrivalsPerDay);
+        if (burstPeriod > 0 && burstDays > 0) {
+            load += String.format(", %.1f times more for %d of every %d days", burstFactor, burstDays, burstPeriod);
+        }
+        return load;
+    }
+}
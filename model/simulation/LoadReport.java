@@ -0,0 +1,182 @@
+package Hospital.model.simulation;
+
+import Hospital.model.enums.Severity;
+import Hospital.model.metrics.Histogram;
+
+import java.util.EnumMap;
+
+/**
+ * Result of a load test: how many patients came and were served, how full the beds were and how long patients waited for a doctor.
+ * Waiting times are known only for examined patients, patients still waiting at the end are counted in the backlog.
+ */
+public class LoadReport {
+    private final LoadProfile profile;
+    private final int days;
+    private final long arrivals;
+    private final long examinations;
+    private final long admissions;
+    private final long rejections;
+    private final long discharges;
+    private final long capacity;
+    private final double bedUtilization;
+    private final long peakOccupiedBeds;
+    private final int waitingPatients;
+    private final int peakWaitingPatients;
+    private final EnumMap<Severity, Histogram> waitTimes;
+    private final Histogram allWaitTimes = new Histogram();
+    private final long elapsedMillis;
+
+    /**
+     * @param profile load profile of the test
+     * @param days simulated days
+     * @param arrivals patients who came to the hospital
+     * @param examinations examined patients
+     * @param admissions patients who got a bed
+     * @param rejections patients without doctor or free bed
+     * @param discharges discharged patients
+     * @param capacity beds of the hospital
+     * @param bedUtilization average part of the beds occupied at the end of a day
+     * @param peakOccupiedBeds most beds occupied at the end of a day
+     * @param waitingPatients patients still waiting for examination at the end
+     * @param peakWaitingPatients most patients waiting at the end of a day
+     * @param waitTimes waiting times of the examined patients in milliseconds for every severity
+     * @param elapsedMillis real time of the test in milliseconds
+     */
+    public LoadReport(LoadProfile profile, int days, long arrivals, long examinations, long admissions, long rejections, long discharges,
+                      long capacity, double bedUtilization, long peakOccupiedBeds, int waitingPatients, int peakWaitingPatients,
+                      EnumMap<Severity, Histogram> waitTimes, long elapsedMillis) {
+        this.profile = profile;
+        this.days = days;
+        this.arrivals = arrivals;
+        this.examinations = examinations;
+        this.admissions = admissions;
+        this.rejections = rejections;
+        this.discharges = discharges;
+        this.capacity = capacity;
+        this.bedUtilization = bedUtilization;
+        this.peakOccupiedBeds = peakOccupiedBeds;
+        this.waitingPatients = waitingPatients;
+        this.peakWaitingPatients = peakWaitingPatients;
+        this.waitTimes = waitTimes;
+        for (Histogram histogram : waitTimes.values()) {
+            allWaitTimes.add(histogram);
+        }
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return patients who got a bed per day
+     */
+    public double getThroughput() {
+        return (double) admissions / days;
+    }
+
+    /**
+     * @return examined patients per day
+     */
+    public double getExaminationsPerDay() {
+        return (double) examinations / days;
+    }
+
+    /**
+     * @return part of the arrived patients who were sent away without doctor or free bed
+     */
+    public double getRejectionRate() {
+        return arrivals == 0 ? 0 : (double) rejections / arrivals;
+    }
+
+    /**
+     * @return average part of the beds occupied at the end of a day
+     */
+    public double getBedUtilization() {
+        return bedUtilization;
+    }
+
+    /**
+     * The hospital is saturated when more than 1% of the patients are sent away, or when more patients wait at the end
+     * than come in one day, because then the queue grows for as long as the load lasts.
+     *
+     * @return true if the hospital can not serve the load
+     */
+    public boolean isSaturated() {
+        return getRejectionRate() > 0.01 || waitingPatients > profile.getAverageArrivalsPerDay();
+    }
+
+    /**
+     * @param severity severity of patients
+     * @return waiting times of the examined patients of the severity in milliseconds
+     */
+    public Histogram getWaitTimes(Severity severity) {
+        return waitTimes.get(severity);
+    }
+
+    /**
+     * @return waiting times of all examined patients in milliseconds
+     */
+    public Histogram getWaitTimes() {
+        return allWaitTimes;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getAdmissions() {
+        return admissions;
+    }
+
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getDischarges() {
+        return discharges;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getPeakOccupiedBeds() {
+        return peakOccupiedBeds;
+    }
+
+    public int getWaitingPatients() {
+        return waitingPatients;
+    }
+
+    public int getPeakWaitingPatients() {
+        return peakWaitingPatients;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(profile).append(", ").append(days).append(" days, real time ").append(elapsedMillis).append(" ms\n");
+        report.append(String.format("arrivals: %d, examinations: %d (%.1f a day), admissions: %d (%.1f a day), discharges: %d%n",
+                arrivals, examinations, getExaminationsPerDay(), admissions, getThroughput(), discharges));
+        report.append(String.format("rejections: %d (%.2f%%), beds: %d, utilization: %.1f%%, peak occupied: %d%n",
+                rejections, getRejectionRate() * 100, capacity, bedUtilization * 100, peakOccupiedBeds));
+        report.append(String.format("waiting at the end: %d, peak waiting: %d%s%n", waitingPatients, peakWaitingPatients,
+                isSaturated() ? ", SATURATED" : ""));
+        report.append(String.format("%12s %10s %10s %10s %10s %10s%n", "wait", "examined", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Severity severity : Severity.values()) {
+            row(report, severity.toString(), waitTimes.get(severity));
+        }
+        row(report, "all", allWaitTimes);
+        return report.toString();
+    }
+
+    private static void row(StringBuilder report, String name, Histogram histogram) {
+        report.append(String.format("%12s %10d %10d %10d %10d %10d%n", name, histogram.getCount(), histogram.getPercentile(50),
+                histogram.getPercentile(90), histogram.getPercentile(99), histogram.getMax()));
+    }
+}
@@ -0,0 +1,89 @@
+package Hospital.model.simulation;
+
+import Hospital.model.Hospital;
+import Hospital.model.HospitalTopology;
+import Hospital.model.enums.Severity;
+import Hospital.model.events.EventSink;
+import Hospital.model.facilities.MedicalWard;
+import Hospital.model.metrics.Histogram;
+import Hospital.model.metrics.HospitalMetrics;
+
+import java.util.EnumMap;
+import java.util.Random;
+
+/**
+ * Load test of a hospital of a given topology in virtual time.
+ * Patients come by the load profile for the given number of days, the days of the hospital start at the end of every day
+ * of the profile, and the occupied beds and waiting patients are counted before every day. Nothing sleeps,
+ * so years of a big hospital can be tested in seconds and runs with growing load show where the hospital is saturated.
+ * The same seed gives the same test.
+ */
+public class LoadTest {
+    private final HospitalTopology topology;
+    private final LoadProfile profile;
+    private final long seed;
+
+    /**
+     * @param topology size of the hospital
+     * @param profile load on the hospital
+     * @param seed seed of all random generators
+     */
+    public LoadTest(HospitalTopology topology, LoadProfile profile, long seed) {
+        this.topology = topology;
+        this.profile = profile;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the test from the beginning with a new hospital.
+     *
+     * @param days days with arrivals
+     * @return report of the test
+     */
+    public LoadReport run(int days) {
+        long start = System.currentTimeMillis();
+        Simulation simulation = new Simulation();
+        Hospital hospital = topology.createHospital(new SimulatedScheduler(simulation), new Random(seed));
+        hospital.setEventSink(EventSink.noOp());
+        hospital.setWardParallelism(1);     // wards are processed in the same order every day
+        HospitalMetrics metrics = hospital.enableMetrics();
+        long capacity = 0;
+        for (MedicalWard mw : hospital.getWards()) {
+            capacity += mw.getCapacity();
+        }
+
+        long dayLength = profile.getDayLength();
+        long[] occupied = {0, 0};   // sum and peak of the beds occupied before the days
+        int[] peakWaiting = {0};
+        for (int day = 1; day <= days; day++) {
+            simulation.scheduleAt(day * dayLength, () -> {
+                long beds = 0;
+                for (MedicalWard mw : hospital.getWards()) {
+                    beds += mw.getOccupiedBeds();
+                }
+                occupied[0] += beds;
+                occupied[1] = Math.max(occupied[1], beds);
+                peakWaiting[0] = Math.max(peakWaiting[0], hospital.getWaitingPatientsCount());
+                hospital.run();
+            });
+        }
+        LoadGenerator generator = new LoadGenerator(profile, seed + 1);
+        long end = days * dayLength;
+        generator.start(simulation, hospital, end);
+        simulation.runUntil(end);
+        hospital.shutdown();
+
+        long admissions = 0;
+        for (MedicalWard mw : hospital.getWards()) {
+            admissions += mw.getAdmissions();
+        }
+        EnumMap<Severity, Histogram> waitTimes = new EnumMap<>(Severity.class);
+        for (Severity severity : Severity.values()) {
+            waitTimes.put(severity, hospital.getWaitTimes(severity));
+        }
+        return new LoadReport(profile, days, generator.getArrivals(), metrics.getExaminations(), admissions,
+                metrics.getNoBed() + metrics.getNoDoctor(), metrics.getDischarges(), capacity,
+                capacity == 0 ? 0 : (double) occupied[0] / days / capacity, occupied[1], hospital.getWaitingPatientsCount(),
+                peakWaiting[0], waitTimes, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,71 @@
+package Hospital.model.simulation;
+
+import Hospital.model.enums.Specialization;
+import Hospital.model.threads.DoctorScheduler;
+import Hospital.model.threads.DoctorTask;
+
+/**
+ * Scheduler that executes examinations and visitations in a simulation.
+ * Every step of a doctor task is an action of the simulation, the next step is scheduled after the duration of the step in virtual time.
+ * Every doctor works on one task at a time, so the number of tasks for a specialization is limited by the number of its doctors.
+ */
+public class SimulatedScheduler implements DoctorScheduler {
+    private final Simulation simulation;
+    private boolean isShutdown = false;
+
+    /**
+     * @param simulation simulation that executes the steps
+     */
+    public SimulatedScheduler(Simulation simulation) {
+        this.simulation = simulation;
+    }
+
+    @Override
+    public void submit(Specialization specialization, Runnable task) {
+        if (isShutdown) {
+            return;
+        }
+        if (task instanceof DoctorTask) {
+            simulation.schedule(0, () -> step((DoctorTask) task, 0));
+        } else {
+            simulation.schedule(0, task);
+        }
+    }
+
+    /**
+     * Executes a step of the task and schedules the next one after the duration of the step, after the last step the task is finished.
+     *
+     * @param task doctor task
+     * @param step number of the step
+     */
+    private void step(DoctorTask task, int step) {
+        if (step < task.getSteps()) {
+            task.step(step);
+            simulation.schedule(task.getStepTime(), () -> step(task, step + 1));
+        } else {
+            task.finish();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+    }
+
+    /**
+     * @return virtual time of the simulation
+     */
+    @Override
+    public long now() {
+        return simulation.now();
+    }
+
+    /**
+     * Tasks run only while the simulation runs, so there is nothing to wait for.
+     * @return always true
+     */
+    @Override
+    public boolean awaitTermination(long timeout) {
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package Hospital.model.simulation;
+
+import java.util.PriorityQueue;
+
+/**
+ * Engine for discrete event simulation with a virtual clock.
+ * Actions are scheduled at virtual times and executed in order of their time, actions with the same time in order of scheduling.
+ * The clock jumps from one action to the next, so nothing sleeps and all actions are executed on the calling thread.
+ * The engine is not thread safe, actions must be scheduled only from the calling thread or from other actions.
+ */
+public class Simulation {
+    private final PriorityQueue<ScheduledAction> actions = new PriorityQueue<>();
+    private long now = 0;   // virtual time in milliseconds
+    private long sequence = 0;  // order of scheduling for actions with the same time
+    private long executedActions = 0;
+
+    /**
+     * @return current virtual time in milliseconds
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Schedules an action after given time from now.
+     *
+     * @param delay virtual time in milliseconds
+     * @param action action to be executed
+     */
+    public void schedule(long delay, Runnable action) {
+        scheduleAt(now + Math.max(0, delay), action);
+    }
+
+    /**
+     * Schedules an action at given virtual time, if the time is already passed the action is executed now.
+     *
+     * @param time virtual time in milliseconds
+     * @param action action to be executed
+     */
+    public void scheduleAt(long time, Runnable action) {
+        actions.add(new ScheduledAction(Math.max(now, time), sequence++, action));
+    }
+
+    /**
+     * Executes all actions scheduled up to the given time, including actions scheduled by them, and moves the clock to that time.
+     *
+     * @param time virtual time in milliseconds
+     */
+    public void runUntil(long time) {
+        while (!actions.isEmpty() && actions.peek().time <= time) {
+            ScheduledAction action = actions.poll();
+            now = action.time;
+            action.action.run();
+            executedActions++;
+        }
+        now = Math.max(now, time);
+    }
+
+    /**
+     * @return number of actions executed from the start
+     */
+    public long getExecutedActions() {
+        return executedActions;
+    }
+
+    /**
+     * @return number of actions waiting for their time
+     */
+    public int getPendingActions() {
+        return actions.size();
+    }
+
+    /**
+     * Action with its time, ordered by time and then by order of scheduling.
+     */
+    private static class ScheduledAction implements Comparable<ScheduledAction> {
+        private final long time;
+        private final long sequence;
+        private final Runnable action;
+
+        ScheduledAction(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(ScheduledAction other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package Hospital.model.simulation;
+
+/**
+ * Result of a hospital simulation. The fingerprint is the same for two runs only if they produced the same events in the same order.
+ */
+public class SimulationReport {
+    private final long seed;
+    private final int days;
+    private final long arrivals;
+    private final long examinations;
+    private final long discharges;
+    private final long rejections;
+    private final long visits;
+    private final int waitingPatients;
+    private final long executedActions;
+    private final long fingerprint;
+    private final long elapsedMillis;
+
+    /**
+     * @param seed seed of the simulation
+     * @param days simulated days
+     * @param arrivals patients who came to the hospital
+     * @param examinations examined patients
+     * @param discharges discharged patients
+     * @param rejections patients without doctor or free bed
+     * @param visits visits of doctors
+     * @param waitingPatients patients still waiting for examination at the end
+     * @param executedActions actions executed by the simulation
+     * @param fingerprint hash of all events
+     * @param elapsedMillis real time of the simulation in milliseconds
+     */
+    public SimulationReport(long seed, int days, long arrivals, long examinations, long discharges, long rejections, long visits,
+                            int waitingPatients, long executedActions, long fingerprint, long elapsedMillis) {
+        this.seed = seed;
+        this.days = days;
+        this.arrivals = arrivals;
+        this.examinations = examinations;
+        this.discharges = discharges;
+        this.rejections = rejections;
+        this.visits = visits;
+        this.waitingPatients = waitingPatients;
+        this.executedActions = executedActions;
+        this.fingerprint = fingerprint;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getExaminations() {
+        return examinations;
+    }
+
+    public long getDischarges() {
+        return discharges;
+    }
+
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "seed: " + seed + ", days: " + days + ", arrivals: " + arrivals + ", examinations: " + examinations
+                + ", discharges: " + discharges + ", rejections: " + rejections + ", visits: " + visits
+                + ", waiting: " + waitingPatients + ", actions: " + executedActions
+                + ", fingerprint: " + Long.toHexString(fingerprint) + ", real time: " + elapsedMillis + " ms";
+    }
+}
@@ -0,0 +1,39 @@
+package Hospital.model.threads;
+
+import Hospital.model.enums.Specialization;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler with one thread that executes all tasks in the order they are submitted.
+ * Only one doctor works at a time, so the order of examinations and visitations is always the same for the same submissions.
+ */
+public class DeterministicScheduler implements DoctorScheduler {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Override
+    public void submit(Specialization specialization, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // scheduler is shut down, task is not executed
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout) {
+        try {
+            return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package Hospital.model.threads;
+
+import Hospital.model.enums.Specialization;
+
+import java.util.Map;
+
+/**
+ * Scheduler that executes the work of doctors, examinations and visitations.
+ * Every task is submitted with the specialization of the doctor, so the number of tasks running at the same time can be limited for every specialization.
+ */
+public interface DoctorScheduler {
+
+    /**
+     * Submits a task for execution, the task is executed later on a thread of the scheduler.
+     *
+     * @param specialization specialization of the doctor that does the task
+     * @param task examination or visitation
+     */
+    void submit(Specialization specialization, Runnable task);
+
+    /**
+     * Stops accepting new tasks. Already submitted tasks are completed, tasks submitted after this are not executed.
+     */
+    void shutdown();
+
+    /**
+     * Waits until all tasks are completed after shutdown.
+     *
+     * @param timeout maximum time to wait in milliseconds
+     * @return true if all tasks are completed, false if the time is over
+     */
+    boolean awaitTermination(long timeout);
+
+    /**
+     * Current time of the scheduler, used to measure how long patients wait.
+     *
+     * @return time in milliseconds, only differences between two times have a meaning
+     */
+    default long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param mode how the tasks are executed
+     * @param concurrency maximum number of tasks running at the same time for every specialization, not used in deterministic mode
+     * @return new scheduler
+     */
+    static DoctorScheduler create(SchedulerMode mode, Map<Specialization, Integer> concurrency) {
+        switch (mode) {
+            case VIRTUAL_THREADS:
+                return new VirtualThreadScheduler(concurrency);
+            case DETERMINISTIC:
+                return new DeterministicScheduler();
+            default:
+                return new PlatformPoolScheduler(concurrency);
+        }
+    }
+}
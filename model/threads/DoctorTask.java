@@ -0,0 +1,79 @@
+package Hospital.model.threads;
+
+import Hospital.model.Hospital;
+import Hospital.model.metrics.HospitalMetrics;
+import Hospital.model.persons.Doctor;
+
+/**
+ * Work of a doctor made of steps with the same duration, after the last step the doctor is finished.
+ * When the task runs on a thread, it sleeps after every step. A simulation can execute the steps at virtual times instead,
+ * without sleeping.
+ * The task is created when its doctor is claimed, so the time from the creation to the end is the time the doctor was busy.
+ */
+public abstract class DoctorTask implements Runnable {
+    protected final Doctor doctor;
+    protected final Hospital hospital;
+    private final long created;     // time of the scheduler when the doctor was claimed
+
+    /**
+     * @param doctor doctor doing the task
+     * @param hospital hospital
+     */
+    protected DoctorTask(Doctor doctor, Hospital hospital) {
+        this.doctor = doctor;
+        this.hospital = hospital;
+        created = hospital.now();
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    /**
+     * @return number of steps of the task
+     */
+    public abstract int getSteps();
+
+    /**
+     * Executes a step of the task, after that the doctor is busy for the duration of the step.
+     * @param step number of the step, starting from 0
+     */
+    public abstract void step(int step);
+
+    /**
+     * @return duration of one step in milliseconds
+     */
+    public abstract long getStepTime();
+
+    /**
+     * Counts the finished task in the metrics of the hospital.
+     *
+     * @param metrics metrics of the hospital
+     * @param busyTime time from the claim of the doctor to the end of the task in milliseconds
+     */
+    protected abstract void record(HospitalMetrics metrics, long busyTime);
+
+    /**
+     * Called after the duration of the last step, the task is counted and the hospital gives the doctor his next work.
+     */
+    public void finish() {
+        HospitalMetrics metrics = hospital.getMetrics();
+        if (metrics != null) {
+            record(metrics, hospital.now() - created);
+        }
+        hospital.doctorFinished(doctor);
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < getSteps(); i++) {
+            step(i);
+            try {
+                Thread.sleep(getStepTime());    // sleep for the time of the step
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        finish();
+    }
+}
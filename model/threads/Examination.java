@@ -1,21 +1,21 @@
 package Hospital.model.threads;
 
 import Hospital.model.Hospital;
+import Hospital.model.enums.Medication;
+import Hospital.model.metrics.HospitalMetrics;
 import Hospital.model.persons.Doctor;
 import Hospital.model.persons.Patient;
 
-import java.util.Random;
-
 /**
- * A thread that accepts a patient and a doctor who gives a diagnosis and determines the length of stay in the hospital randomly.
- * At the end of the execution, it checks if there is a visitation during this time and calls the visitation method,
- * after that it calls a method that checks whether there are patients waiting for an examination.
+ * A task that accepts a patient and a doctor who gives a diagnosis and determines the medicines of the treatment plan.
+ * The length of stay in the hospital is decided when the doctor takes the patient, before the patient gets a bed.
+ * The examination is one step that lasts for the time of examination.
+ * At the end of the execution, the hospital starts the visitation of the doctor if there was one during this time,
+ * else the doctor takes the next patient waiting for an examination.
  */
-public class Examination extends Thread {
+public class Examination extends DoctorTask {
 
-    private final Doctor doctor;
     private final Patient patient;
-    private final Hospital hospital;
 
     /**
      *
@@ -24,28 +24,32 @@ public class Examination extends Thread {
      * @param hospital hospital
      */
     public Examination(Doctor doctor, Patient patient, Hospital hospital) {
-        this.doctor = doctor;
+        super(doctor, hospital);
         this.patient = patient;
-        this.hospital = hospital;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    @Override
+    public int getSteps() {
+        return 1;
+    }
+
+    @Override
+    public void step(int step) {
+        patient.setMedications(Medication.plan(patient));   // medicines given by the nurses every day
+        hospital.getEventSink().examination(doctor, patient);
+    }
+
+    @Override
+    public long getStepTime() {
+        return hospital.getExaminationTime();
     }
 
     @Override
-    public void run() {
-        Random rand = new Random();
-        int dot = (rand.nextInt(3) + 3);    // random days for treatment
-        System.out.println("Dr. " + doctor.getName() + " is examining " + patient);
-        patient.setDaysOfTreatment(dot);    // set days for treatment
-        try {
-            sleep(1000);    // sleep for a second
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-        if (doctor.isWaitingVisitation()) { // if there is a visitation at the same time run visitation
-            doctor.setWaitingVisitation(false); // set waiting for visitation as false
-            hospital.doctorVisitation(doctor); // run visitation
-        } else {
-            doctor.setFree(true);   // set availability of doctor
-            hospital.examinePatients(); // method that examine waiting patients
-        }
+    protected void record(HospitalMetrics metrics, long busyTime) {
+        metrics.examination(doctor, busyTime);
     }
 }
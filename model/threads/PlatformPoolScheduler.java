@@ -0,0 +1,65 @@
+package Hospital.model.threads;
+
+import Hospital.model.enums.Specialization;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler with a fixed pool of platform threads for every specialization.
+ * The size of the pool is the number of tasks that can run at the same time for the specialization, at most MAX_THREADS.
+ * Every platform thread is a thread of the system with its own stack, so a hospital with tens of thousands of doctors
+ * does not get a thread for every doctor. Tasks over the limit wait in the queue of the pool until a thread is free,
+ * so the doctors of a specialization share the threads and consultations of more doctors take longer in total.
+ * A big hospital should run with a SimulatedScheduler, which needs no threads for the doctors.
+ */
+public class PlatformPoolScheduler implements DoctorScheduler {
+    public static final int MAX_THREADS = 256;  // maximum number of threads in the pool of one specialization
+    private final EnumMap<Specialization, ExecutorService> pools = new EnumMap<>(Specialization.class);
+
+    /**
+     * @param concurrency size of the pool for every specialization, specialization without value gets one thread,
+     *                    sizes over MAX_THREADS get MAX_THREADS threads
+     */
+    public PlatformPoolScheduler(Map<Specialization, Integer> concurrency) {
+        for (Specialization specialization : Specialization.values()) {
+            int threads = Math.min(MAX_THREADS, Math.max(1, concurrency.getOrDefault(specialization, 1)));
+            pools.put(specialization, Executors.newFixedThreadPool(threads));
+        }
+    }
+
+    @Override
+    public void submit(Specialization specialization, Runnable task) {
+        try {
+            pools.get(specialization).execute(task);
+        } catch (RejectedExecutionException e) {
+            // scheduler is shut down, task is not executed
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (ExecutorService pool : pools.values()) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        try {
+            for (ExecutorService pool : pools.values()) {
+                if (!pool.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return true;
+    }
+}
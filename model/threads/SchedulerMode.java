@@ -0,0 +1,10 @@
+package Hospital.model.threads;
+
+/**
+ * Ways in which examinations and visitations of doctors can be executed.
+ */
+public enum SchedulerMode {
+    PLATFORM_POOL,      // fixed pool of platform threads for every specialization
+    VIRTUAL_THREADS,    // new virtual thread for every task, limited by number of tasks for every specialization
+    DETERMINISTIC       // one thread that executes all tasks in order of submission
+}
@@ -0,0 +1,87 @@
+package Hospital.model.threads;
+
+import Hospital.model.enums.Specialization;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler that starts a new virtual thread for every task.
+ * The number of tasks running at the same time for a specialization is limited with a semaphore, waiting tasks do not hold a platform thread.
+ * On Java versions without virtual threads a waiting task would block a platform thread, so the scheduler uses instead
+ * a fixed pool for every specialization, sized to the limit of the specialization and capped like PlatformPoolScheduler.
+ */
+public class VirtualThreadScheduler implements DoctorScheduler {
+    private final ExecutorService executor = newVirtualThreadExecutor();    // null on Java versions without virtual threads
+    private final EnumMap<Specialization, Semaphore> permits = new EnumMap<>(Specialization.class);
+    private final PlatformPoolScheduler fallback;   // pools used when there are no virtual threads, else null
+
+    /**
+     * @param concurrency number of tasks running at the same time for every specialization, specialization without value gets one
+     */
+    public VirtualThreadScheduler(Map<Specialization, Integer> concurrency) {
+        for (Specialization specialization : Specialization.values()) {
+            permits.put(specialization, new Semaphore(Math.max(1, concurrency.getOrDefault(specialization, 1)), true));
+        }
+        fallback = executor == null ? new PlatformPoolScheduler(concurrency) : null;
+    }
+
+    @Override
+    public void submit(Specialization specialization, Runnable task) {
+        if (fallback != null) {
+            fallback.submit(specialization, task);
+            return;
+        }
+        Semaphore semaphore = permits.get(specialization);
+        try {
+            executor.execute(() -> {
+                semaphore.acquireUninterruptibly();     // wait until a task of the same specialization finishes
+                try {
+                    task.run();
+                } finally {
+                    semaphore.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // scheduler is shut down, task is not executed
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (fallback != null) {
+            fallback.shutdown();
+            return;
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout) {
+        if (fallback != null) {
+            return fallback.awaitTermination(timeout);
+        }
+        try {
+            return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Looks up the executor for virtual threads at runtime, so the class works on Java versions before 21.
+     * @return executor that starts a virtual thread for every task, null if there are no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,19 +1,19 @@
 package Hospital.model.threads;
 
 import Hospital.model.Hospital;
+import Hospital.model.metrics.HospitalMetrics;
 import Hospital.model.persons.Doctor;
 import Hospital.model.persons.Patient;
 
 import java.util.ArrayList;
+import java.util.Collection;
 
 /**
- * A thread that goes around all the patients of a given doctor and for each patient falls asleep for 1 second.
- * At the end of the execution, it calls a method that checks whether there are patients waiting for an examination.
+ * A task that goes around all the patients of a given doctor, the visit of every patient is one step that lasts for the time of one visit.
+ * At the end of the execution, the doctor takes the next patient waiting for an examination.
  */
-public class Visitation extends Thread {
-    private final Doctor doctor;
+public class Visitation extends DoctorTask {
     private final ArrayList<Patient> patients = new ArrayList<>();
-    private final Hospital hospital;
 
     /**
      * Constructor
@@ -21,23 +21,29 @@ public class Visitation extends Thread {
      * @param patients list of patients for visitation
      * @param hospital hospital
      */
-    public Visitation(Doctor doctor, ArrayList<Patient> patients, Hospital hospital) {
-        this.doctor = doctor;
-        this.hospital = hospital;
+    public Visitation(Doctor doctor, Collection<Patient> patients, Hospital hospital) {
+        super(doctor, hospital);
         this.patients.addAll(patients);
     }
 
     @Override
-    public void run() {
-        for (Patient patient:patients) {    // For every patient in the list
-            System.out.println("Dr. " + doctor.getName() + " is visiting " + patient.getName() + " in room " + patient.getRoom());
-            try {
-                sleep(1000);    // sleep for one second
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        doctor.setFree(true);   // set availability of doctor
-        hospital.examinePatients(); // method that examine waiting patients
+    public int getSteps() {
+        return patients.size();
+    }
+
+    @Override
+    public void step(int step) {
+        Patient patient = patients.get(step);
+        hospital.getEventSink().visit(doctor, patient, patient.getRoom());
+    }
+
+    @Override
+    public long getStepTime() {
+        return hospital.getVisitationTime();
+    }
+
+    @Override
+    protected void record(HospitalMetrics metrics, long busyTime) {
+        metrics.visitation(doctor, patients.size(), busyTime);
     }
 }
@@ -0,0 +1,155 @@
+package Hospital.model.threads;
+
+import Hospital.model.Hospital;
+import Hospital.model.persons.Doctor;
+import Hospital.model.persons.Patient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Daily round of a doctor around all his patients, split in slices of a few visits.
+ * Every slice is one Visitation. Between two slices the hospital can give the doctor one severe waiting patient to examine,
+ * then the round goes on with the next slice, so a long round does not stop the examinations for the whole day
+ * and severe patients never wait for more than one slice.
+ * The round counts its time from the start to the last visit, the examinations that interrupted it, and the time of the slices
+ * that started while patients of the specialization were waiting, which is the delay of the examinations caused by the round.
+ * ------------
+ * The round is changed only by the thread that holds the claim of the doctor, the results can be read by any thread
+ * after the round is complete.
+ */
+public class VisitationRound {
+    private final Doctor doctor;
+    private final ArrayList<Patient> patients;  // patients of the doctor when the round started
+    private final int sliceVisits;  // most visits in one slice
+    private final long start;   // time of the scheduler when the round started
+    private int next = 0;   // index of the first patient of the next slice
+    private int slices = 0;
+    private int preemptions = 0;    // examinations between the slices
+    private long blockedTime = 0;   // time of the slices that started while patients were waiting
+    private long sliceStart = -1;   // start of the running slice, -1 if no slice is running
+    private boolean sliceBlocked;   // true if patients were waiting when the running slice started
+    private boolean afterPreemption = false;    // true if the last work of the doctor was an examination between the slices
+    private volatile long end = -1; // time of the end of the last visit, -1 while the round is running
+
+    /**
+     * @param doctor doctor of the round
+     * @param patients patients of the doctor, copied
+     * @param sliceVisits most visits in one slice
+     * @param start current time of the scheduler in milliseconds
+     */
+    public VisitationRound(Doctor doctor, Collection<Patient> patients, int sliceVisits, long start) {
+        this.doctor = doctor;
+        this.patients = new ArrayList<>(patients);
+        this.sliceVisits = Math.max(1, sliceVisits);
+        this.start = start;
+    }
+
+    /**
+     * Creates the visitation of the next slice. The first slice is created also for a doctor without patients.
+     *
+     * @param hospital hospital
+     * @param patientsWaiting true if patients of the specialization are waiting for examination
+     * @return visitation of the next patients
+     */
+    public Visitation nextSlice(Hospital hospital, boolean patientsWaiting) {
+        int from = next;
+        next = (int) Math.min(patients.size(), (long) next + sliceVisits);
+        slices++;
+        sliceStart = hospital.now();
+        sliceBlocked = patientsWaiting;
+        afterPreemption = false;
+        return new Visitation(doctor, patients.subList(from, next), hospital);
+    }
+
+    /**
+     * Called when the doctor finished a slice or an examination between the slices.
+     *
+     * @param now current time of the scheduler in milliseconds
+     */
+    public void workFinished(long now) {
+        if (sliceStart >= 0 && sliceBlocked) {
+            blockedTime += now - sliceStart;
+        }
+        sliceStart = -1;
+    }
+
+    /**
+     * @return true if some patients were not visited yet
+     */
+    public boolean hasNextSlice() {
+        return next < patients.size();
+    }
+
+    /**
+     * @return true if the doctor can examine a patient before the next slice, only one examination between two slices
+     */
+    public boolean canPreempt() {
+        return !afterPreemption && hasNextSlice();
+    }
+
+    /**
+     * Counts an examination between the slices.
+     */
+    public void preempted() {
+        preemptions++;
+        afterPreemption = true;
+    }
+
+    /**
+     * @param now time of the end of the last visit in milliseconds
+     */
+    public void complete(long now) {
+        end = now;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    /**
+     * @return true if all patients were visited
+     */
+    public boolean isComplete() {
+        return end >= 0;
+    }
+
+    /**
+     * @return number of patients in the round
+     */
+    public int getPatientsCount() {
+        return patients.size();
+    }
+
+    /**
+     * @return time of the scheduler when the round started
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return time from the start of the round to the last visit in milliseconds, -1 if the round is running
+     */
+    public long getCompletionTime() {
+        return end < 0 ? -1 : end - start;
+    }
+
+    /**
+     * @return time of the slices that started while patients of the specialization were waiting for examination
+     */
+    public long getBlockedTime() {
+        return blockedTime;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    /**
+     * @return number of examinations between the slices
+     */
+    public int getPreemptions() {
+        return preemptions;
+    }
+}